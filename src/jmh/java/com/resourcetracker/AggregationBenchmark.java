@@ -0,0 +1,85 @@
+package com.resourcetracker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the work done on every container change: refreshing a container
+ * cache and recomputing tracked item totals, as in
+ * {@code ResourceTrackerPlugin.updateTrackedItems}.
+ * Run with {@code ./gradlew jmh}, the gc profiler reports allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AggregationBenchmark
+{
+	@Param({"50", "500", "2000"})
+	public int trackedItems;
+
+	@Param({"1", "10", "50"})
+	public int categories;
+
+	@Param({"0", "25"})
+	public int inventoryOnlyPercent;
+
+	private SyntheticWorkload workload;
+	private ItemAggregator aggregator;
+	private int inventoryState;
+	private int boat;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		workload = new SyntheticWorkload(trackedItems, categories, inventoryOnlyPercent, 42);
+		aggregator = new ItemAggregator(container -> true);
+		workload.loadInto(aggregator);
+	}
+
+	/**
+	 * Bank reopened with unchanged contents: a full pass that finds nothing to update.
+	 */
+	@Benchmark
+	public Set<String> bankUnchanged()
+	{
+		aggregator.updateContainerCache(ContainerTracker.BANK.getId(), workload.getBank());
+		return aggregator.update(workload.getTrackedItems(), workload.getInventoryOnlyCategories());
+	}
+
+	/**
+	 * Inventory flips between two states, so tracked items change on every call.
+	 */
+	@Benchmark
+	public Set<String> inventoryChanged()
+	{
+		aggregator.updateContainerCache(ContainerTracker.INVENTORY.getId(), workload.getInventory(inventoryState ^= 1));
+		return aggregator.update(workload.getTrackedItems(), workload.getInventoryOnlyCategories());
+	}
+
+	/**
+	 * Cycles through the five boats via their alternate container IDs.
+	 */
+	@Benchmark
+	public Set<String> boatUpdated()
+	{
+		boat = (boat + 1) % SyntheticWorkload.BOAT_COUNT;
+		aggregator.updateContainerCache(ContainerTracker.BOAT_1_ALT.getId() + boat, workload.getBoat(boat));
+		return aggregator.update(workload.getTrackedItems(), workload.getInventoryOnlyCategories());
+	}
+}
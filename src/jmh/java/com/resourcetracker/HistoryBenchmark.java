@@ -0,0 +1,185 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link HistoryFile} format with naive JSON, a list of timestamped
+ * samples per history. Encoded sizes and bytes per sample are printed once per
+ * trial, the gc profiler reports allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HistoryBenchmark
+{
+	private static class Sample
+	{
+		private long time;
+		private int amount;
+	}
+
+	private static final Type JSON_TYPE = new TypeToken<Map<String, List<Sample>>>(){}.getType();
+
+	@Param({"50", "500"})
+	public int trackedItems;
+
+	@Param({"30", "365"})
+	public int days;
+
+	private final Gson gson = new Gson();
+
+	private HistoryStore store;
+	private byte[] encoded;
+	private String json;
+	private long fromBucket;
+	private long toBucket;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		// Played a few hours a day, gaining or losing a little on most minutes of play
+		Random random = new Random(42);
+		store = new HistoryStore();
+		long start = TimeUnit.DAYS.toMillis(20_000);
+		for (int item = 0; item < trackedItems; item++)
+		{
+			String key = (1 + random.nextInt(30_000)) + ":Category " + item % 12;
+			int amount = random.nextInt(10_000);
+			for (int day = 0; day < days; day++)
+			{
+				long session = start + TimeUnit.DAYS.toMillis(day) + TimeUnit.HOURS.toMillis(18);
+				for (int minute = 0; minute < 180; minute += 1 + random.nextInt(5))
+				{
+					amount = Math.max(0, amount + random.nextInt(20) - 8);
+					store.record(key, session + TimeUnit.MINUTES.toMillis(minute), amount);
+				}
+			}
+		}
+
+		encoded = store.encode();
+		json = gson.toJson(toSamples(store));
+
+		int samples = 0;
+		for (List<Sample> history : gson.<Map<String, List<Sample>>>fromJson(json, JSON_TYPE).values())
+		{
+			samples += history.size();
+		}
+		int jsonBytes = json.getBytes(StandardCharsets.UTF_8).length;
+		System.out.printf("%n%d items, %d days: %d samples, compact=%d bytes (%.2f per sample), json=%d bytes (%.2f per sample)%n",
+			trackedItems, days, samples, encoded.length, (double) encoded.length / samples, jsonBytes, (double) jsonBytes / samples);
+
+		// A week of hourly history a fortnight ago, for range reads
+		toBucket = HistoryStore.Resolution.HOUR.bucket(start + TimeUnit.DAYS.toMillis(days - 14));
+		fromBucket = toBucket - 7 * 24;
+	}
+
+	/**
+	 * The samples the compact format stores, as timestamped JSON objects.
+	 */
+	private static Map<String, List<Sample>> toSamples(HistoryStore store)
+	{
+		Map<String, List<Sample>> histories = new HashMap<>();
+		try (HistoryFile.Reader reader = HistoryFile.open(store.encode()))
+		{
+			for (String key : reader.getKeys())
+			{
+				for (HistoryStore.Resolution resolution : HistoryStore.Resolution.values())
+				{
+					List<Sample> samples = histories.computeIfAbsent(key + "/" + resolution, k -> new ArrayList<>());
+					reader.read(key, resolution, Long.MIN_VALUE, Long.MAX_VALUE, (bucket, amount) ->
+					{
+						Sample sample = new Sample();
+						sample.time = bucket * resolution.getBucketMillis();
+						sample.amount = amount;
+						samples.add(sample);
+					});
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return histories;
+	}
+
+	@Benchmark
+	public byte[] encodeCompact()
+	{
+		return store.encode();
+	}
+
+	@Benchmark
+	public HistoryStore decodeCompact() throws IOException
+	{
+		HistoryStore decoded = new HistoryStore();
+		decoded.decode(encoded);
+		return decoded;
+	}
+
+	/**
+	 * Every sample of every history, without building ring buffers.
+	 */
+	@Benchmark
+	public void readAllSamplesCompact(Blackhole blackhole) throws IOException
+	{
+		try (HistoryFile.Reader reader = HistoryFile.open(encoded))
+		{
+			for (String key : reader.getKeys())
+			{
+				for (HistoryStore.Resolution resolution : HistoryStore.Resolution.values())
+				{
+					reader.read(key, resolution, Long.MIN_VALUE, Long.MAX_VALUE, (bucket, amount) -> blackhole.consume(amount));
+				}
+			}
+		}
+	}
+
+	/**
+	 * A week of hourly samples of every history, decoding only the blocks covering it.
+	 */
+	@Benchmark
+	public void readRangeCompact(Blackhole blackhole) throws IOException
+	{
+		try (HistoryFile.Reader reader = HistoryFile.open(encoded))
+		{
+			for (String key : reader.getKeys())
+			{
+				reader.read(key, HistoryStore.Resolution.HOUR, fromBucket, toBucket, (bucket, amount) -> blackhole.consume(amount));
+			}
+		}
+	}
+
+	@Benchmark
+	public Map<String, List<Sample>> decodeJson()
+	{
+		return gson.fromJson(json, JSON_TYPE);
+	}
+}
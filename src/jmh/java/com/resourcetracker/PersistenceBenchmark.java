@@ -0,0 +1,155 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization done by {@code saveData} and {@code loadData}:
+ * tracked items, container caches and category order, encoded the same way the
+ * plugin stores them in the profile config.
+ * Encoded sizes are printed once per trial, the gc profiler reports allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PersistenceBenchmark
+{
+	public enum Size
+	{
+		// A typical account: a few hundred items in about a dozen categories
+		REALISTIC(300, 12),
+		// Far beyond what the panel is designed for
+		EXTREME(5000, 200);
+
+		private final int trackedItems;
+		private final int categories;
+
+		Size(int trackedItems, int categories)
+		{
+			this.trackedItems = trackedItems;
+			this.categories = categories;
+		}
+	}
+
+	private static final Type TRACKED_ITEMS_TYPE = new TypeToken<List<TrackedItem>>(){}.getType();
+	private static final Type CONTAINER_CACHES_TYPE = new TypeToken<Map<Integer, Map<Integer, Integer>>>(){}.getType();
+	private static final Type CATEGORY_ORDER_TYPE = new TypeToken<List<String>>(){}.getType();
+
+	@Param
+	public Size size;
+
+	private final Gson gson = new Gson();
+
+	private List<TrackedItem> trackedItems;
+	private Map<Integer, Map<Integer, Integer>> containerCaches;
+	private List<String> categoryOrder;
+
+	private String trackedItemsJson;
+	private String containerCachesJson;
+	private String categoryOrderJson;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		SyntheticWorkload workload = new SyntheticWorkload(size.trackedItems, size.categories, 0, 42);
+		ItemAggregator aggregator = new ItemAggregator(container -> true);
+		workload.loadInto(aggregator);
+
+		trackedItems = workload.getTrackedItems();
+		containerCaches = aggregator.getContainerCaches();
+		categoryOrder = new ArrayList<>(workload.getCategories());
+
+		trackedItemsJson = gson.toJson(new ArrayList<>(trackedItems));
+		containerCachesJson = gson.toJson(containerCaches);
+		categoryOrderJson = gson.toJson(categoryOrder);
+
+		System.out.printf("%n%s encoded bytes: trackedItems=%d containerCaches=%d categoryOrder=%d%n",
+			size, utf8Length(trackedItemsJson), utf8Length(containerCachesJson), utf8Length(categoryOrderJson));
+	}
+
+	private static int utf8Length(String value)
+	{
+		return value.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	@Benchmark
+	public String serializeTrackedItems()
+	{
+		return gson.toJson(new ArrayList<>(trackedItems));
+	}
+
+	@Benchmark
+	public String serializeContainerCaches()
+	{
+		return gson.toJson(containerCaches);
+	}
+
+	@Benchmark
+	public String serializeCategoryOrder()
+	{
+		return gson.toJson(categoryOrder);
+	}
+
+	/**
+	 * Everything saveData writes in one call.
+	 */
+	@Benchmark
+	public void serializeAll(Blackhole blackhole)
+	{
+		blackhole.consume(gson.toJson(new ArrayList<>(trackedItems)));
+		blackhole.consume(gson.toJson(containerCaches));
+		blackhole.consume(gson.toJson(categoryOrder));
+	}
+
+	@Benchmark
+	public List<TrackedItem> deserializeTrackedItems()
+	{
+		return gson.fromJson(trackedItemsJson, TRACKED_ITEMS_TYPE);
+	}
+
+	@Benchmark
+	public Map<Integer, Map<Integer, Integer>> deserializeContainerCaches()
+	{
+		return gson.fromJson(containerCachesJson, CONTAINER_CACHES_TYPE);
+	}
+
+	@Benchmark
+	public List<String> deserializeCategoryOrder()
+	{
+		return gson.fromJson(categoryOrderJson, CATEGORY_ORDER_TYPE);
+	}
+
+	/**
+	 * Everything loadData reads in one call.
+	 */
+	@Benchmark
+	public void deserializeAll(Blackhole blackhole)
+	{
+		blackhole.consume(gson.fromJson(categoryOrderJson, CATEGORY_ORDER_TYPE));
+		blackhole.consume(gson.fromJson(containerCachesJson, CONTAINER_CACHES_TYPE));
+		blackhole.consume(gson.fromJson(trackedItemsJson, TRACKED_ITEMS_TYPE));
+	}
+}
@@ -0,0 +1,164 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic account state for the benchmarks: a full bank,
+ * an inventory, five boats and a configurable set of tracked items spread
+ * over a number of categories.
+ */
+public class SyntheticWorkload
+{
+	public static final int BANK_SLOTS = 800;
+	public static final int INVENTORY_SLOTS = 28;
+	public static final int BOAT_SLOTS = 40;
+	public static final int BOAT_COUNT = 5;
+
+	// Roughly the size of the item ID space in the cache
+	private static final int MAX_ITEM_ID = 30000;
+
+	private final Item[] bank;
+	private final Item[][] inventories = new Item[2][];
+	private final Item[][] boats = new Item[BOAT_COUNT][];
+	private final List<TrackedItem> trackedItems = new ArrayList<>();
+	private final Set<String> categories = new LinkedHashSet<>();
+	private final Set<String> inventoryOnlyCategories = new HashSet<>();
+
+	/**
+	 * @param trackedItemCount     Number of tracked items
+	 * @param categoryCount        Number of categories the items are spread over
+	 * @param inventoryOnlyPercent Percentage of categories restricted to the inventory
+	 * @param seed                 Random seed, equal seeds produce equal workloads
+	 */
+	public SyntheticWorkload(int trackedItemCount, int categoryCount, int inventoryOnlyPercent, long seed)
+	{
+		Random random = new Random(seed);
+
+		bank = randomContainer(random, BANK_SLOTS, 10_000);
+		for (int i = 0; i < BOAT_COUNT; i++)
+		{
+			boats[i] = randomContainer(random, BOAT_SLOTS, 500);
+		}
+
+		for (int i = 0; i < categoryCount; i++)
+		{
+			String category = "Category " + i;
+			categories.add(category);
+			if (i * 100 < categoryCount * inventoryOnlyPercent)
+			{
+				inventoryOnlyCategories.add(category);
+			}
+		}
+
+		// Up to half the tracked items are banked, the rest are scattered through the ID space
+		List<String> categoryList = new ArrayList<>(categories);
+		Set<Integer> usedIds = new HashSet<>();
+		int bankSlot = 0;
+		for (int i = 0; i < trackedItemCount; i++)
+		{
+			int itemId;
+			do
+			{
+				boolean fromBank = i % 2 == 0 && bankSlot < BANK_SLOTS && bank[bankSlot].getId() > 0;
+				itemId = fromBank ? bank[bankSlot++].getId() : 1 + random.nextInt(MAX_ITEM_ID);
+			}
+			while (!usedIds.add(itemId));
+
+			String category = categoryList.get(i % categoryCount);
+			TrackedItem item = new TrackedItem(itemId, "Item " + itemId, random.nextBoolean() ? 1 + random.nextInt(5_000) : null, category);
+			item.setGePrice(random.nextInt(100_000));
+			item.setHaPrice(random.nextInt(50_000));
+			trackedItems.add(item);
+		}
+
+		// Two inventory states that differ in the quantity of tracked items
+		Item[] inventory = new Item[INVENTORY_SLOTS];
+		Item[] changed = new Item[INVENTORY_SLOTS];
+		for (int i = 0; i < INVENTORY_SLOTS; i++)
+		{
+			int itemId = trackedItems.get(random.nextInt(trackedItems.size())).getItemId();
+			int quantity = 1 + random.nextInt(100);
+			inventory[i] = new Item(itemId, quantity);
+			changed[i] = new Item(itemId, quantity + 1);
+		}
+		inventories[0] = inventory;
+		inventories[1] = changed;
+	}
+
+	private static Item[] randomContainer(Random random, int slots, int maxQuantity)
+	{
+		Item[] items = new Item[slots];
+		Set<Integer> ids = new HashSet<>();
+		for (int i = 0; i < slots; i++)
+		{
+			int itemId;
+			do
+			{
+				itemId = 1 + random.nextInt(MAX_ITEM_ID);
+			}
+			while (!ids.add(itemId));
+			items[i] = new Item(itemId, 1 + random.nextInt(maxQuantity));
+		}
+		// A few empty slots, as in a real bank
+		Arrays.fill(items, slots - slots / 20, slots, new Item(-1, 0));
+		return items;
+	}
+
+	/**
+	 * Cache every container and seed the category statistics.
+	 *
+	 * @param aggregator The aggregator to fill
+	 */
+	public void loadInto(ItemAggregator aggregator)
+	{
+		aggregator.updateContainerCache(ContainerTracker.BANK.getId(), bank);
+		aggregator.updateContainerCache(ContainerTracker.INVENTORY.getId(), inventories[0]);
+		for (int i = 0; i < BOAT_COUNT; i++)
+		{
+			aggregator.updateContainerCache(ContainerTracker.BOAT_1.getId() + i, boats[i]);
+		}
+		aggregator.rebuildCategoryStats(trackedItems);
+		aggregator.update(trackedItems, inventoryOnlyCategories);
+	}
+
+	public Item[] getBank()
+	{
+		return bank;
+	}
+
+	/**
+	 * @param state 0 or 1, the two states differ in tracked item quantities
+	 */
+	public Item[] getInventory(int state)
+	{
+		return inventories[state];
+	}
+
+	public Item[] getBoat(int boat)
+	{
+		return boats[boat];
+	}
+
+	public List<TrackedItem> getTrackedItems()
+	{
+		return trackedItems;
+	}
+
+	public Set<String> getCategories()
+	{
+		return categories;
+	}
+
+	public Set<String> getInventoryOnlyCategories()
+	{
+		return inventoryOnlyCategories;
+	}
+}
@@ -0,0 +1,158 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneScapeProfile;
+import net.runelite.client.config.RuneScapeProfileType;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The container caches other accounts saved in their RuneScape profiles, for summing
+ * tracked items across accounts. Profiles are decoded on the first refresh and kept
+ * with the cache times they were saved with; later refreshes only read the times
+ * and decode the profiles whose times changed.
+ */
+@Slf4j
+public class AccountTotals
+{
+	private static final String CONFIG_GROUP = "resourcetracker";
+	private static final Type CACHES_TYPE = new TypeToken<Map<Integer, Map<Integer, Integer>>>(){}.getType();
+
+	/**
+	 * The saved caches of one account.
+	 */
+	public static final class Account
+	{
+		private final String name;
+		private final String cacheTimes;
+		private final Map<Integer, Map<Integer, Integer>> caches;
+
+		private Account(String name, String cacheTimes, Map<Integer, Map<Integer, Integer>> caches)
+		{
+			this.name = name;
+			this.cacheTimes = cacheTimes;
+			this.caches = caches;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * @return Item quantities per container, as saved by the account
+		 */
+		public Map<Integer, Map<Integer, Integer>> getCaches()
+		{
+			return caches;
+		}
+	}
+
+	private final ConfigManager configManager;
+	private final Gson gson;
+
+	// Decoded accounts by profile key, reused while their cache times are unchanged
+	private final Map<String, Account> decoded = new HashMap<>();
+
+	// Replaced as a whole by refresh(), so the panel can read it from the EDT
+	private volatile List<Account> accounts = Collections.emptyList();
+
+	public AccountTotals(ConfigManager configManager, Gson gson)
+	{
+		this.configManager = configManager;
+		this.gson = gson;
+	}
+
+	/**
+	 * Bring the accounts up to date with the saved profiles.
+	 *
+	 * @param currentProfileKey The logged in profile, left out as its caches are live, or null
+	 * @return The number of profiles that had to be decoded
+	 */
+	public synchronized int refresh(String currentProfileKey)
+	{
+		List<RuneScapeProfile> profiles = configManager.getRSProfiles();
+		if (profiles == null)
+		{
+			profiles = Collections.emptyList();
+		}
+
+		int decodedCount = 0;
+		List<Account> next = new ArrayList<>();
+		Map<String, Account> seen = new HashMap<>();
+		for (RuneScapeProfile profile : profiles)
+		{
+			String key = profile.getKey();
+			if (profile.getType() != RuneScapeProfileType.STANDARD || key.equals(currentProfileKey))
+			{
+				continue;
+			}
+
+			String cacheTimes = configManager.getConfiguration(CONFIG_GROUP, key, "cacheTimes");
+			Account account = decoded.get(key);
+			if (account == null || !Objects.equals(account.cacheTimes, cacheTimes))
+			{
+				String name = profile.getDisplayName() != null ? profile.getDisplayName() : key;
+				account = new Account(name, cacheTimes, decode(key));
+				decodedCount++;
+			}
+			seen.put(key, account);
+			if (!account.caches.isEmpty())
+			{
+				next.add(account);
+			}
+		}
+
+		// Profiles that were removed are dropped along with their caches
+		decoded.clear();
+		decoded.putAll(seen);
+		accounts = Collections.unmodifiableList(next);
+		return decodedCount;
+	}
+
+	private Map<Integer, Map<Integer, Integer>> decode(String profileKey)
+	{
+		String json = configManager.getConfiguration(CONFIG_GROUP, profileKey, "containerCaches");
+		if (json == null || json.isEmpty())
+		{
+			return Collections.emptyMap();
+		}
+
+		try
+		{
+			Map<Integer, Map<Integer, Integer>> caches = gson.fromJson(json, CACHES_TYPE);
+			return caches != null ? caches : Collections.emptyMap();
+		}
+		catch (Exception e)
+		{
+			log.warn("Skipping unreadable container caches of profile {}", profileKey, e);
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * @return The other accounts with saved caches, as of the last refresh
+	 */
+	public List<Account> getAccounts()
+	{
+		return accounts;
+	}
+
+	/**
+	 * Forget every account, e.g. when the all accounts view is turned off.
+	 */
+	public synchronized void clear()
+	{
+		decoded.clear();
+		accounts = Collections.emptyList();
+	}
+}
@@ -0,0 +1,93 @@
+package com.resourcetracker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * When each container cache was last refreshed from its live container. Saved along
+ * with the caches as one short string of container IDs and the seconds since the
+ * epoch in base 36, e.g. "95:t3xg5q,626:t2p0aa".
+ */
+public class CacheTimes
+{
+	private final Map<Integer, Long> times = new HashMap<>();
+
+	/**
+	 * Record that a cache was refreshed from its live container.
+	 *
+	 * @return When it was refreshed before, 0 if never
+	 */
+	public synchronized long refreshed(int cacheId, long now)
+	{
+		Long previous = times.put(cacheId, now);
+		return previous != null ? previous : 0;
+	}
+
+	/**
+	 * @return When the cache was last refreshed, 0 if never
+	 */
+	public synchronized long getTime(int cacheId)
+	{
+		Long time = times.get(cacheId);
+		return time != null ? time : 0;
+	}
+
+	/**
+	 * @return A copy of the refresh times by cache ID
+	 */
+	public synchronized Map<Integer, Long> getTimes()
+	{
+		return new HashMap<>(times);
+	}
+
+	/**
+	 * @return The times in their saved form, empty if there are none
+	 */
+	public synchronized String encode()
+	{
+		StringBuilder encoded = new StringBuilder();
+		for (Map.Entry<Integer, Long> entry : new TreeMap<>(times).entrySet())
+		{
+			if (encoded.length() > 0)
+			{
+				encoded.append(',');
+			}
+			encoded.append(entry.getKey()).append(':').append(Long.toString(entry.getValue() / 1000, 36));
+		}
+		return encoded.toString();
+	}
+
+	/**
+	 * Replace the times with saved ones, entries that can't be read are skipped.
+	 *
+	 * @param encoded The times as returned by {@link #encode()}, or null
+	 */
+	public synchronized void decode(String encoded)
+	{
+		times.clear();
+		if (encoded == null || encoded.isEmpty())
+		{
+			return;
+		}
+
+		for (String entry : encoded.split(","))
+		{
+			int separator = entry.indexOf(':');
+			try
+			{
+				int cacheId = Integer.parseInt(entry.substring(0, separator));
+				times.put(cacheId, Long.parseLong(entry.substring(separator + 1), 36) * 1000);
+			}
+			catch (NumberFormatException | StringIndexOutOfBoundsException e)
+			{
+				// Left out, the cache reads as never refreshed
+			}
+		}
+	}
+
+	public synchronized void clear()
+	{
+		times.clear();
+	}
+}
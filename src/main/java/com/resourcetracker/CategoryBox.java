@@ -15,14 +15,25 @@ import java.awt.datatransfer.Transferable;
 import java.awt.dnd.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class CategoryBox extends JPanel
 {
     private static final int ITEMS_PER_ROW = 5;
 
+    // Header text while some of the items are counted from containers not seen for a while
+    private static final Color STALE_TEXT_COLOR = new Color(120, 120, 120);
+
     private final String categoryName;
     private final ResourceTrackerPlugin plugin;
     private final ItemManager itemManager;
@@ -32,11 +43,80 @@ public class CategoryBox extends JPanel
     private final JPanel headerPanel = new JPanel();
     private final JLabel titleLabel = new JLabel();
     private final JPanel progressBarPanel = new JPanel();
+    private final CategoryProgressBar progressBar = new CategoryProgressBar();
     private final JLabel totalLabel = new JLabel();
+    private final JLabel slowestLabel = new JLabel();
+    private final JMenuItem toggleMode = new JMenuItem();
 
     private List<TrackedItem> items;
+    private ItemOrder itemOrder;
+    private boolean allAccounts;
+
+    // Containers not seen for a while that hold some of the items, by when they were seen
+    private Map<String, Long> staleContainers = Collections.emptyMap();
+
+    // Set by the panel's filter box, hides the slots of items that don't match
+    private Predicate<TrackedItem> filter;
     private boolean isSelected = false;
 
+    // Item slots are only built while expanded; collapsed boxes just remember they're stale
+    private boolean itemsStale = true;
+
+    // What the item slots show, so refreshes that change nothing visible don't rebuild them
+    private List<SlotState> builtSlots = null;
+    private final Map<TrackedItem, SlotState> slotsByItem = new IdentityHashMap<>();
+
+    // The slowest goal is found again when progress changes, or now and then as rates decay
+    private static final long SLOWEST_ITEM_INTERVAL_MILLIS = 30_000;
+    private long slowestProgress = -1;
+    private long slowestGoalTotal = -1;
+    private long slowestUpdatedMillis;
+
+    /**
+     * An item slot and the values it was built from.
+     */
+    private static class SlotState
+    {
+        private final JPanel component;
+        private final TrackedItem item;
+        private final int currentAmount;
+        private final long shownAmount;
+        private final Integer goalAmount;
+        private final boolean inventoryOnly;
+        private final int gePrice;
+        private final int haPrice;
+        private final Map<String, Integer> containerQuantities;
+        private final int containerCount;
+
+        SlotState(TrackedItem item, long shownAmount, JPanel component)
+        {
+            this.component = component;
+            this.item = item;
+            this.currentAmount = item.getCurrentAmount();
+            this.shownAmount = shownAmount;
+            this.goalAmount = item.getGoalAmount();
+            this.inventoryOnly = item.isInventoryOnly();
+            this.gePrice = item.getGePrice();
+            this.haPrice = item.getHaPrice();
+            this.containerQuantities = item.getContainerQuantities();
+            this.containerCount = containerQuantities.size();
+        }
+
+        boolean matches(TrackedItem other, long otherShownAmount)
+        {
+            // Breakdowns are replaced rather than edited when quantities change, except when cleared
+            return item == other
+                    && currentAmount == other.getCurrentAmount()
+                    && shownAmount == otherShownAmount
+                    && Objects.equals(goalAmount, other.getGoalAmount())
+                    && inventoryOnly == other.isInventoryOnly()
+                    && gePrice == other.getGePrice()
+                    && haPrice == other.getHaPrice()
+                    && containerQuantities == other.getContainerQuantities()
+                    && containerCount == containerQuantities.size();
+        }
+    }
+
     public CategoryBox(String categoryName, ResourceTrackerPlugin plugin, ItemManager itemManager, ResourceTrackerPanel parentPanel, ChatboxPanelManager chatboxPanelManager)
     {
         this.categoryName = categoryName;
@@ -70,6 +150,12 @@ public class CategoryBox extends JPanel
 
         headerPanel.add(titleRow);
 
+        // Goal furthest from being reached at the current rates
+        slowestLabel.setFont(FontManager.getRunescapeSmallFont());
+        slowestLabel.setForeground(new Color(200, 200, 200));
+        slowestLabel.setVisible(false);
+        headerPanel.add(slowestLabel);
+
         // Progress bar panel
         progressBarPanel.setLayout(new BorderLayout());
         progressBarPanel.setOpaque(false);
@@ -77,13 +163,20 @@ public class CategoryBox extends JPanel
         progressBarPanel.setPreferredSize(new Dimension(0, 4));
         progressBarPanel.setBorder(new EmptyBorder(3, 0, 0, 0));
         progressBarPanel.setVisible(false); // Initially hidden
+        progressBarPanel.add(progressBar, BorderLayout.CENTER);
         headerPanel.add(progressBarPanel);
 
         add(headerPanel, BorderLayout.NORTH);
         add(itemContainer, BorderLayout.CENTER);
 
-        // Setup drag and drop for reordering categories
-        setupDragAndDrop();
+        // Start collapsed, the item grid is materialized on first expand
+        itemContainer.setVisible(false);
+
+        // Setup drag and drop for reordering categories (drop targets need a display)
+        if (!GraphicsEnvironment.isHeadless())
+        {
+            setupDragAndDrop();
+        }
 
         // Make header clickable for selection and collapse/expand
         headerPanel.addMouseListener(new MouseAdapter()
@@ -118,9 +211,7 @@ public class CategoryBox extends JPanel
         final JPopupMenu categoryPopup = new JPopupMenu();
         categoryPopup.setBorder(new EmptyBorder(5, 5, 5, 5));
 
-        // Category Mode Toggle
-        boolean isInvOnly = plugin.isCategoryInventoryOnly(categoryName);
-        JMenuItem toggleMode = new JMenuItem(isInvOnly ? "Track All Containers" : "Track Inventory Only");
+        // Category Mode Toggle (label is kept in sync by updateHeaderColor)
         toggleMode.addActionListener(e -> {
             plugin.toggleCategoryInventoryOnly(categoryName);
         });
@@ -145,6 +236,23 @@ public class CategoryBox extends JPanel
         importCategory.addActionListener(e -> parentPanel.importCategoryFromClipboard(categoryName));
         categoryPopup.add(importCategory);
 
+        // Boxes are rebuilt when the mode changes, so the selection is set once
+        JMenu sortItems = new JMenu("Sort Items By");
+        ButtonGroup sortGroup = new ButtonGroup();
+        for (ItemOrder.Mode mode : ItemOrder.Mode.values())
+        {
+            JRadioButtonMenuItem sortItem = new JRadioButtonMenuItem(mode.toString(), mode == plugin.getConfig().itemSortMode());
+            sortItem.addActionListener(e -> plugin.setItemSortMode(mode));
+            sortGroup.add(sortItem);
+            sortItems.add(sortItem);
+        }
+        categoryPopup.add(sortItems);
+        categoryPopup.addSeparator();
+
+        JMenuItem copyShoppingList = new JMenuItem("Copy Shopping List");
+        copyShoppingList.addActionListener(e -> parentPanel.copyShoppingList(categoryName));
+        categoryPopup.add(copyShoppingList);
+
         categoryPopup.addSeparator();
 
         JMenuItem resetCounts = new JMenuItem("Reset Item Counts");
@@ -198,12 +306,44 @@ public class CategoryBox extends JPanel
     {
         if (isCollapsed())
         {
+            if (itemsStale)
+            {
+                refreshItems();
+            }
             itemContainer.setVisible(true);
             parentPanel.revalidate();
             parentPanel.repaint();
         }
     }
 
+    /**
+     * Only show the items that pass the filter, reusing their slots.
+     *
+     * @param filter The items to show, or null to show all
+     * @return true if any of the category's items pass
+     */
+    public boolean setFilter(Predicate<TrackedItem> filter)
+    {
+        this.filter = filter;
+        if (builtSlots != null)
+        {
+            layoutSlots();
+        }
+
+        if (filter == null || items == null)
+        {
+            return true;
+        }
+        for (TrackedItem item : items)
+        {
+            if (filter.test(item))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean isCollapsed()
     {
         return !itemContainer.isVisible();
@@ -255,6 +395,7 @@ public class CategoryBox extends JPanel
             // Standard colors: Dark Gray when selected, Darker Gray when not
             headerPanel.setBackground(isSelected ? ColorScheme.DARKER_GRAY_COLOR : ColorScheme.DARKER_GRAY_COLOR.darker());
         }
+        toggleMode.setText(isInvOnly ? "Track All Containers" : "Track Inventory Only");
     }
 
     public String getCategoryName()
@@ -262,34 +403,54 @@ public class CategoryBox extends JPanel
         return categoryName;
     }
 
-    public void rebuild(List<TrackedItem> items)
+    /**
+     * @param items       The category's items in the order they were added
+     * @param sortMode    How to order them
+     * @param allAccounts Whether to show amounts summed over every account
+     */
+    public void rebuild(List<TrackedItem> items, ItemOrder.Mode sortMode, boolean allAccounts)
     {
-        this.items = items;
-        buildItems();
+        this.allAccounts = allAccounts;
+
+        // Only items whose sort key changed move, the rest keep their place and slot
+        if (itemOrder == null || itemOrder.getMode() != sortMode)
+        {
+            itemOrder = new ItemOrder(sortMode);
+        }
+        itemOrder.update(items);
+        this.items = itemOrder.getItems();
+
+        // Collapsed categories only refresh their header; slots are built when expanded
+        if (isCollapsed())
+        {
+            itemsStale = true;
+        }
+        else
+        {
+            refreshItems();
+        }
+
         updateHeaderStats();
         updateHeaderColor();
     }
 
     private void updateHeaderStats()
     {
-        // Calculate totals
-        long totalContribution = 0; // Capped at the goal for each item
-        long totalGoal = 0;
-        boolean hasGoals = false;
+        // Totals are maintained by the plugin as quantities change, no need to iterate items here
+        CategoryStats stats = plugin.getCategoryStats(categoryName);
+        boolean hasGoals = stats.hasGoals();
 
-        if (items != null)
+        // Other accounts aren't part of the rollups, their share is summed here
+        long cappedProgress = stats.getCappedProgress();
+        if (allAccounts && hasGoals && items != null)
         {
+            cappedProgress = 0;
             for (TrackedItem item : items)
             {
-                if (item.getGoalAmount() != null)
+                Integer goal = item.getGoalAmount();
+                if (goal != null && goal > 0)
                 {
-                    hasGoals = true;
-                    int goal = item.getGoalAmount();
-                    totalGoal += goal;
-
-                    // Cap the contribution so extra items don't hide
-                    // the fact that other items are still missing.
-                    totalContribution += Math.min(item.getCurrentAmount(), goal);
+                    cappedProgress += Math.min(shownAmount(item), goal);
                 }
             }
         }
@@ -298,8 +459,8 @@ public class CategoryBox extends JPanel
         if (plugin.getConfig().showCategoryTotals() && hasGoals)
         {
             // Now shows "Items Collected / Total Goal" capped at 100%
-            String totalText = QuantityFormatter.formatNumber(totalContribution) +
-                    " / " + QuantityFormatter.formatNumber(totalGoal);
+            String totalText = QuantityFormatter.formatNumber(cappedProgress) +
+                    " / " + QuantityFormatter.formatNumber(stats.getGoalTotal());
             totalLabel.setText(totalText);
             totalLabel.setVisible(true);
         }
@@ -309,10 +470,9 @@ public class CategoryBox extends JPanel
         }
 
         // Update progress bar
-        if (plugin.getConfig().showCategoryProgress() && hasGoals && totalGoal > 0)
+        if (plugin.getConfig().showCategoryProgress() && hasGoals && stats.getGoalTotal() > 0)
         {
-            double progress = (double) totalContribution / totalGoal;
-            updateProgressBar(progress);
+            progressBar.setProgress((double) cappedProgress / stats.getGoalTotal());
             progressBarPanel.setVisible(true);
         }
         else
@@ -320,74 +480,283 @@ public class CategoryBox extends JPanel
             progressBarPanel.setVisible(false);
         }
 
-        headerPanel.revalidate();
-        headerPanel.repaint();
+        long now = System.currentTimeMillis();
+        if (stats.getCappedProgress() != slowestProgress || stats.getGoalTotal() != slowestGoalTotal
+                || now - slowestUpdatedMillis >= SLOWEST_ITEM_INTERVAL_MILLIS)
+        {
+            slowestProgress = stats.getCappedProgress();
+            slowestGoalTotal = stats.getGoalTotal();
+            slowestUpdatedMillis = now;
+            updateSlowestItem(hasGoals);
+        }
+
+        updateStaleContainers();
+        headerPanel.setToolTipText(buildHeaderTooltip(stats));
     }
 
-    private void updateProgressBar(double progress)
+    /**
+     * Dim the header while items are counted from containers that haven't been seen for a while.
+     */
+    private void updateStaleContainers()
     {
-        progressBarPanel.removeAll();
+        Map<String, Long> stale = plugin.getStaleContainers();
+        Map<String, Long> used = Collections.emptyMap();
+        if (!stale.isEmpty() && items != null)
+        {
+            used = new TreeMap<>();
+            for (TrackedItem item : items)
+            {
+                for (Map.Entry<String, Integer> entry : item.getContainerQuantities().entrySet())
+                {
+                    Long seen = stale.get(entry.getKey());
+                    if (seen != null && entry.getValue() > 0)
+                    {
+                        used.put(entry.getKey(), seen);
+                    }
+                }
+            }
+        }
 
-        JPanel progressBar = new JPanel()
+        staleContainers = used;
+        titleLabel.setForeground(used.isEmpty() ? Color.WHITE : STALE_TEXT_COLOR);
+        totalLabel.setForeground(used.isEmpty() ? new Color(200, 200, 200) : STALE_TEXT_COLOR);
+    }
+
+    private void updateSlowestItem(boolean hasGoals)
+    {
+        TrackedItem slowest = null;
+        long slowestEta = 0;
+        if (plugin.getConfig().showGoalEstimates() && hasGoals && items != null)
         {
-            @Override
-            protected void paintComponent(Graphics g)
+            // Estimates are O(1) per item, from rates kept up to date as amounts change
+            for (TrackedItem item : items)
+            {
+                long eta = plugin.getGoalEtaMillis(item);
+                if (eta > slowestEta)
+                {
+                    slowest = item;
+                    slowestEta = eta;
+                }
+            }
+        }
+
+        if (slowest == null)
+        {
+            slowestLabel.setVisible(false);
+            return;
+        }
+
+        slowestLabel.setText("Slowest: " + slowest.getItemName() + " ~" + formatDuration(slowestEta));
+        slowestLabel.setToolTipText("Played time until every goal is reached at recent gain rates");
+        slowestLabel.setVisible(true);
+    }
+
+    /**
+     * @return The amount an item's slot shows, summed over every account in the all accounts view
+     */
+    private long shownAmount(TrackedItem item)
+    {
+        return allAccounts ? plugin.getAllAccountsAmount(item) : item.getCurrentAmount();
+    }
+
+    /**
+     * Format a duration as its two largest units, e.g. "3h 20m".
+     */
+    static String formatDuration(long millis)
+    {
+        long minutes = Math.max(1, (millis + 59_999) / 60_000);
+        if (minutes < 60)
+        {
+            return minutes + "m";
+        }
+
+        long hours = minutes / 60;
+        if (hours < 24)
+        {
+            return hours + "h " + minutes % 60 + "m";
+        }
+        return hours / 24 + "d " + hours % 24 + "h";
+    }
+
+    /**
+     * Format a session gain with its sign, e.g. "+1200" or "-15K".
+     */
+    static String formatGain(long gain)
+    {
+        return (gain < 0 ? "-" : "+") + QuantityFormatter.formatNumber(Math.abs(gain));
+    }
+
+    private String buildHeaderTooltip(CategoryStats stats)
+    {
+        long sessionGain = 0;
+        long sessionValue = 0;
+        if (plugin.getConfig().showSessionGains())
+        {
+            sessionGain = plugin.getSessionGains().getCategoryGain(categoryName);
+            sessionValue = plugin.getSessionGains().getCategoryValue(categoryName);
+        }
+
+        MissingItems missing = stats.getMissingItems();
+        if (stats.getGeValue() <= 0 && stats.getHaValue() <= 0 && sessionGain == 0 && missing.getMissingCount() == 0
+                && staleContainers.isEmpty())
+        {
+            return null;
+        }
+
+        String tooltip = "<html><b>" + categoryName + "</b>"
+                + "<br>GE: " + QuantityFormatter.formatNumber(stats.getGeValue())
+                + "<br>HA: " + QuantityFormatter.formatNumber(stats.getHaValue());
+        if (sessionGain != 0)
+        {
+            tooltip += "<br>This session: " + formatGain(sessionGain) + " (" + formatGain(sessionValue) + " gp)";
+        }
+
+        // The top of the shopping list, kept ranked as amounts change
+        if (missing.getMissingCount() > 0 && items != null)
+        {
+            StringBuilder missingText = new StringBuilder("<br><br><b>Missing:</b>");
+            for (TrackedItem item : missing.getTop(items))
+            {
+                missingText.append("<br>").append(item.getItemName())
+                        .append(" x ").append(QuantityFormatter.formatNumber(MissingItems.getMissing(item)));
+                if (item.getGePrice() > 0)
+                {
+                    missingText.append(" (").append(QuantityFormatter.formatNumber(MissingItems.getMissing(item) * item.getGePrice())).append(" gp)");
+                }
+            }
+            if (missing.getMissingCount() > MissingItems.SIZE)
             {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                missingText.append("<br>and ").append(missing.getMissingCount() - MissingItems.SIZE).append(" more");
+            }
+            tooltip += missingText;
+        }
 
-                int width = getWidth();
-                int height = getHeight();
+        // Where to go to bring the counts up to date
+        if (!staleContainers.isEmpty())
+        {
+            StringBuilder staleText = new StringBuilder("<br><br><b>Not opened recently:</b>");
+            long now = System.currentTimeMillis();
+            staleContainers.forEach((name, seen) -> staleText.append("<br>").append(name)
+                    .append(": ").append(formatDuration(now - seen)).append(" ago"));
+            tooltip += staleText;
+        }
+        return tooltip + "</html>";
+    }
 
-                // Background (dark gray)
-                g2d.setColor(ColorScheme.DARK_GRAY_COLOR.darker());
-                g2d.fillRect(0, 0, width, height);
+    /**
+     * Bring the item slots up to date with the current items. Slots are kept per item, so
+     * only items that are new or show different values get a new slot, and moved items
+     * just move their existing slot.
+     */
+    private void refreshItems()
+    {
+        itemsStale = false;
+        boolean firstBuild = builtSlots == null;
+        if (firstBuild)
+        {
+            builtSlots = new ArrayList<>();
+        }
 
-                // Progress fill
-                int progressWidth = (int) (width * Math.min(1.0, progress));
-                if (progressWidth > 0)
+        List<TrackedItem> current = items != null ? items : Collections.emptyList();
+        boolean resized = builtSlots.size() != current.size();
+        boolean changed = resized;
+        List<JPanel> dropped = null;
+        for (int i = 0; i < current.size(); i++)
+        {
+            TrackedItem item = current.get(i);
+            long shownAmount = shownAmount(item);
+            SlotState slot = slotsByItem.get(item);
+            if (slot == null || !slot.matches(item, shownAmount))
+            {
+                if (slot != null)
                 {
-                    // Color based on progress
-                    Color progressColor;
-                    if (progress >= 1.0)
-                    {
-                        progressColor = new Color(0, 200, 0); // Green when complete
-                    }
-                    else if (progress >= 0.75)
-                    {
-                        progressColor = new Color(100, 200, 100); // Light green
-                    }
-                    else if (progress >= 0.5)
-                    {
-                        progressColor = new Color(255, 200, 0); // Yellow
-                    }
-                    else if (progress >= 0.25)
+                    if (dropped == null)
                     {
-                        progressColor = new Color(255, 150, 0); // Orange
+                        dropped = new ArrayList<>();
                     }
-                    else
+                    dropped.add(slot.component);
+                }
+                slot = new SlotState(item, shownAmount, createTrackedItemBox(item, shownAmount));
+                slotsByItem.put(item, slot);
+            }
+
+            if (i == builtSlots.size())
+            {
+                builtSlots.add(slot);
+            }
+            else if (builtSlots.get(i) != slot)
+            {
+                builtSlots.set(i, slot);
+                changed = true;
+            }
+        }
+
+        if (!changed && !firstBuild)
+        {
+            return;
+        }
+
+        builtSlots.subList(current.size(), builtSlots.size()).clear();
+        if (slotsByItem.size() > builtSlots.size())
+        {
+            // Forget the slots of items that were removed
+            Set<TrackedItem> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+            kept.addAll(current);
+            Iterator<Map.Entry<TrackedItem, SlotState>> entries = slotsByItem.entrySet().iterator();
+            while (entries.hasNext())
+            {
+                Map.Entry<TrackedItem, SlotState> entry = entries.next();
+                if (!kept.contains(entry.getKey()))
+                {
+                    if (dropped == null)
                     {
-                        progressColor = new Color(200, 100, 100); // Light red
+                        dropped = new ArrayList<>();
                     }
-
-                    g2d.setColor(progressColor);
-                    g2d.fillRect(0, 0, progressWidth, height);
+                    dropped.add(entry.getValue().component);
+                    entries.remove();
                 }
             }
-        };
+        }
 
-        progressBar.setOpaque(false);
-        progressBarPanel.add(progressBar, BorderLayout.CENTER);
+        // A different number of items changes the grid, filtered slots aren't all in the container
+        if (firstBuild || resized || filter != null)
+        {
+            layoutSlots();
+            return;
+        }
+
+        // Same grid: move every slot into place, pushing the replaced ones back, then drop
+        // those. Removing them first could leave fewer children than slots when the last
+        // row has no filler panels.
+        for (int i = 0; i < builtSlots.size(); i++)
+        {
+            JPanel component = builtSlots.get(i).component;
+            if (itemContainer.getComponent(i) != component)
+            {
+                // Taken out of its old position first if it is already in the container
+                itemContainer.add(component, i);
+            }
+        }
+        if (dropped != null)
+        {
+            for (JPanel component : dropped)
+            {
+                itemContainer.remove(component);
+            }
+        }
+        itemContainer.revalidate();
+        itemContainer.repaint();
     }
 
-    private void buildItems()
+    /**
+     * Lay out the built slots that pass the filter, without building any.
+     */
+    private void layoutSlots()
     {
         itemContainer.removeAll();
 
-        if (items == null || items.isEmpty())
+        if (builtSlots.isEmpty())
         {
-            itemContainer.setVisible(true);
             itemContainer.setLayout(new BorderLayout());
             JLabel emptyLabel = new JLabel("No items");
             emptyLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
@@ -399,22 +768,26 @@ public class CategoryBox extends JPanel
             return;
         }
 
-        itemContainer.setVisible(true);
+        // Boxes are reused across refreshes, so drop the fixed height of the empty state
+        itemContainer.setPreferredSize(null);
+
+        int shown = 0;
+        for (SlotState slot : builtSlots)
+        {
+            if (filter == null || filter.test(slot.item))
+            {
+                itemContainer.add(slot.component);
+                shown++;
+            }
+        }
 
         // Calculate rows needed
-        final int rowSize = ((items.size() % ITEMS_PER_ROW == 0) ? 0 : 1) + items.size() / ITEMS_PER_ROW;
+        final int rowSize = ((shown % ITEMS_PER_ROW == 0) ? 0 : 1) + shown / ITEMS_PER_ROW;
 
         itemContainer.setLayout(new GridLayout(rowSize, ITEMS_PER_ROW, 1, 1));
 
-
-        for (TrackedItem item : items)
-        {
-            itemContainer.add(createTrackedItemBox(item));
-        }
-
         // Fill remaining slots with empty panels
-        int itemsAdded = items.size();
-        for (int i = itemsAdded; i < rowSize * ITEMS_PER_ROW; i++)
+        for (int i = shown; i < rowSize * ITEMS_PER_ROW; i++)
         {
             final JPanel emptySlot = new JPanel();
             emptySlot.setBackground(ColorScheme.DARKER_GRAY_COLOR);
@@ -422,9 +795,10 @@ public class CategoryBox extends JPanel
         }
 
         itemContainer.revalidate();
+        itemContainer.repaint();
     }
 
-    private JPanel createTrackedItemBox(TrackedItem item)
+    private JPanel createTrackedItemBox(TrackedItem item, long shownAmount)
     {
         JPanel slotContainer = new JPanel(new BorderLayout());
         slotContainer.setBackground(ColorScheme.DARKER_GRAY_COLOR);
@@ -447,7 +821,7 @@ public class CategoryBox extends JPanel
 
         // Current amount (top-left, yellow)
         JLabel currentLabel = new JLabel();
-        QuantityFormatter.formatLabel(currentLabel, item.getCurrentAmount(), Color.YELLOW, false);
+        QuantityFormatter.formatLabel(currentLabel, shownAmount, Color.YELLOW, false);
         currentLabel.setFont(FontManager.getRunescapeSmallFont());
         currentLabel.setBounds(1, 0, 38, 12);
         centerPanel.add(currentLabel);
@@ -464,8 +838,16 @@ public class CategoryBox extends JPanel
         }
 
         // Item icon (centered)
-        JLabel iconLabel = new JLabel();
-        iconLabel.setToolTipText(buildItemTooltip(item));
+        // The tooltip is built on hover, goal estimates change between refreshes
+        JLabel iconLabel = new JLabel()
+        {
+            @Override
+            public String getToolTipText(MouseEvent event)
+            {
+                return buildItemTooltip(item);
+            }
+        };
+        ToolTipManager.sharedInstance().registerComponent(iconLabel);
         iconLabel.setVerticalAlignment(SwingConstants.CENTER);
         iconLabel.setHorizontalAlignment(SwingConstants.CENTER);
         AsyncBufferedImage itemImage = itemManager.getImage(item.getItemId());
@@ -486,7 +868,7 @@ public class CategoryBox extends JPanel
                     super.paintComponent(g);
                     if (item.getGoalAmount() != null && item.getGoalAmount() > 0)
                     {
-                        float progress = Math.min(1.0f, (float) item.getCurrentAmount() / item.getGoalAmount());
+                        float progress = Math.min(1.0f, (float) shownAmount / item.getGoalAmount());
                         Color barColor = progress < 0.33f ? new Color(200, 0, 0)
                                 : progress < 0.67f ? new Color(255, 165, 0)
                                 : progress < 1.0f ? new Color(255, 200, 0)
@@ -511,11 +893,7 @@ public class CategoryBox extends JPanel
 
         // Inventory Only Toggle (Item Level)
         JMenuItem toggleInvOnly = new JMenuItem(item.isInventoryOnly() ? "Track All Inventories" : "Track Inventory Only");
-        toggleInvOnly.addActionListener(ev -> {
-            item.setInventoryOnly(!item.isInventoryOnly());
-            plugin.saveData();
-            plugin.updateTrackedItems(); // Force update to refresh count
-        });
+        toggleInvOnly.addActionListener(ev -> plugin.toggleItemInventoryOnly(item));
         popupMenu.add(toggleInvOnly);
 
         JMenuItem deleteItem = new JMenuItem("Remove");
@@ -565,9 +943,7 @@ public class CategoryBox extends JPanel
                                 }
                             }
 
-                            item.setGoalAmount(newGoal);
-                            plugin.saveData();
-                            parentPanel.rebuild();
+                            plugin.setItemGoal(item, newGoal);
                         }
                         catch (NumberFormatException ex)
                         {
@@ -610,18 +986,66 @@ public class CategoryBox extends JPanel
             }
         }
 
-        // Add container breakdown
+        // Goal estimate from the recent gain rate
+        if (plugin.getConfig().showGoalEstimates())
+        {
+            long eta = plugin.getGoalEtaMillis(item);
+            if (eta == 0)
+            {
+                tooltip.append("<br>Goal reached");
+            }
+            else if (eta > 0)
+            {
+                tooltip.append("<br>Goal in ~").append(formatDuration(eta)).append(" played");
+            }
+        }
+
+        // Net gain since login, deposits and withdrawals cancel out
+        if (plugin.getConfig().showSessionGains())
+        {
+            long gain = plugin.getSessionGain(item);
+            if (gain != 0)
+            {
+                tooltip.append("<br>This session: ").append(formatGain(gain));
+            }
+        }
+
+        // Amounts on the other accounts, from what they last saved
+        if (allAccounts)
+        {
+            Map<String, Long> accounts = plugin.getOtherAccountAmounts(item);
+            if (!accounts.isEmpty())
+            {
+                tooltip.append("<br><br><b>Other accounts:</b>");
+                accounts.forEach((name, amount) -> tooltip.append("<br>")
+                        .append(name)
+                        .append(": ")
+                        .append(String.format("%,d", amount)));
+                tooltip.append("<br>All accounts: ").append(String.format("%,d", plugin.getAllAccountsAmount(item)));
+            }
+        }
+
+        // Add container breakdown, with how long ago each container was seen
         Map<String, Integer> containers = item.getContainerQuantities();
         if (containers != null && !containers.isEmpty())
         {
             tooltip.append("<br><br><b>Locations:</b>");
+            long now = System.currentTimeMillis();
             containers.entrySet().stream()
                     .filter(e -> e.getValue() > 0)
                     .sorted(Map.Entry.comparingByKey())
-                    .forEach(e -> tooltip.append("<br>")
-                            .append(e.getKey())
-                            .append(": ")
-                            .append(String.format("%,d", e.getValue())));
+                    .forEach(e ->
+                    {
+                        tooltip.append("<br>")
+                                .append(e.getKey())
+                                .append(": ")
+                                .append(String.format("%,d", e.getValue()));
+                        long refreshed = plugin.getRefreshTime(e.getKey());
+                        if (refreshed > 0)
+                        {
+                            tooltip.append(" (").append(formatDuration(now - refreshed)).append(" ago)");
+                        }
+                    });
         }
 
         tooltip.append("</html>");
@@ -0,0 +1,92 @@
+package com.resourcetracker;
+
+import net.runelite.client.ui.ColorScheme;
+
+import javax.swing.JPanel;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Thin progress bar used in category headers. Created once per header
+ * and repainted with a new ratio, rather than replaced on every update.
+ */
+public class CategoryProgressBar extends JPanel
+{
+    private static final Color COMPLETE_COLOR = new Color(0, 200, 0); // Green when complete
+    private static final Color HIGH_COLOR = new Color(100, 200, 100); // Light green
+    private static final Color MEDIUM_COLOR = new Color(255, 200, 0); // Yellow
+    private static final Color LOW_COLOR = new Color(255, 150, 0); // Orange
+    private static final Color EMPTY_COLOR = new Color(200, 100, 100); // Light red
+
+    private double progress = 0;
+
+    public CategoryProgressBar()
+    {
+        setOpaque(false);
+    }
+
+    /**
+     * Set the fill ratio, repainting only if it changed.
+     *
+     * @param progress Ratio between 0 and 1, values above 1 are drawn full
+     */
+    public void setProgress(double progress)
+    {
+        if (this.progress != progress)
+        {
+            this.progress = progress;
+            repaint();
+        }
+    }
+
+    public double getProgress()
+    {
+        return progress;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int width = getWidth();
+        int height = getHeight();
+
+        // Background (dark gray)
+        g2d.setColor(ColorScheme.DARK_GRAY_COLOR.darker());
+        g2d.fillRect(0, 0, width, height);
+
+        // Progress fill
+        int progressWidth = (int) (width * Math.min(1.0, progress));
+        if (progressWidth > 0)
+        {
+            g2d.setColor(colorFor(progress));
+            g2d.fillRect(0, 0, progressWidth, height);
+        }
+    }
+
+    private static Color colorFor(double progress)
+    {
+        if (progress >= 1.0)
+        {
+            return COMPLETE_COLOR;
+        }
+        if (progress >= 0.75)
+        {
+            return HIGH_COLOR;
+        }
+        if (progress >= 0.5)
+        {
+            return MEDIUM_COLOR;
+        }
+        if (progress >= 0.25)
+        {
+            return LOW_COLOR;
+        }
+        return EMPTY_COLOR;
+    }
+}
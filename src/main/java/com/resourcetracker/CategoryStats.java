@@ -0,0 +1,122 @@
+package com.resourcetracker;
+
+/**
+ * Rollup totals for a single category, maintained incrementally by {@link ItemAggregator}
+ * as item quantities change. Only the aggregator changes them, on whichever thread added,
+ * removed or updated the item, so every access is synchronized and the panel can read
+ * them from the EDT at any time.
+ */
+public class CategoryStats
+{
+	private int itemCount;
+	private int goalCount;
+	private long goalTotal;
+	private long cappedProgress;
+	private long geValue;
+	private long haValue;
+	private final MissingItems missingItems;
+
+	CategoryStats(MissingItems.Ranking missingRanking)
+	{
+		missingItems = new MissingItems(missingRanking);
+	}
+
+	/**
+	 * @return Number of tracked items in the category
+	 */
+	public synchronized int getItemCount()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * @return true if at least one item in the category has a goal
+	 */
+	public synchronized boolean hasGoals()
+	{
+		return goalCount > 0;
+	}
+
+	/**
+	 * @return Sum of all goal amounts
+	 */
+	public synchronized long getGoalTotal()
+	{
+		return goalTotal;
+	}
+
+	/**
+	 * Items collected towards goals, each capped at its goal so extra
+	 * items don't hide the fact that other items are still missing.
+	 *
+	 * @return Capped sum of current amounts
+	 */
+	public synchronized long getCappedProgress()
+	{
+		return cappedProgress;
+	}
+
+	/**
+	 * @return Capped progress as a ratio of the goal total, between 0 and 1
+	 */
+	public synchronized double getProgressRatio()
+	{
+		return goalTotal > 0 ? (double) cappedProgress / goalTotal : 0;
+	}
+
+	/**
+	 * @return Total Grand Exchange value of the current amounts
+	 */
+	public synchronized long getGeValue()
+	{
+		return geValue;
+	}
+
+	/**
+	 * @return Total High Alchemy value of the current amounts
+	 */
+	public synchronized long getHaValue()
+	{
+		return haValue;
+	}
+
+	/**
+	 * @return The items furthest from their goals
+	 */
+	public MissingItems getMissingItems()
+	{
+		return missingItems;
+	}
+
+	synchronized void add(TrackedItem item)
+	{
+		apply(item, 1);
+		missingItems.add(item);
+	}
+
+	synchronized void remove(TrackedItem item)
+	{
+		apply(item, -1);
+		missingItems.remove(item);
+	}
+
+	synchronized boolean isEmpty()
+	{
+		return itemCount == 0;
+	}
+
+	private void apply(TrackedItem item, int sign)
+	{
+		itemCount += sign;
+		geValue += sign * item.getTotalGePrice();
+		haValue += sign * item.getTotalHaPrice();
+
+		Integer goal = item.getGoalAmount();
+		if (goal != null)
+		{
+			goalCount += sign;
+			goalTotal += sign * (long) goal;
+			cappedProgress += sign * (long) Math.min(item.getCurrentAmount(), goal);
+		}
+	}
+}
@@ -46,6 +46,7 @@ public class ContainerTracker
 	// Then add the config item to ResourceTrackerConfig.java
 	public static final Container BANK = new Container(95, "Bank", "trackBank");
 	public static final Container INVENTORY = new Container(93, "Inventory", "trackInventory");
+	public static final Container EQUIPMENT = new Container(94, "Equipment", "trackEquipment");
 	public static final Container SEED_VAULT = new Container(626, "Seed Vault", "trackSeedVault");
 	public static final Container RETRIEVAL_SERVICE = new Container(525, "Retrieval Service", "trackRetrievalService");
 	public static final Container GROUP_STORAGE = new Container(659, "Group storage", "trackGroupStorage");
@@ -72,6 +73,7 @@ public class ContainerTracker
 		// Register all containers
 		registerContainer(BANK);
 		registerContainer(INVENTORY);
+		registerContainer(EQUIPMENT);
 		registerContainer(SEED_VAULT);
 		registerContainer(RETRIEVAL_SERVICE);
 		registerContainer(GROUP_STORAGE);
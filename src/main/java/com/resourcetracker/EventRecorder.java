@@ -0,0 +1,197 @@
+package com.resourcetracker;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Item;
+import net.runelite.client.RuneLite;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opt-in recorder for the events that drive item aggregation, so a user's event
+ * pattern can be replayed offline. Events are encoded on the calling thread and
+ * written to a gzipped file in {@link EventRecording} format on the executor.
+ */
+@Slf4j
+public class EventRecorder
+{
+	public static final File RECORDING_DIR = new File(new File(RuneLite.RUNELITE_DIR, "resource-tracker"), "recordings");
+
+	private interface Payload
+	{
+		void write(OutputStream out) throws IOException;
+	}
+
+	private final Executor executor;
+	private final File directory;
+	private boolean recording = false;
+	private long lastEventMicros;
+
+	// Only touched on the executor
+	private OutputStream out;
+
+	/**
+	 * @param executor  Runs the file writes, must be single threaded to keep records in order
+	 * @param directory Where recordings are created
+	 */
+	public EventRecorder(Executor executor, File directory)
+	{
+		this.executor = executor;
+		this.directory = directory;
+	}
+
+	public synchronized boolean isRecording()
+	{
+		return recording;
+	}
+
+	/**
+	 * Start a new recording file, does nothing if already recording.
+	 */
+	public synchronized void start()
+	{
+		if (recording)
+		{
+			return;
+		}
+
+		recording = true;
+		lastEventMicros = System.nanoTime() / 1000;
+		String name = "recording-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".rtr.gz";
+		File file = new File(directory, name);
+
+		executor.execute(() ->
+		{
+			try
+			{
+				directory.mkdirs();
+				out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+				out.write(EventRecording.MAGIC);
+				log.info("Recording events to {}", file);
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to start event recording", e);
+				out = null;
+			}
+		});
+	}
+
+	/**
+	 * Finish the current recording, does nothing if not recording.
+	 */
+	public synchronized void stop()
+	{
+		if (!recording)
+		{
+			return;
+		}
+
+		recording = false;
+		executor.execute(() ->
+		{
+			if (out == null)
+			{
+				return;
+			}
+
+			try
+			{
+				out.close();
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to finish event recording", e);
+			}
+			out = null;
+		});
+	}
+
+	public void recordSnapshot(String trackedItemsJson, String inventoryOnlyJson)
+	{
+		record(EventRecording.SNAPSHOT, buffer ->
+		{
+			VarInts.writeString(buffer, trackedItemsJson);
+			VarInts.writeString(buffer, inventoryOnlyJson);
+		});
+	}
+
+	public void recordContainer(int containerId, Item[] items)
+	{
+		record(EventRecording.CONTAINER, buffer ->
+		{
+			VarInts.writeVarInt(buffer, containerId);
+			VarInts.writeVarInt(buffer, items.length);
+			for (Item item : items)
+			{
+				VarInts.writeVarInt(buffer, item.getId());
+				VarInts.writeVarInt(buffer, item.getQuantity());
+			}
+		});
+	}
+
+	public void recordVarbit(int varpId, int varbitId, int value)
+	{
+		record(EventRecording.VARBIT, buffer ->
+		{
+			VarInts.writeVarInt(buffer, varpId);
+			VarInts.writeVarInt(buffer, varbitId);
+			VarInts.writeVarInt(buffer, value);
+		});
+	}
+
+	public void recordScript(int scriptId)
+	{
+		record(EventRecording.SCRIPT, buffer -> VarInts.writeVarInt(buffer, scriptId));
+	}
+
+	private synchronized void record(int type, Payload payload)
+	{
+		if (!recording)
+		{
+			return;
+		}
+
+		long nowMicros = System.nanoTime() / 1000;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try
+		{
+			buffer.write(type);
+			VarInts.writeVarLong(buffer, nowMicros - lastEventMicros);
+			payload.write(buffer);
+		}
+		catch (IOException e)
+		{
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e);
+		}
+		lastEventMicros = nowMicros;
+
+		byte[] record = buffer.toByteArray();
+		executor.execute(() ->
+		{
+			if (out == null)
+			{
+				return;
+			}
+
+			try
+			{
+				out.write(record);
+			}
+			catch (IOException e)
+			{
+				log.warn("Unable to write event recording, stopping", e);
+				stop();
+			}
+		});
+	}
+}
@@ -0,0 +1,112 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * File format for event recordings, written by {@link EventRecorder}.
+ * A recording starts with a magic number and is followed by records of a type
+ * byte, the time since the previous record in microseconds and a payload.
+ * Numbers are zigzag varints so item IDs, quantities and short gaps stay small.
+ */
+public final class EventRecording
+{
+	static final byte[] MAGIC = {'R', 'T', 'R', 1};
+
+	static final int SNAPSHOT = 1;
+	static final int CONTAINER = 2;
+	static final int VARBIT = 3;
+	static final int SCRIPT = 4;
+
+	/**
+	 * Receives the records of a recording in order.
+	 */
+	public interface Visitor
+	{
+		/**
+		 * The tracked items at the time the recording started or the player logged in.
+		 *
+		 * @param trackedItemsJson  Tracked items, as saved in the profile config
+		 * @param inventoryOnlyJson Inventory only categories, as saved in the profile config
+		 */
+		void snapshot(String trackedItemsJson, String inventoryOnlyJson);
+
+		void containerChanged(long timeMicros, int containerId, Item[] items);
+
+		void varbitChanged(long timeMicros, int varpId, int varbitId, int value);
+
+		void scriptPostFired(long timeMicros, int scriptId);
+	}
+
+	private EventRecording()
+	{
+	}
+
+	/**
+	 * Read a recording. A truncated recording, e.g. from a client crash,
+	 * is read up to the last complete record.
+	 *
+	 * @param in      The recording, already decompressed
+	 * @param visitor Receives the records
+	 * @throws IOException if the stream isn't a recording or can't be read
+	 */
+	public static void read(InputStream in, Visitor visitor) throws IOException
+	{
+		DataInputStream data = new DataInputStream(in);
+		byte[] magic = new byte[MAGIC.length];
+		data.readFully(magic);
+		if (!Arrays.equals(magic, MAGIC))
+		{
+			throw new IOException("Not a resource tracker recording");
+		}
+
+		long time = 0;
+		while (true)
+		{
+			int type = data.read();
+			if (type == -1)
+			{
+				return;
+			}
+
+			try
+			{
+				time += VarInts.readVarLong(data);
+				switch (type)
+				{
+					case SNAPSHOT:
+						visitor.snapshot(VarInts.readString(data), VarInts.readString(data));
+						break;
+					case CONTAINER:
+					{
+						int containerId = VarInts.readVarInt(data);
+						Item[] items = new Item[VarInts.readVarInt(data)];
+						for (int i = 0; i < items.length; i++)
+						{
+							items[i] = new Item(VarInts.readVarInt(data), VarInts.readVarInt(data));
+						}
+						visitor.containerChanged(time, containerId, items);
+						break;
+					}
+					case VARBIT:
+						visitor.varbitChanged(time, VarInts.readVarInt(data), VarInts.readVarInt(data), VarInts.readVarInt(data));
+						break;
+					case SCRIPT:
+						visitor.scriptPostFired(time, VarInts.readVarInt(data));
+						break;
+					default:
+						throw new IOException("Unknown record type " + type);
+				}
+			}
+			catch (EOFException e)
+			{
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.resourcetracker;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Tracks how much client-thread time the plugin spends per frame and decides
+ * when to switch to degraded mode, where container events are coalesced and
+ * potion rebuilds deferred. Work is timed with {@link #start()} and {@link #stop(long)}
+ * and {@link #endFrame()} is called once per client tick.
+ * Only the degraded flag may be read off the client thread.
+ */
+public class FrameBudget
+{
+	// Smoothing of the per-frame average, roughly the last half second at 50 fps
+	private static final double SMOOTHING = 1.0 / 32;
+
+	// Frames the average must stay over budget before degrading, so one slow frame doesn't
+	private static final int DEGRADE_FRAMES = 50;
+
+	// Frames the average must stay under half the budget before recovering, so coalesced
+	// work being cheaper doesn't flip the mode straight back
+	private static final int RECOVER_FRAMES = 500;
+
+	private final IntSupplier budgetMicros;
+
+	private long frameNanos;
+	private double averageNanos;
+	private int framesPastThreshold;
+	private volatile boolean degraded = false;
+
+	/**
+	 * @param budgetMicros Allowed average time per frame in microseconds, 0 never degrades
+	 */
+	public FrameBudget(IntSupplier budgetMicros)
+	{
+		this.budgetMicros = budgetMicros;
+	}
+
+	/**
+	 * @return A start token for {@link #stop(long)}
+	 */
+	public long start()
+	{
+		return System.nanoTime();
+	}
+
+	/**
+	 * Add the time since {@link #start()} to the current frame.
+	 */
+	public void stop(long start)
+	{
+		frameNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Close the current frame and update the mode.
+	 *
+	 * @return true if the mode changed
+	 */
+	public boolean endFrame()
+	{
+		averageNanos += (frameNanos - averageNanos) * SMOOTHING;
+		frameNanos = 0;
+
+		long budgetNanos = budgetMicros.getAsInt() * 1000L;
+		if (budgetNanos <= 0)
+		{
+			// Budget turned off, recover straight away
+			framesPastThreshold = 0;
+			boolean changed = degraded;
+			degraded = false;
+			return changed;
+		}
+
+		boolean pastThreshold = degraded ? averageNanos < budgetNanos / 2.0 : averageNanos > budgetNanos;
+		if (!pastThreshold)
+		{
+			framesPastThreshold = 0;
+			return false;
+		}
+
+		if (++framesPastThreshold < (degraded ? RECOVER_FRAMES : DEGRADE_FRAMES))
+		{
+			return false;
+		}
+
+		framesPastThreshold = 0;
+		degraded = !degraded;
+		return true;
+	}
+
+	public boolean isDegraded()
+	{
+		return degraded;
+	}
+
+	/**
+	 * @return Smoothed client-thread time per frame in nanoseconds
+	 */
+	public long getAverageNanos()
+	{
+		return (long) averageNanos;
+	}
+}
@@ -0,0 +1,168 @@
+package com.resourcetracker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates when goals will be reached from each item's recent net gain rate.
+ * Every change adds its delta to a sum that decays exponentially over played
+ * time, an exponentially weighted average that needs a few numbers per item
+ * and no history. Time spent logged out doesn't count, so estimates are in
+ * played time.
+ */
+public class GoalEstimator
+{
+	// Gains older than this count for about a third, so the rate follows what the player is doing now
+	static final long TIME_CONSTANT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	// Less play than this since an item was first seen is too little to estimate from
+	private static final long MIN_OBSERVED_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private static class Rate
+	{
+		private int amount;
+		private double decayedGain;
+		private long lastPlayedMillis;
+		private long firstPlayedMillis;
+	}
+
+	private final Map<String, Rate> rates = new HashMap<>();
+
+	// Played time of earlier sessions, and when the current one started or -1 while logged out
+	private long playedMillis = 0;
+	private long sessionStartMillis = -1;
+
+	/**
+	 * Start or stop counting played time. Repeated calls with the same state are ignored.
+	 */
+	public synchronized void setLoggedIn(boolean loggedIn, long nowMillis)
+	{
+		if (loggedIn && sessionStartMillis < 0)
+		{
+			sessionStartMillis = nowMillis;
+		}
+		else if (!loggedIn && sessionStartMillis >= 0)
+		{
+			playedMillis += Math.max(0, nowMillis - sessionStartMillis);
+			sessionStartMillis = -1;
+		}
+	}
+
+	private long played(long nowMillis)
+	{
+		return sessionStartMillis < 0 ? playedMillis : playedMillis + Math.max(0, nowMillis - sessionStartMillis);
+	}
+
+	/**
+	 * Set an item's amount without counting the change as a gain, e.g. when its
+	 * amounts are loaded on login. Unknown items start being observed.
+	 */
+	public synchronized void observe(String key, int amount, long nowMillis)
+	{
+		long played = played(nowMillis);
+		Rate rate = rates.get(key);
+		if (rate == null)
+		{
+			rate = new Rate();
+			rate.firstPlayedMillis = played;
+			rate.lastPlayedMillis = played;
+			rates.put(key, rate);
+		}
+		rate.amount = amount;
+	}
+
+	/**
+	 * Count a change of an item's amount. The first amount of an unknown item only starts observing it.
+	 */
+	public synchronized void amountChanged(String key, int amount, long nowMillis)
+	{
+		Rate rate = rates.get(key);
+		if (rate == null)
+		{
+			observe(key, amount, nowMillis);
+			return;
+		}
+
+		long played = played(nowMillis);
+		rate.decayedGain = decay(rate, played) + (amount - rate.amount);
+		rate.amount = amount;
+		rate.lastPlayedMillis = played;
+	}
+
+	private static double decay(Rate rate, long played)
+	{
+		return rate.decayedGain * Math.exp(-(double) (played - rate.lastPlayedMillis) / TIME_CONSTANT_MILLIS);
+	}
+
+	/**
+	 * @return Recent net gain per played hour, or NaN if the item hasn't been observed long enough
+	 */
+	public synchronized double getRatePerHour(String key, long nowMillis)
+	{
+		Rate rate = rates.get(key);
+		if (rate == null)
+		{
+			return Double.NaN;
+		}
+
+		long played = played(nowMillis);
+		long observed = played - rate.firstPlayedMillis;
+		if (observed < MIN_OBSERVED_MILLIS)
+		{
+			return Double.NaN;
+		}
+
+		// The decayed sum of gains, divided by the weight of the time it covers. Early on
+		// that weight is less than a full time constant, which would underestimate the rate.
+		double weight = TIME_CONSTANT_MILLIS * -Math.expm1(-(double) observed / TIME_CONSTANT_MILLIS);
+		return decay(rate, played) / weight * TimeUnit.HOURS.toMillis(1);
+	}
+
+	/**
+	 * @param remaining Amount still needed for the goal
+	 * @return Played time until the goal is reached at the recent rate, 0 if nothing
+	 * remains, or -1 if the item isn't being gained or hasn't been observed long enough
+	 */
+	public synchronized long getEtaMillis(String key, long remaining, long nowMillis)
+	{
+		if (remaining <= 0)
+		{
+			return 0;
+		}
+
+		double perHour = getRatePerHour(key, nowMillis);
+		if (!(perHour > 0))
+		{
+			return -1;
+		}
+		return (long) Math.ceil(remaining / perHour * TimeUnit.HOURS.toMillis(1));
+	}
+
+	public synchronized void remove(String key)
+	{
+		rates.remove(key);
+	}
+
+	/**
+	 * Move an item's rate to a new key, e.g. when its category is renamed.
+	 */
+	public synchronized void rename(String oldKey, String newKey)
+	{
+		Rate rate = rates.remove(oldKey);
+		if (rate != null)
+		{
+			rates.put(newKey, rate);
+		}
+	}
+
+	/**
+	 * Forget every rate, e.g. when switching accounts.
+	 */
+	public synchronized void clear()
+	{
+		rates.clear();
+		playedMillis = 0;
+		sessionStartMillis = -1;
+	}
+}
@@ -0,0 +1,116 @@
+package com.resourcetracker;
+
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.ui.FontManager;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import java.awt.Color;
+import java.awt.GridLayout;
+
+/**
+ * Debug section at the bottom of the panel showing the count, p50, p99 and
+ * max client-thread time of each timed event handler. Only updates while shown.
+ */
+public class HandlerTimingPanel extends JPanel
+{
+    private static final int UPDATE_INTERVAL_MS = 1000;
+    private static final String[] COLUMNS = {"Handler", "Count", "p50", "p99", "Max"};
+
+    private final HandlerTimings timings;
+    private final JLabel[][] cells;
+    private final Timer updateTimer;
+
+    public HandlerTimingPanel(HandlerTimings timings)
+    {
+        this.timings = timings;
+
+        HandlerTimings.Handler[] handlers = HandlerTimings.Handler.values();
+        setLayout(new GridLayout(handlers.length + 1, COLUMNS.length, 4, 0));
+        setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(1, 0, 0, 0, ColorScheme.DARK_GRAY_COLOR.darker()),
+                new EmptyBorder(4, 4, 4, 4)
+        ));
+
+        for (String column : COLUMNS)
+        {
+            add(createLabel(column, Color.WHITE));
+        }
+
+        cells = new JLabel[handlers.length][COLUMNS.length];
+        for (HandlerTimings.Handler handler : handlers)
+        {
+            JLabel[] row = cells[handler.ordinal()];
+            row[0] = createLabel(handler.getDisplayName(), ColorScheme.LIGHT_GRAY_COLOR);
+            add(row[0]);
+            for (int column = 1; column < COLUMNS.length; column++)
+            {
+                row[column] = createLabel("-", ColorScheme.LIGHT_GRAY_COLOR);
+                add(row[column]);
+            }
+        }
+
+        updateTimer = new Timer(UPDATE_INTERVAL_MS, e -> update());
+        setVisible(false);
+    }
+
+    /**
+     * Show or hide the section, updating it every second while shown.
+     */
+    public void setShown(boolean shown)
+    {
+        setVisible(shown);
+        if (shown)
+        {
+            update();
+            updateTimer.start();
+        }
+        else
+        {
+            updateTimer.stop();
+        }
+    }
+
+    void update()
+    {
+        for (HandlerTimings.Handler handler : HandlerTimings.Handler.values())
+        {
+            LatencyHistogram histogram = timings.getHistogram(handler);
+            JLabel[] row = cells[handler.ordinal()];
+            long count = histogram.getCount();
+            row[1].setText(String.valueOf(count));
+            if (count == 0)
+            {
+                // Cleared since the last update, don't keep showing the old times
+                row[2].setText("-");
+                row[3].setText("-");
+                row[4].setText("-");
+                continue;
+            }
+            row[2].setText(formatNanos(histogram.getPercentile(50)));
+            row[3].setText(formatNanos(histogram.getPercentile(99)));
+            row[4].setText(formatNanos(histogram.getMax()));
+        }
+    }
+
+    private static JLabel createLabel(String text, Color color)
+    {
+        JLabel label = new JLabel(text);
+        label.setFont(FontManager.getRunescapeSmallFont());
+        label.setForeground(color);
+        return label;
+    }
+
+    static String formatNanos(long nanos)
+    {
+        if (nanos < 1_000_000)
+        {
+            return (nanos / 1000) + "us";
+        }
+        return String.format("%.1fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.resourcetracker;
+
+/**
+ * Optional client-thread cost accounting for the plugin's event handlers.
+ * While disabled, {@link #start()} is a single volatile read and nothing is recorded.
+ * <pre>
+ * long start = timings.start();
+ * ...
+ * timings.stop(HandlerTimings.Handler.SAVE_DATA, start);
+ * </pre>
+ */
+public class HandlerTimings
+{
+	public enum Handler
+	{
+		CONTAINER_CHANGED("Container changed"),
+		POTION_REBUILD("Potion rebuild"),
+		VARBIT_CHANGED("Varbit changed"),
+		UPDATE_TRACKED_ITEMS("Update items"),
+		SAVE_DATA("Save data");
+
+		private final String displayName;
+
+		Handler(String displayName)
+		{
+			this.displayName = displayName;
+		}
+
+		public String getDisplayName()
+		{
+			return displayName;
+		}
+	}
+
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[Handler.values().length];
+	private volatile boolean enabled = false;
+
+	public HandlerTimings()
+	{
+		for (int i = 0; i < histograms.length; i++)
+		{
+			histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Turn timing on or off. Turning it on starts from empty histograms.
+	 */
+	public void setEnabled(boolean enabled)
+	{
+		if (enabled && !this.enabled)
+		{
+			for (LatencyHistogram histogram : histograms)
+			{
+				histogram.reset();
+			}
+		}
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return A start token for {@link #stop}
+	 */
+	public long start()
+	{
+		return enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Record the time since {@link #start()}, unless timing was disabled when it was called.
+	 */
+	public void stop(Handler handler, long start)
+	{
+		if (start != NOT_TIMED)
+		{
+			histograms[handler.ordinal()].record(System.nanoTime() - start);
+		}
+	}
+
+	public LatencyHistogram getHistogram(Handler handler)
+	{
+		return histograms[handler.ordinal()];
+	}
+}
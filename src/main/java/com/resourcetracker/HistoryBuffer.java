@@ -0,0 +1,150 @@
+package com.resourcetracker;
+
+/**
+ * History of one quantity at a fixed resolution: one value per time bucket,
+ * keeping the newest buckets up to a capacity in a ring. Buckets without a
+ * recorded value carry the previous value forward, so any bucket can be read
+ * in constant time.
+ */
+public class HistoryBuffer
+{
+	// Buffers start small and grow to their capacity, most items change rarely
+	private static final int INITIAL_SIZE = 16;
+
+	private final int capacity;
+	private int[] values;
+	private int head = -1;
+	private int size = 0;
+	private long newestBucket;
+
+	/**
+	 * @param capacity Number of buckets kept, older buckets are dropped
+	 */
+	public HistoryBuffer(int capacity)
+	{
+		this.capacity = capacity;
+		this.values = new int[Math.min(capacity, INITIAL_SIZE)];
+	}
+
+	/**
+	 * Set the value of a bucket. Buckets older than the newest one are ignored.
+	 *
+	 * @param bucket Time bucket, e.g. minutes since the epoch
+	 * @param value  The value, must not be negative
+	 */
+	public void record(long bucket, int value)
+	{
+		if (size == 0)
+		{
+			append(value);
+			newestBucket = bucket;
+			return;
+		}
+
+		if (bucket < newestBucket)
+		{
+			// The clock went backwards
+			return;
+		}
+
+		if (bucket == newestBucket)
+		{
+			values[head] = value;
+			return;
+		}
+
+		// Nothing was recorded in between, so the value didn't change
+		int previous = values[head];
+		long gap = Math.min(bucket - newestBucket - 1, capacity);
+		for (long i = 0; i < gap; i++)
+		{
+			append(previous);
+		}
+		append(value);
+		newestBucket = bucket;
+	}
+
+	private void append(int value)
+	{
+		if (size == values.length && size < capacity)
+		{
+			grow();
+		}
+
+		head = (head + 1) % values.length;
+		values[head] = value;
+		if (size < values.length)
+		{
+			size++;
+		}
+	}
+
+	private void grow()
+	{
+		int[] grown = new int[(int) Math.min((long) values.length * 2, capacity)];
+		for (int i = 0; i < size; i++)
+		{
+			grown[i] = values[(head - size + 1 + i + values.length) % values.length];
+		}
+		values = grown;
+		head = size - 1;
+	}
+
+	/**
+	 * @param bucket Time bucket
+	 * @return The value in that bucket, the newest value for later buckets, or -1 if the bucket is before the history starts
+	 */
+	public int get(long bucket)
+	{
+		if (size == 0 || bucket < getOldestBucket())
+		{
+			return -1;
+		}
+
+		if (bucket >= newestBucket)
+		{
+			return values[head];
+		}
+
+		int back = (int) (newestBucket - bucket);
+		return values[Math.floorMod(head - back, values.length)];
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * @return The first bucket with a value, meaningless if empty
+	 */
+	public long getOldestBucket()
+	{
+		return newestBucket - size + 1;
+	}
+
+	public long getNewestBucket()
+	{
+		return newestBucket;
+	}
+
+	/**
+	 * Visit the buckets where the value changed, from oldest to newest. The oldest
+	 * bucket is always visited. Recording them in order into an empty buffer, then
+	 * recording the last value at {@link #getNewestBucket()}, restores this buffer.
+	 */
+	void forEachChange(HistoryFile.SampleConsumer consumer)
+	{
+		long oldest = getOldestBucket();
+		int previous = -1;
+		for (int i = 0; i < size; i++)
+		{
+			int value = values[(head - size + 1 + i + values.length) % values.length];
+			if (i == 0 || value != previous)
+			{
+				consumer.accept(oldest + i, value);
+				previous = value;
+			}
+		}
+	}
+}
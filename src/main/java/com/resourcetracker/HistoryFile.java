@@ -0,0 +1,443 @@
+package com.resourcetracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * File format for item histories. Amounts carry forward between changes, so a
+ * history is stored as samples: the buckets where its amount changed. Samples
+ * are coded Gorilla style in blocks of up to {@link #BLOCK_SAMPLES}: buckets as
+ * deltas of deltas and amounts as deltas, both zigzag varints. A flag bit next
+ * to the amount delta skips a zero delta of delta, so a sample taken one bucket
+ * after the previous one, with a small change in amount, takes one byte.
+ * <p>
+ * An index in front of the blocks gives each block's bucket range, last amount
+ * and position, so a time range is read by decoding only the blocks overlapping
+ * it. Layout: {@link #MAGIC}, the index length as 4 bytes, the index, the blocks.
+ * The index holds the history count, then per history its key and per resolution
+ * the newest bucket and block count, then per block its first and last bucket,
+ * last amount, sample count, offset and length.
+ */
+final class HistoryFile
+{
+	// "RTH" and a format version, version 1 was a gzipped dump of every bucket
+	static final byte[] MAGIC = {'R', 'T', 'H', 2};
+
+	static final int BLOCK_SAMPLES = 128;
+
+	private static final int HEADER_SIZE = MAGIC.length + 4;
+
+	/**
+	 * Receives samples in bucket order.
+	 */
+	interface SampleConsumer
+	{
+		void accept(long bucket, int amount);
+	}
+
+	/**
+	 * Random access to the bytes of a history file.
+	 */
+	interface Source extends Closeable
+	{
+		void readFully(long position, byte[] into) throws IOException;
+	}
+
+	private HistoryFile()
+	{
+	}
+
+	/**
+	 * Encode histories, each with one buffer per resolution.
+	 */
+	static byte[] write(Map<String, HistoryBuffer[]> histories, int resolutions)
+	{
+		ByteArrayOutputStream index = new ByteArrayOutputStream();
+		ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+		Samples samples = new Samples();
+		try
+		{
+			VarInts.writeVarInt(index, histories.size());
+			for (Map.Entry<String, HistoryBuffer[]> entry : histories.entrySet())
+			{
+				VarInts.writeString(index, entry.getKey());
+				for (int r = 0; r < resolutions; r++)
+				{
+					HistoryBuffer buffer = entry.getValue()[r];
+					samples.clear();
+					buffer.forEachChange(samples::add);
+
+					VarInts.writeVarLong(index, buffer.getNewestBucket());
+					int blockCount = (samples.size + BLOCK_SAMPLES - 1) / BLOCK_SAMPLES;
+					VarInts.writeVarInt(index, blockCount);
+					for (int start = 0; start < samples.size; start += BLOCK_SAMPLES)
+					{
+						int end = Math.min(start + BLOCK_SAMPLES, samples.size);
+						int offset = blocks.size();
+						writeBlock(blocks, samples, start, end);
+
+						VarInts.writeVarLong(index, samples.buckets[start]);
+						VarInts.writeVarLong(index, samples.buckets[end - 1]);
+						VarInts.writeVarInt(index, samples.amounts[end - 1]);
+						VarInts.writeVarInt(index, end - start);
+						VarInts.writeVarInt(index, offset);
+						VarInts.writeVarInt(index, blocks.size() - offset);
+					}
+				}
+			}
+
+			ByteArrayOutputStream file = new ByteArrayOutputStream(HEADER_SIZE + index.size() + blocks.size());
+			file.write(MAGIC);
+			int indexLength = index.size();
+			file.write(indexLength >>> 24);
+			file.write(indexLength >>> 16);
+			file.write(indexLength >>> 8);
+			file.write(indexLength);
+			index.writeTo(file);
+			blocks.writeTo(file);
+			return file.toByteArray();
+		}
+		catch (IOException e)
+		{
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A block's first bucket is in the index, the block starts with its first amount.
+	 */
+	private static void writeBlock(ByteArrayOutputStream out, Samples samples, int start, int end) throws IOException
+	{
+		VarInts.writeVarInt(out, samples.amounts[start]);
+		long previousDelta = 0;
+		for (int i = start + 1; i < end; i++)
+		{
+			long delta = samples.buckets[i] - samples.buckets[i - 1];
+			long deltaOfDelta = delta - previousDelta;
+
+			// The low bit says whether a delta of delta follows, like Gorilla's control bit,
+			// so a regular sample with a small change in amount takes a single byte
+			long amountDelta = (long) samples.amounts[i] - samples.amounts[i - 1];
+			VarInts.writeVarLong(out, amountDelta * 2 + (deltaOfDelta != 0 ? 1 : 0));
+			if (deltaOfDelta != 0)
+			{
+				VarInts.writeVarLong(out, deltaOfDelta);
+			}
+			previousDelta = delta;
+		}
+	}
+
+	static boolean isHistoryFile(byte[] header)
+	{
+		return header.length >= MAGIC.length && Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+	}
+
+	static Reader open(Source source) throws IOException
+	{
+		return new Reader(source);
+	}
+
+	static Reader open(byte[] data) throws IOException
+	{
+		return new Reader(new Source()
+		{
+			@Override
+			public void readFully(long position, byte[] into) throws IOException
+			{
+				if (position < 0 || position + into.length > data.length)
+				{
+					throw new IOException("Read past the end of the history");
+				}
+				System.arraycopy(data, (int) position, into, 0, into.length);
+			}
+
+			@Override
+			public void close()
+			{
+			}
+		});
+	}
+
+	/**
+	 * Open a file for reading. Only the index is read until samples are asked for.
+	 */
+	static Reader open(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try
+		{
+			return new Reader(new Source()
+			{
+				@Override
+				public void readFully(long position, byte[] into) throws IOException
+				{
+					raf.seek(position);
+					raf.readFully(into);
+				}
+
+				@Override
+				public void close() throws IOException
+				{
+					raf.close();
+				}
+			});
+		}
+		catch (IOException | RuntimeException e)
+		{
+			raf.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Index of one history at one resolution.
+	 */
+	private static class Series
+	{
+		private long newestBucket;
+		private long[] firstBuckets;
+		private long[] lastBuckets;
+		private int[] lastAmounts;
+		private int[] counts;
+		private int[] offsets;
+		private int[] lengths;
+	}
+
+	/**
+	 * Reads samples from an encoded history, decoding only the blocks asked for.
+	 */
+	static final class Reader implements Closeable
+	{
+		private final Source source;
+		private final long blocksStart;
+		private final Map<String, Series[]> series = new LinkedHashMap<>();
+
+		private Reader(Source source) throws IOException
+		{
+			this.source = source;
+
+			byte[] header = new byte[HEADER_SIZE];
+			source.readFully(0, header);
+			if (!isHistoryFile(header))
+			{
+				throw new IOException("Not a history file");
+			}
+
+			int indexLength = (header[4] & 0xFF) << 24 | (header[5] & 0xFF) << 16 | (header[6] & 0xFF) << 8 | (header[7] & 0xFF);
+			if (indexLength < 0)
+			{
+				throw new IOException("Invalid index length " + indexLength);
+			}
+			byte[] index = new byte[indexLength];
+			source.readFully(HEADER_SIZE, index);
+			blocksStart = HEADER_SIZE + (long) indexLength;
+			readIndex(new DataInputStream(new ByteArrayInputStream(index)));
+		}
+
+		private void readIndex(DataInputStream in) throws IOException
+		{
+			int historyCount = VarInts.readVarInt(in);
+			for (int h = 0; h < historyCount; h++)
+			{
+				String key = VarInts.readString(in);
+				Series[] resolutions = new Series[HistoryStore.Resolution.values().length];
+				for (int r = 0; r < resolutions.length; r++)
+				{
+					Series s = new Series();
+					s.newestBucket = VarInts.readVarLong(in);
+					int blockCount = VarInts.readVarInt(in);
+					if (blockCount < 0 || blockCount > in.available())
+					{
+						throw new IOException("Invalid block count " + blockCount);
+					}
+					s.firstBuckets = new long[blockCount];
+					s.lastBuckets = new long[blockCount];
+					s.lastAmounts = new int[blockCount];
+					s.counts = new int[blockCount];
+					s.offsets = new int[blockCount];
+					s.lengths = new int[blockCount];
+					for (int b = 0; b < blockCount; b++)
+					{
+						s.firstBuckets[b] = VarInts.readVarLong(in);
+						s.lastBuckets[b] = VarInts.readVarLong(in);
+						s.lastAmounts[b] = VarInts.readVarInt(in);
+						s.counts[b] = VarInts.readVarInt(in);
+						s.offsets[b] = VarInts.readVarInt(in);
+						s.lengths[b] = VarInts.readVarInt(in);
+						if (s.counts[b] <= 0 || s.counts[b] > BLOCK_SAMPLES || s.offsets[b] < 0 || s.lengths[b] < 0)
+						{
+							throw new IOException("Invalid block in history index");
+						}
+					}
+					resolutions[r] = s;
+				}
+				series.put(key, resolutions);
+			}
+		}
+
+		Set<String> getKeys()
+		{
+			return Collections.unmodifiableSet(series.keySet());
+		}
+
+		/**
+		 * @return true if the history has no samples at this resolution
+		 */
+		boolean isEmpty(String key, HistoryStore.Resolution resolution)
+		{
+			Series[] resolutions = series.get(key);
+			return resolutions == null || resolutions[resolution.ordinal()].counts.length == 0;
+		}
+
+		/**
+		 * @return The newest bucket of a history, amounts carry forward to it from the last sample
+		 */
+		long getNewestBucket(String key, HistoryStore.Resolution resolution)
+		{
+			return series.get(key)[resolution.ordinal()].newestBucket;
+		}
+
+		/**
+		 * Read the samples of a history from one bucket to another. The newest sample at or
+		 * before {@code fromBucket} comes first, it holds the amount at the start of the range.
+		 * Later samples follow up to and including {@code toBucket}.
+		 */
+		void read(String key, HistoryStore.Resolution resolution, long fromBucket, long toBucket, SampleConsumer consumer) throws IOException
+		{
+			Series[] resolutions = series.get(key);
+			if (resolutions == null)
+			{
+				return;
+			}
+			Series s = resolutions[resolution.ordinal()];
+			RangeFilter filter = new RangeFilter(fromBucket, toBucket, consumer);
+
+			// First block ending at or after the range start, earlier blocks only carry their last amount in
+			int block = Arrays.binarySearch(s.lastBuckets, fromBucket);
+			block = block >= 0 ? block : -block - 1;
+			if (block > 0)
+			{
+				filter.accept(s.lastBuckets[block - 1], s.lastAmounts[block - 1]);
+			}
+
+			for (; block < s.counts.length && s.firstBuckets[block] <= toBucket; block++)
+			{
+				readBlock(s, block, filter);
+			}
+			filter.finish();
+		}
+
+		private void readBlock(Series s, int block, SampleConsumer consumer) throws IOException
+		{
+			byte[] data = new byte[s.lengths[block]];
+			source.readFully(blocksStart + s.offsets[block], data);
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+			long bucket = s.firstBuckets[block];
+			int amount = VarInts.readVarInt(in);
+			consumer.accept(bucket, amount);
+
+			long delta = 0;
+			for (int i = 1; i < s.counts[block]; i++)
+			{
+				long token = VarInts.readVarLong(in);
+				if ((token & 1) != 0)
+				{
+					delta += VarInts.readVarLong(in);
+				}
+				bucket += delta;
+				amount += (int) (token >> 1);
+				consumer.accept(bucket, amount);
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			source.close();
+		}
+	}
+
+	/**
+	 * Passes on the samples of a range, led by the sample holding the amount at its start.
+	 */
+	private static class RangeFilter implements SampleConsumer
+	{
+		private final long fromBucket;
+		private final long toBucket;
+		private final SampleConsumer consumer;
+		private boolean hasStart = false;
+		private long startBucket;
+		private int startAmount;
+
+		RangeFilter(long fromBucket, long toBucket, SampleConsumer consumer)
+		{
+			this.fromBucket = fromBucket;
+			this.toBucket = toBucket;
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void accept(long bucket, int amount)
+		{
+			if (bucket <= fromBucket)
+			{
+				hasStart = true;
+				startBucket = bucket;
+				startAmount = amount;
+			}
+			else if (bucket <= toBucket)
+			{
+				finish();
+				consumer.accept(bucket, amount);
+			}
+		}
+
+		void finish()
+		{
+			if (hasStart)
+			{
+				consumer.accept(startBucket, startAmount);
+				hasStart = false;
+			}
+		}
+	}
+
+	/**
+	 * Growable sample arrays, reused for every history while writing.
+	 */
+	private static class Samples
+	{
+		private long[] buckets = new long[BLOCK_SAMPLES];
+		private int[] amounts = new int[BLOCK_SAMPLES];
+		private int size;
+
+		void add(long bucket, int amount)
+		{
+			if (size == buckets.length)
+			{
+				buckets = Arrays.copyOf(buckets, size * 2);
+				amounts = Arrays.copyOf(amounts, size * 2);
+			}
+			buckets[size] = bucket;
+			amounts[size] = amount;
+			size++;
+		}
+
+		void clear()
+		{
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package com.resourcetracker;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quantity history of the tracked items of one account, downsampled into
+ * ring buffers at several resolutions: per minute for a day, hourly for a
+ * month and daily forever. Each bucket holds the last amount seen in it, so
+ * amounts at a point in time, and rates between two points, are constant
+ * time lookups. Buckets are aligned to UTC.
+ * <p>
+ * Histories are kept in a {@link HistoryFile} per account rather than the
+ * profile config, which is synced and not meant for data of this size.
+ */
+@Slf4j
+public class HistoryStore
+{
+	public static final File HISTORY_DIR = new File(new File(RuneLite.RUNELITE_DIR, "resource-tracker"), "history");
+
+	public enum Resolution
+	{
+		MINUTE(TimeUnit.MINUTES.toMillis(1), 24 * 60),
+		HOUR(TimeUnit.HOURS.toMillis(1), 30 * 24),
+		DAY(TimeUnit.DAYS.toMillis(1), Integer.MAX_VALUE);
+
+		private final long bucketMillis;
+		private final int capacity;
+
+		Resolution(long bucketMillis, int capacity)
+		{
+			this.bucketMillis = bucketMillis;
+			this.capacity = capacity;
+		}
+
+		public long getBucketMillis()
+		{
+			return bucketMillis;
+		}
+
+		/**
+		 * @return Number of buckets kept
+		 */
+		public int getCapacity()
+		{
+			return capacity;
+		}
+
+		long bucket(long timeMillis)
+		{
+			return Math.floorDiv(timeMillis, bucketMillis);
+		}
+	}
+
+	private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+	// Tracked item key to one buffer per resolution
+	private final Map<String, HistoryBuffer[]> histories = new HashMap<>();
+	private boolean dirty = false;
+
+	/**
+	 * Record the amount of a tracked item.
+	 *
+	 * @param key        The tracked item key
+	 * @param timeMillis When the amount was seen
+	 * @param amount     The amount
+	 */
+	public synchronized void record(String key, long timeMillis, int amount)
+	{
+		HistoryBuffer[] buffers = histories.get(key);
+		if (buffers == null)
+		{
+			buffers = new HistoryBuffer[RESOLUTIONS.length];
+			for (Resolution resolution : RESOLUTIONS)
+			{
+				buffers[resolution.ordinal()] = new HistoryBuffer(resolution.getCapacity());
+			}
+			histories.put(key, buffers);
+		}
+
+		for (Resolution resolution : RESOLUTIONS)
+		{
+			buffers[resolution.ordinal()].record(resolution.bucket(timeMillis), amount);
+		}
+		dirty = true;
+	}
+
+	/**
+	 * @param key        The tracked item key
+	 * @param resolution Resolution to read
+	 * @param timeMillis Point in time
+	 * @return The last amount recorded in the bucket containing the time, or -1 if
+	 * that is before the history at this resolution starts
+	 */
+	public synchronized int getAmount(String key, Resolution resolution, long timeMillis)
+	{
+		HistoryBuffer[] buffers = histories.get(key);
+		return buffers != null ? buffers[resolution.ordinal()].get(resolution.bucket(timeMillis)) : -1;
+	}
+
+	/**
+	 * @return Start of the oldest bucket at this resolution, or -1 if there is no history
+	 */
+	public synchronized long getOldestTime(String key, Resolution resolution)
+	{
+		HistoryBuffer[] buffers = histories.get(key);
+		if (buffers == null || buffers[resolution.ordinal()].isEmpty())
+		{
+			return -1;
+		}
+		return buffers[resolution.ordinal()].getOldestBucket() * resolution.getBucketMillis();
+	}
+
+	/**
+	 * Move a history to a new key, e.g. when its category is renamed.
+	 */
+	public synchronized void rename(String oldKey, String newKey)
+	{
+		HistoryBuffer[] buffers = histories.remove(oldKey);
+		if (buffers != null)
+		{
+			histories.put(newKey, buffers);
+			dirty = true;
+		}
+	}
+
+	public synchronized void clear()
+	{
+		histories.clear();
+		dirty = false;
+	}
+
+	/**
+	 * @return true if anything changed since the last load or {@link #encode()}
+	 */
+	public synchronized boolean isDirty()
+	{
+		return dirty;
+	}
+
+	/**
+	 * Serialize every history in {@link HistoryFile} format, so it can be written without holding the store.
+	 */
+	public synchronized byte[] encode()
+	{
+		dirty = false;
+		return HistoryFile.write(histories, RESOLUTIONS.length);
+	}
+
+	/**
+	 * Replace every history with those in data written by {@link #encode()}.
+	 */
+	public synchronized void decode(byte[] data) throws IOException
+	{
+		Map<String, HistoryBuffer[]> loaded = new HashMap<>();
+		try (HistoryFile.Reader reader = HistoryFile.open(data))
+		{
+			for (String key : reader.getKeys())
+			{
+				HistoryBuffer[] buffers = new HistoryBuffer[RESOLUTIONS.length];
+				for (Resolution resolution : RESOLUTIONS)
+				{
+					HistoryBuffer buffer = new HistoryBuffer(resolution.getCapacity());
+					reader.read(key, resolution, Long.MIN_VALUE, Long.MAX_VALUE, buffer::record);
+					if (!buffer.isEmpty())
+					{
+						// Carry the last amount forward to where the history ended
+						buffer.record(reader.getNewestBucket(key, resolution), buffer.get(Long.MAX_VALUE));
+					}
+					buffers[resolution.ordinal()] = buffer;
+				}
+				loaded.put(key, buffers);
+			}
+		}
+
+		histories.clear();
+		histories.putAll(loaded);
+		dirty = false;
+	}
+
+	/**
+	 * Replace every history with those in a file. A missing or unreadable file leaves the store empty.
+	 */
+	public void load(File file)
+	{
+		clear();
+		if (!file.exists())
+		{
+			return;
+		}
+
+		try
+		{
+			decode(Files.readAllBytes(file.toPath()));
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to load item history from {}", file, e);
+			clear();
+		}
+	}
+
+	/**
+	 * Write data from {@link #encode()} to a file. The file is replaced in one step, so
+	 * a crash while writing leaves the previous history intact.
+	 */
+	public static void writeFile(File file, byte[] data)
+	{
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try
+		{
+			file.getParentFile().mkdirs();
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp)))
+			{
+				out.write(data);
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			log.warn("Unable to save item history to {}", file, e);
+		}
+	}
+}
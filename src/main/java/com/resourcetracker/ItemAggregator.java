@@ -0,0 +1,629 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Aggregates cached container contents into tracked item totals.
+ * Owns the per-container item caches and keeps per-category rollup
+ * statistics up to date as item quantities change, so the UI never
+ * has to recompute them.
+ */
+public class ItemAggregator
+{
+	// One container per cache, so alternate IDs aren't counted twice
+	private static final ContainerTracker.Container[] CACHE_CONTAINERS = ContainerTracker.getAllContainers().values().stream()
+		.filter(container -> normalizeContainerId(container.getId()) == container.getId())
+		.toArray(ContainerTracker.Container[]::new);
+
+	// Dynamic container cache - one map per container ID
+	private final Map<Integer, Map<Integer, Integer>> containerCaches = new HashMap<>();
+
+	// Raw contents each cache was last built from, to skip rebuilding it from identical contents
+	private final Map<Integer, Item[]> lastContents = new HashMap<>();
+
+	// Rollup statistics per category. Changed from the client thread by update() and from
+	// the EDT when items are added or removed, each change is made under statsLock so an
+	// item is never counted twice or left out while another thread changes it
+	private final Map<String, CategoryStats> categoryStats = new ConcurrentHashMap<>();
+	private final Object statsLock = new Object();
+
+	// Tracked items by item ID, so a few changed IDs find their items without a scan. Kept
+	// with the statistics and under the same lock, as items are added and removed
+	private final Map<Integer, List<TrackedItem>> itemsById = new HashMap<>();
+
+	// IDs changed by the last updateContainerSlots() and the items they belong to, reused
+	// between calls as gear changes many times a minute
+	private int[] changedIds = new int[28];
+	private final List<TrackedItem> changedItems = new ArrayList<>();
+
+	private final Predicate<ContainerTracker.Container> trackingEnabled;
+
+	private MissingItems.Ranking missingRanking = MissingItems.Ranking.VALUE;
+
+	// Caches rebuilt from live contents since the last resync()
+	private final Set<Integer> refreshedCaches = new HashSet<>();
+	// Also set from the EDT by catchUp()
+	private volatile boolean catchingUp = false;
+
+	/**
+	 * Notified when {@link #update} changes the amount of a tracked item.
+	 */
+	public interface AmountListener
+	{
+		/**
+		 * @param previousAmount The amount before the change
+		 * @param catchingUp     True if the change catches up on what happened while a
+		 *                       container wasn't watched, rather than happening now
+		 */
+		void amountChanged(TrackedItem item, int previousAmount, boolean catchingUp);
+	}
+
+	private AmountListener amountListener;
+
+	/**
+	 * @param trackingEnabled Whether a container is enabled in the config
+	 */
+	public ItemAggregator(Predicate<ContainerTracker.Container> trackingEnabled)
+	{
+		this.trackingEnabled = trackingEnabled;
+	}
+
+	public void setAmountListener(AmountListener amountListener)
+	{
+		this.amountListener = amountListener;
+	}
+
+	/**
+	 * Set how missing items are ranked, applies to category statistics built from now on.
+	 */
+	public void setMissingRanking(MissingItems.Ranking missingRanking)
+	{
+		this.missingRanking = missingRanking;
+	}
+
+	public Map<Integer, Map<Integer, Integer>> getContainerCaches()
+	{
+		return containerCaches;
+	}
+
+	/**
+	 * Start over from a state that isn't live, e.g. at login or after loading saved
+	 * caches. The next update and the first rebuild of each cache catch up on changes
+	 * made while the containers weren't watched, so they are reported as such.
+	 */
+	public void resync()
+	{
+		refreshedCaches.clear();
+		catchingUp = true;
+	}
+
+	/**
+	 * @return true if the next update catches up rather than reporting live changes
+	 */
+	public boolean isCatchingUp()
+	{
+		return catchingUp;
+	}
+
+	/**
+	 * Report the changes of the next update as catching up, e.g. after the
+	 * containers counted towards an item change.
+	 */
+	public void catchUp()
+	{
+		catchingUp = true;
+	}
+
+	/**
+	 * Replace every container cache, e.g. with the caches saved for an account.
+	 */
+	public void replaceContainerCaches(Map<Integer, Map<Integer, Integer>> caches)
+	{
+		containerCaches.clear();
+		containerCaches.putAll(caches);
+		lastContents.clear();
+	}
+
+	/**
+	 * Update the cache for a specific container.
+	 * This method is generic and works for any container type.
+	 *
+	 * @return true if the cache was rebuilt from new contents
+	 */
+	public boolean updateContainerCache(int containerId, ItemContainer container)
+	{
+		if (container == null)
+		{
+			return false;
+		}
+
+		return updateContainerCache(containerId, container.getItems());
+	}
+
+	/**
+	 * Update the cache for a specific container from its raw item slots.
+	 *
+	 * @param containerId The container ID, alternate IDs are normalized
+	 * @param items       The container slots, empty slots have an ID of -1 or 0
+	 * @return true if the cache was rebuilt, false if the contents are the same as last time
+	 */
+	public boolean updateContainerCache(int containerId, Item[] items)
+	{
+		// Normalize container IDs to use the same cache for alternate IDs
+		int cacheId = normalizeContainerId(containerId);
+
+		// Containers are resent unchanged all the time, e.g. whenever the bank is redrawn
+		Item[] last = lastContents.get(cacheId);
+		if (last != null && sameContents(last, items) && containerCaches.containsKey(cacheId))
+		{
+			return false;
+		}
+		lastContents.put(cacheId, items);
+
+		// Get or create cache for this container
+		Map<Integer, Integer> cache = containerCaches.computeIfAbsent(cacheId, k -> new HashMap<>());
+		cache.clear();
+
+		// Cache all items in the container
+		for (Item item : items)
+		{
+			if (item.getId() > 0)
+			{
+				cache.merge(item.getId(), item.getQuantity(), Integer::sum);
+			}
+		}
+		catchingUp |= refreshedCaches.add(cacheId);
+		return true;
+	}
+
+	/**
+	 * Update the cache for a small container that changes often, e.g. worn equipment,
+	 * from only the slots that differ from last time.
+	 *
+	 * @param containerId The container ID, alternate IDs are normalized
+	 * @param items       The container slots, empty slots have an ID of -1 or 0
+	 * @return The number of item IDs whose quantity in the container may have changed, see
+	 * {@link #getChangedId}, or -1 if there was nothing to diff against and any may have
+	 */
+	public int updateContainerSlots(int containerId, Item[] items)
+	{
+		int cacheId = normalizeContainerId(containerId);
+		Item[] last = lastContents.get(cacheId);
+		Map<Integer, Integer> cache = containerCaches.get(cacheId);
+
+		if (last == null || cache == null)
+		{
+			// Nothing to diff against, e.g. the first time or after loading saved caches
+			updateContainerCache(containerId, items);
+			return -1;
+		}
+
+		if (changedIds.length < 2 * Math.max(last.length, items.length))
+		{
+			changedIds = new int[2 * Math.max(last.length, items.length)];
+		}
+
+		int changedCount = 0;
+		for (int slot = 0; slot < Math.max(last.length, items.length); slot++)
+		{
+			Item before = slot < last.length ? last[slot] : null;
+			Item after = slot < items.length ? items[slot] : null;
+			int beforeId = before != null && before.getId() > 0 ? before.getId() : 0;
+			int afterId = after != null && after.getId() > 0 ? after.getId() : 0;
+			int beforeQty = beforeId > 0 ? before.getQuantity() : 0;
+			int afterQty = afterId > 0 ? after.getQuantity() : 0;
+			if (beforeId == afterId && beforeQty == afterQty)
+			{
+				continue;
+			}
+
+			if (beforeId > 0)
+			{
+				cache.computeIfPresent(beforeId, (id, qty) -> qty == beforeQty ? null : qty - beforeQty);
+				changedCount = addChangedId(beforeId, changedCount);
+			}
+			if (afterId > 0)
+			{
+				cache.merge(afterId, afterQty, Integer::sum);
+				changedCount = addChangedId(afterId, changedCount);
+			}
+		}
+		lastContents.put(cacheId, items);
+
+		if (changedCount > 0)
+		{
+			catchingUp |= refreshedCaches.add(cacheId);
+		}
+		return changedCount;
+	}
+
+	private int addChangedId(int itemId, int changedCount)
+	{
+		for (int i = 0; i < changedCount; i++)
+		{
+			if (changedIds[i] == itemId)
+			{
+				return changedCount;
+			}
+		}
+		changedIds[changedCount] = itemId;
+		return changedCount + 1;
+	}
+
+	/**
+	 * @param index Below the count returned by the last {@link #updateContainerSlots}
+	 * @return One of the item IDs changed by it
+	 */
+	public int getChangedId(int index)
+	{
+		return changedIds[index];
+	}
+
+	/**
+	 * Tracked items with one of the IDs changed by the last {@link #updateContainerSlots}.
+	 *
+	 * @param changedCount The count it returned
+	 * @return The items, in a list that is reused by the next call
+	 */
+	public List<TrackedItem> getChangedItems(int changedCount)
+	{
+		changedItems.clear();
+		synchronized (statsLock)
+		{
+			for (int i = 0; i < changedCount; i++)
+			{
+				List<TrackedItem> items = itemsById.get(changedIds[i]);
+				if (items != null)
+				{
+					changedItems.addAll(items);
+				}
+			}
+		}
+		return changedItems;
+	}
+
+	private static boolean sameContents(Item[] a, Item[] b)
+	{
+		if (a.length != b.length)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < a.length; i++)
+		{
+			if (a[i].getId() != b[i].getId() || a[i].getQuantity() != b[i].getQuantity())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replace a container cache wholesale, for containers without an ItemContainer.
+	 *
+	 * @return true if the cache contents changed
+	 */
+	public boolean replaceContainerCache(int containerId, Map<Integer, Integer> items)
+	{
+		int cacheId = normalizeContainerId(containerId);
+		Map<Integer, Integer> cache = containerCaches.computeIfAbsent(cacheId, k -> new HashMap<>());
+
+		// Check if the cache actually changed before updating
+		if (cache.equals(items))
+		{
+			return false;
+		}
+
+		cache.clear();
+		cache.putAll(items);
+		catchingUp |= refreshedCaches.add(cacheId);
+		return true;
+	}
+
+	/**
+	 * Normalize container IDs to use the same cache for alternate IDs.
+	 * Examples: 660 -> 93 (temp inventory), 33731 -> 963 (boat 1 alternate)
+	 */
+	public static int normalizeContainerId(int containerId)
+	{
+
+		// Boats: Normalize alternate IDs (33731-33735) to primary IDs (963-967)
+		if (containerId >= 33731 && containerId <= 33735)
+		{
+			return 963 + (containerId - 33731); // 33731->963, 33732->964, etc.
+		}
+
+		return containerId; // No normalization needed
+	}
+
+	/**
+	 * Recompute current amounts and container breakdowns for the given items.
+	 * Category statistics are adjusted for every item whose amount changed.
+	 * Only items that changed allocate, so this can run on every container event.
+	 *
+	 * @param trackedItems            The items to update
+	 * @param inventoryOnlyCategories Categories restricted to the inventory
+	 * @return The categories with changed items, or null if nothing changed
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<String> update(Collection<TrackedItem> trackedItems, Set<String> inventoryOnlyCategories)
+	{
+		Set<String> changedCategories = null;
+
+		// Resolve the enabled containers and their caches once, rather than once per item
+		Map<Integer, Integer>[] caches = new Map[CACHE_CONTAINERS.length];
+		boolean[] enabled = new boolean[CACHE_CONTAINERS.length];
+		for (int c = 0; c < CACHE_CONTAINERS.length; c++)
+		{
+			enabled[c] = trackingEnabled.test(CACHE_CONTAINERS[c]);
+			caches[c] = containerCaches.get(CACHE_CONTAINERS[c].getId());
+		}
+
+		// Only iterate through tracked items, not all container items
+		for (TrackedItem trackedItem : trackedItems)
+		{
+			// Boxed once here instead of for every cache lookup
+			Integer itemId = trackedItem.getItemId();
+			Map<String, Integer> savedBreakdown = trackedItem.getContainerQuantities();
+
+			// Check if this item is restricted to inventory only
+			boolean isRestrictedToInventory = inventoryOnlyCategories.contains(trackedItem.getCategory()) || trackedItem.isInventoryOnly();
+
+			int totalAmount = 0;
+			int breakdownSize = 0;
+			boolean hasScannedData = false;
+			boolean breakdownChanged = savedBreakdown == null;
+
+			for (int c = 0; c < CACHE_CONTAINERS.length; c++)
+			{
+				ContainerTracker.Container container = CACHE_CONTAINERS[c];
+				if (!enabled[c] || (isRestrictedToInventory && container.getId() != ContainerTracker.INVENTORY.getId()))
+				{
+					continue;
+				}
+
+				int qty = containerQuantity(caches[c], itemId, savedBreakdown, container.getName());
+				if (qty < 0)
+				{
+					continue;
+				}
+
+				hasScannedData |= caches[c] != null;
+				totalAmount += qty;
+				breakdownSize++;
+				if (!breakdownChanged)
+				{
+					Integer savedQty = savedBreakdown.get(container.getName());
+					breakdownChanged = savedQty == null || savedQty != qty;
+				}
+			}
+
+			breakdownChanged |= savedBreakdown != null && savedBreakdown.size() != breakdownSize;
+
+			if (hasScannedData && (trackedItem.getCurrentAmount() != totalAmount || breakdownChanged))
+			{
+				Map<String, Integer> breakdown = new HashMap<>();
+				for (int c = 0; c < CACHE_CONTAINERS.length; c++)
+				{
+					ContainerTracker.Container container = CACHE_CONTAINERS[c];
+					if (!enabled[c] || (isRestrictedToInventory && container.getId() != ContainerTracker.INVENTORY.getId()))
+					{
+						continue;
+					}
+
+					int qty = containerQuantity(caches[c], itemId, savedBreakdown, container.getName());
+					if (qty >= 0)
+					{
+						breakdown.put(container.getName(), qty);
+					}
+				}
+
+				int previousAmount = trackedItem.getCurrentAmount();
+				boolean amountChanged = previousAmount != totalAmount;
+				synchronized (statsLock)
+				{
+					CategoryStats stats = categoryStats.get(trackedItem.getCategory());
+					if (stats != null)
+					{
+						stats.remove(trackedItem);
+					}
+
+					trackedItem.setCurrentAmount(totalAmount);
+					trackedItem.setContainerQuantities(breakdown);
+
+					if (stats != null)
+					{
+						stats.add(trackedItem);
+					}
+				}
+
+				if (amountChanged && amountListener != null)
+				{
+					amountListener.amountChanged(trackedItem, previousAmount, catchingUp);
+				}
+
+				if (changedCategories == null)
+				{
+					changedCategories = new HashSet<>();
+				}
+				changedCategories.add(trackedItem.getCategory());
+			}
+		}
+
+		catchingUp = false;
+		return changedCategories;
+	}
+
+	/**
+	 * Quantity of an item in a container, from the cache if the container was
+	 * scanned or else from the item's saved breakdown.
+	 *
+	 * @return The quantity, or -1 if the container has never been seen
+	 */
+	private static int containerQuantity(Map<Integer, Integer> cache, Integer itemId, Map<String, Integer> savedBreakdown, String containerName)
+	{
+		if (cache != null)
+		{
+			Integer quantity = cache.get(itemId);
+			return quantity != null ? quantity : 0;
+		}
+
+		if (savedBreakdown != null)
+		{
+			Integer savedQty = savedBreakdown.get(containerName);
+			if (savedQty != null)
+			{
+				return savedQty;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Count an item in caches other than these, e.g. another account's saved caches,
+	 * over the same containers {@link #update} counts.
+	 *
+	 * @param restrictedToInventory Whether only the inventory counts for the item
+	 */
+	public long countItem(Map<Integer, Map<Integer, Integer>> caches, int itemId, boolean restrictedToInventory)
+	{
+		Integer boxedId = itemId;
+		long total = 0;
+		for (ContainerTracker.Container container : CACHE_CONTAINERS)
+		{
+			if (restrictedToInventory && container.getId() != ContainerTracker.INVENTORY.getId())
+			{
+				continue;
+			}
+
+			Map<Integer, Integer> cache = caches.get(container.getId());
+			if (cache != null && trackingEnabled.test(container))
+			{
+				Integer quantity = cache.get(boxedId);
+				if (quantity != null)
+				{
+					total += quantity;
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Get the rollup statistics for a category.
+	 *
+	 * @param category The category name
+	 * @return The statistics, empty if the category has no items
+	 */
+	public CategoryStats getCategoryStats(String category)
+	{
+		CategoryStats stats = categoryStats.get(category);
+		return stats != null ? stats : new CategoryStats(missingRanking);
+	}
+
+	/**
+	 * Account for a newly tracked item in its category's statistics.
+	 */
+	public void itemAdded(TrackedItem item)
+	{
+		synchronized (statsLock)
+		{
+			categoryStats.computeIfAbsent(item.getCategory(), k -> new CategoryStats(missingRanking)).add(item);
+			itemsById.computeIfAbsent(item.getItemId(), k -> new ArrayList<>(1)).add(item);
+		}
+	}
+
+	/**
+	 * Remove an untracked item from its category's statistics.
+	 */
+	public void itemRemoved(TrackedItem item)
+	{
+		synchronized (statsLock)
+		{
+			CategoryStats stats = categoryStats.get(item.getCategory());
+			if (stats != null)
+			{
+				stats.remove(item);
+				if (stats.isEmpty())
+				{
+					categoryStats.remove(item.getCategory());
+				}
+			}
+
+			// By identity, items of the same ID in other categories are equal in every other way
+			List<TrackedItem> items = itemsById.get(item.getItemId());
+			if (items != null)
+			{
+				items.removeIf(indexed -> indexed == item);
+				if (items.isEmpty())
+				{
+					itemsById.remove(item.getItemId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Change an item in a way that affects its category's statistics, such as its goal.
+	 * The item is taken out of the statistics and put back within one lock, so an update
+	 * on another thread can't count it in between.
+	 */
+	public void changeItem(TrackedItem item, Runnable change)
+	{
+		synchronized (statsLock)
+		{
+			itemRemoved(item);
+			change.run();
+			itemAdded(item);
+		}
+	}
+
+	/**
+	 * Recompute all category statistics from scratch, used after bulk changes
+	 * such as loading, renaming or resetting categories.
+	 */
+	public void rebuildCategoryStats(Collection<TrackedItem> trackedItems)
+	{
+		// Built aside and swapped in per category, so the panel never reads a half built category
+		Map<String, CategoryStats> rebuilt = new HashMap<>();
+		synchronized (statsLock)
+		{
+			itemsById.clear();
+			for (TrackedItem item : trackedItems)
+			{
+				rebuilt.computeIfAbsent(item.getCategory(), k -> new CategoryStats(missingRanking)).add(item);
+				itemsById.computeIfAbsent(item.getItemId(), k -> new ArrayList<>(1)).add(item);
+			}
+			categoryStats.keySet().retainAll(rebuilt.keySet());
+			categoryStats.putAll(rebuilt);
+		}
+	}
+
+	/**
+	 * Forget all cached containers and statistics.
+	 */
+	public void clear()
+	{
+		containerCaches.clear();
+		lastContents.clear();
+		synchronized (statsLock)
+		{
+			categoryStats.clear();
+			itemsById.clear();
+		}
+		refreshedCaches.clear();
+		catchingUp = false;
+	}
+}
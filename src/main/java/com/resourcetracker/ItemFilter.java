@@ -0,0 +1,143 @@
+package com.resourcetracker;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Index for filtering the tracked items as the user types. Lowercase names and one
+ * bitset per item state are built once from a snapshot of the items, so a filter is
+ * a name match and a bitset intersection. Typing more of the same text only checks
+ * the names that matched the shorter text.
+ */
+public class ItemFilter
+{
+	public static final String ALL = "All items";
+	public static final String INCOMPLETE = "Goal not reached";
+	public static final String COMPLETE = "Goal reached";
+	public static final String INVENTORY_ONLY = "Inventory only";
+	private static final String IN_CONTAINER = "In ";
+
+	// Fixed states, then one per container an item can be in
+	private static final List<String> STATES = new ArrayList<>();
+
+	static
+	{
+		STATES.add(ALL);
+		STATES.add(INCOMPLETE);
+		STATES.add(COMPLETE);
+		STATES.add(INVENTORY_ONLY);
+		TreeSet<String> containerNames = new TreeSet<>();
+		ContainerTracker.getAllContainers().values().forEach(container -> containerNames.add(container.getName()));
+		containerNames.forEach(name -> STATES.add(IN_CONTAINER + name));
+	}
+
+	private final Map<TrackedItem, Integer> indexes = new IdentityHashMap<>();
+	private final String[] names;
+	private final Map<String, BitSet> stateBits = new LinkedHashMap<>();
+
+	// Names that matched the last text, to narrow from when more is typed
+	private String lastText = "";
+	private BitSet lastNameMatches;
+
+	/**
+	 * @param items                 The tracked items
+	 * @param inventoryOnlyCategory Whether a category only counts the inventory
+	 */
+	public ItemFilter(Collection<TrackedItem> items, Predicate<String> inventoryOnlyCategory)
+	{
+		names = new String[items.size()];
+		for (String state : STATES)
+		{
+			stateBits.put(state, new BitSet(names.length));
+		}
+
+		int index = 0;
+		for (TrackedItem item : items)
+		{
+			indexes.put(item, index);
+			names[index] = item.getItemName().toLowerCase(Locale.ROOT);
+
+			stateBits.get(ALL).set(index);
+			Integer goal = item.getGoalAmount();
+			if (goal != null)
+			{
+				stateBits.get(item.getCurrentAmount() >= goal ? COMPLETE : INCOMPLETE).set(index);
+			}
+			if (item.isInventoryOnly() || inventoryOnlyCategory.test(item.getCategory()))
+			{
+				stateBits.get(INVENTORY_ONLY).set(index);
+			}
+			for (Map.Entry<String, Integer> entry : item.getContainerQuantities().entrySet())
+			{
+				BitSet bits = stateBits.get(IN_CONTAINER + entry.getKey());
+				if (bits != null && entry.getValue() > 0)
+				{
+					bits.set(index);
+				}
+			}
+			index++;
+		}
+		lastNameMatches = (BitSet) stateBits.get(ALL).clone();
+	}
+
+	/**
+	 * @return The states that can be filtered on, {@link #ALL} first
+	 */
+	public static List<String> getStates()
+	{
+		return STATES;
+	}
+
+	/**
+	 * Find the items whose name contains the text and that are in the state.
+	 *
+	 * @param text  Text to look for in names, case insensitive, empty for any name
+	 * @param state One of {@link #getStates()}
+	 * @return The matching items, test them with {@link #contains}
+	 */
+	public BitSet match(String text, String state)
+	{
+		String lower = text.toLowerCase(Locale.ROOT);
+
+		if (!lower.equals(lastText))
+		{
+			// A name containing the new text also contains the old one, so only those need checking
+			BitSet candidates = lower.contains(lastText) ? lastNameMatches : stateBits.get(ALL);
+			BitSet nameMatches = new BitSet(names.length);
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1))
+			{
+				if (names[i].contains(lower))
+				{
+					nameMatches.set(i);
+				}
+			}
+			lastText = lower;
+			lastNameMatches = nameMatches;
+		}
+
+		BitSet matches = (BitSet) lastNameMatches.clone();
+		BitSet bits = stateBits.get(state);
+		if (bits != null)
+		{
+			matches.and(bits);
+		}
+		return matches;
+	}
+
+	/**
+	 * @return true if the item is one of the matches, false for items added after the index was built
+	 */
+	public boolean contains(BitSet matches, TrackedItem item)
+	{
+		Integer index = indexes.get(item);
+		return index != null && matches.get(index);
+	}
+}
@@ -0,0 +1,164 @@
+package com.resourcetracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The display order of a category's items, kept sorted as they change. Each item's
+ * sort key is remembered, so an update only moves the items whose key changed: they
+ * are found by binary search on the old key and inserted at the new one.
+ */
+public class ItemOrder
+{
+	/**
+	 * How items are ordered within a category.
+	 */
+	public enum Mode
+	{
+		MANUAL("Order added"),
+		PROGRESS("Progress"),
+		VALUE("GE value"),
+		MISSING("Missing amount"),
+		NAME("Name");
+
+		private final String name;
+
+		Mode(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+
+	// An item and its sort key when it was last placed
+	private static final class Entry
+	{
+		private final TrackedItem item;
+		private double key;
+		private int generation;
+
+		private Entry(TrackedItem item)
+		{
+			this.item = item;
+		}
+	}
+
+	private final Mode mode;
+	private final Comparator<Entry> comparator;
+	private final List<Entry> entries = new ArrayList<>();
+	private final Map<TrackedItem, Entry> entriesByItem = new IdentityHashMap<>();
+	private int generation;
+
+	// The items in order, replaced when the order changes
+	private List<TrackedItem> items = Collections.emptyList();
+
+	public ItemOrder(Mode mode)
+	{
+		this.mode = mode;
+		Comparator<Entry> byKey = mode == Mode.NAME
+			? Comparator.comparing(e -> e.item.getItemName(), String.CASE_INSENSITIVE_ORDER)
+			: Comparator.comparingDouble(e -> e.key);
+		comparator = byKey.thenComparingInt(e -> e.item.getItemId());
+	}
+
+	public Mode getMode()
+	{
+		return mode;
+	}
+
+	/**
+	 * Sort key of an item, lower keys come first. Items without a goal sort last by progress.
+	 */
+	private double key(TrackedItem item, int position)
+	{
+		switch (mode)
+		{
+			case PROGRESS:
+				Integer goal = item.getGoalAmount();
+				return goal != null && goal > 0 ? (double) item.getCurrentAmount() / goal : Double.MAX_VALUE;
+			case VALUE:
+				return -(double) item.getTotalGePrice();
+			case MISSING:
+				return -(double) MissingItems.getMissing(item);
+			case MANUAL:
+				return position;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Bring the order up to date with the category's items.
+	 *
+	 * @param categoryItems The items in the order they were added
+	 * @return true if the order changed
+	 */
+	public boolean update(List<TrackedItem> categoryItems)
+	{
+		generation++;
+		boolean changed = false;
+
+		for (int i = 0; i < categoryItems.size(); i++)
+		{
+			TrackedItem item = categoryItems.get(i);
+			double key = key(item, i);
+			Entry entry = entriesByItem.get(item);
+			if (entry == null)
+			{
+				entry = new Entry(item);
+				entry.key = key;
+				entriesByItem.put(item, entry);
+				insert(entry);
+				changed = true;
+			}
+			else if (entry.key != key)
+			{
+				entries.remove(Collections.binarySearch(entries, entry, comparator));
+				entry.key = key;
+				insert(entry);
+				changed = true;
+			}
+			entry.generation = generation;
+		}
+
+		if (entries.size() > categoryItems.size())
+		{
+			entries.removeIf(entry -> entry.generation != generation && entriesByItem.remove(entry.item) != null);
+			changed = true;
+		}
+
+		if (changed)
+		{
+			List<TrackedItem> ordered = new ArrayList<>(entries.size());
+			for (Entry entry : entries)
+			{
+				ordered.add(entry.item);
+			}
+			items = ordered;
+		}
+		return changed;
+	}
+
+	private void insert(Entry entry)
+	{
+		int index = Collections.binarySearch(entries, entry, comparator);
+		entries.add(index < 0 ? -index - 1 : index, entry);
+	}
+
+	/**
+	 * @return The items in display order, as of the last update
+	 */
+	public List<TrackedItem> getItems()
+	{
+		return items;
+	}
+}
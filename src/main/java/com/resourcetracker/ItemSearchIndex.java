@@ -0,0 +1,347 @@
+package com.resourcetracker;
+
+import net.runelite.http.api.item.ItemPrice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Precomputed, typo-tolerant index over item names.
+ * Names are lowercased and tokenized once, so a search only has to score entries.
+ * Fuzzy matching uses Myers' bit-parallel edit distance, which scores a query token
+ * against a whole name in a single pass regardless of how many typos are allowed.
+ */
+public class ItemSearchIndex
+{
+	// Match tiers, best first. The first three keep the old exact > prefix > contains ordering.
+	private static final int TIER_EXACT = 0;
+	private static final int TIER_PREFIX = 1;
+	private static final int TIER_CONTAINS = 2;
+	private static final int TIER_TOKEN_PREFIX = 3;
+	private static final int TIER_FUZZY = 4;
+
+	// Myers' algorithm keeps one column of the DP matrix in a single long
+	private static final int MAX_PATTERN_LENGTH = 64;
+
+	/**
+	 * A single search hit.
+	 */
+	public static class Match
+	{
+		private final Entry entry;
+		private final int tier;
+		private final int distance;
+
+		private Match(Entry entry, int tier, int distance)
+		{
+			this.entry = entry;
+			this.tier = tier;
+			this.distance = distance;
+		}
+
+		public int getId()
+		{
+			return entry.id;
+		}
+
+		public String getName()
+		{
+			return entry.name;
+		}
+	}
+
+	private static class Entry
+	{
+		private final int id;
+		private final String name;
+		private final String lowerName;
+		private final String[] tokens;
+
+		private Entry(int id, String name)
+		{
+			this.id = id;
+			this.name = name;
+			this.lowerName = name.toLowerCase();
+			this.tokens = tokenize(lowerName);
+		}
+	}
+
+	/**
+	 * A query token with its precomputed bit masks.
+	 */
+	private static class Pattern
+	{
+		private final String text;
+		private final int maxDistance;
+		private final long[] asciiMasks = new long[128];
+
+		private Pattern(String token)
+		{
+			text = token.length() > MAX_PATTERN_LENGTH ? token.substring(0, MAX_PATTERN_LENGTH) : token;
+			maxDistance = maxDistanceFor(text.length());
+			for (int i = 0; i < text.length(); i++)
+			{
+				char c = text.charAt(i);
+				if (c < 128)
+				{
+					asciiMasks[c] |= 1L << i;
+				}
+			}
+		}
+
+		private long mask(char c)
+		{
+			if (c < 128)
+			{
+				return asciiMasks[c];
+			}
+
+			long mask = 0;
+			for (int i = 0; i < text.length(); i++)
+			{
+				if (text.charAt(i) == c)
+				{
+					mask |= 1L << i;
+				}
+			}
+			return mask;
+		}
+	}
+
+	private static final Comparator<Match> RANKING = Comparator.<Match>comparingInt(m -> m.tier)
+			.thenComparingInt(m -> m.distance)
+			.thenComparingInt(m -> m.entry.name.length());
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	/**
+	 * Builds an index from the item price table, skipping placeholder and null names.
+	 *
+	 * @param prices The items to index
+	 * @return The populated index
+	 */
+	public static ItemSearchIndex build(Collection<ItemPrice> prices)
+	{
+		ItemSearchIndex index = new ItemSearchIndex();
+		for (ItemPrice price : prices)
+		{
+			index.add(price.getId(), price.getName());
+		}
+		return index;
+	}
+
+	/**
+	 * Adds an item to the index.
+	 *
+	 * @param id   The item ID
+	 * @param name The item name
+	 */
+	public void add(int id, String name)
+	{
+		if (name == null)
+		{
+			return;
+		}
+
+		String lowerName = name.toLowerCase();
+		// Filter out placeholder, noted, and other variants
+		if (lowerName.contains("->") || lowerName.equals("null"))
+		{
+			return;
+		}
+
+		entries.add(new Entry(id, name));
+	}
+
+	public int size()
+	{
+		return entries.size();
+	}
+
+	public boolean isEmpty()
+	{
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Searches the index, ranking exact > prefix > contains > token prefix > fuzzy.
+	 * Within a tier, fewer typos rank higher, then shorter names.
+	 *
+	 * @param query The raw search text
+	 * @param limit Maximum number of results to return
+	 * @return Matches in ranked order
+	 */
+	public List<Match> search(String query, int limit)
+	{
+		String lowerQuery = query.toLowerCase().trim();
+		String[] queryTokens = tokenize(lowerQuery);
+		if (queryTokens.length == 0)
+		{
+			return new ArrayList<>();
+		}
+
+		Pattern[] patterns = new Pattern[queryTokens.length];
+		for (int i = 0; i < queryTokens.length; i++)
+		{
+			patterns[i] = new Pattern(queryTokens[i]);
+		}
+
+		List<Match> matches = new ArrayList<>();
+		for (Entry entry : entries)
+		{
+			Match match = score(entry, lowerQuery, queryTokens, patterns);
+			if (match != null)
+			{
+				matches.add(match);
+			}
+		}
+
+		matches.sort(RANKING);
+		return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+	}
+
+	private static Match score(Entry entry, String lowerQuery, String[] queryTokens, Pattern[] patterns)
+	{
+		if (entry.lowerName.equals(lowerQuery))
+		{
+			return new Match(entry, TIER_EXACT, 0);
+		}
+		if (entry.lowerName.startsWith(lowerQuery))
+		{
+			return new Match(entry, TIER_PREFIX, 0);
+		}
+		if (entry.lowerName.contains(lowerQuery))
+		{
+			return new Match(entry, TIER_CONTAINS, 0);
+		}
+
+		// Every query token has to hit some name token, either as a prefix or within the typo budget
+		int totalDistance = 0;
+		for (int i = 0; i < queryTokens.length; i++)
+		{
+			if (hasTokenPrefix(entry.tokens, queryTokens[i]))
+			{
+				continue;
+			}
+
+			Pattern pattern = patterns[i];
+			if (pattern.maxDistance == 0)
+			{
+				return null;
+			}
+
+			int distance = substringDistance(pattern, entry.lowerName);
+			if (distance > pattern.maxDistance)
+			{
+				return null;
+			}
+			totalDistance += distance;
+		}
+
+		return new Match(entry, totalDistance == 0 ? TIER_TOKEN_PREFIX : TIER_FUZZY, totalDistance);
+	}
+
+	private static boolean hasTokenPrefix(String[] tokens, String queryToken)
+	{
+		for (String token : tokens)
+		{
+			if (token.startsWith(queryToken))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Typo budget for a query token. Very short tokens must match exactly,
+	 * otherwise every two letter query would match half the item table.
+	 */
+	private static int maxDistanceFor(int length)
+	{
+		if (length <= 2)
+		{
+			return 0;
+		}
+		if (length <= 5)
+		{
+			return 1;
+		}
+		return 2;
+	}
+
+	/**
+	 * Smallest edit distance between the pattern and any substring of the text,
+	 * using Myers' bit-parallel algorithm (one DP column per machine word).
+	 *
+	 * @param pattern The precomputed query token
+	 * @param text    The lowercased item name
+	 * @return The best distance found
+	 */
+	private static int substringDistance(Pattern pattern, String text)
+	{
+		int m = pattern.text.length();
+		long highBit = 1L << (m - 1);
+		long pv = -1L;
+		long mv = 0L;
+		int score = m;
+		int best = m;
+
+		for (int j = 0; j < text.length(); j++)
+		{
+			long eq = pattern.mask(text.charAt(j));
+			long xv = eq | mv;
+			long xh = (((eq & pv) + pv) ^ pv) | eq;
+			long ph = mv | ~(xh | pv);
+			long mh = pv & xh;
+
+			if ((ph & highBit) != 0)
+			{
+				score++;
+			}
+			else if ((mh & highBit) != 0)
+			{
+				score--;
+			}
+
+			// The match may start anywhere in the text, so no carry into the first row
+			ph <<= 1;
+			mh <<= 1;
+			pv = mh | ~(xv | ph);
+			mv = ph & xv;
+
+			if (score < best)
+			{
+				best = score;
+				if (best == 0)
+				{
+					break;
+				}
+			}
+		}
+
+		return best;
+	}
+
+	private static String[] tokenize(String lowerText)
+	{
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= lowerText.length(); i++)
+		{
+			boolean wordChar = i < lowerText.length() && Character.isLetterOrDigit(lowerText.charAt(i));
+			if (wordChar && start < 0)
+			{
+				start = i;
+			}
+			else if (!wordChar && start >= 0)
+			{
+				tokens.add(lowerText.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens.toArray(new String[0]);
+	}
+}
@@ -0,0 +1,185 @@
+package com.resourcetracker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The items of a category furthest from their goals, the top of its shopping list.
+ * Kept in a bounded heap as amounts change, so the top entries are ready to show.
+ * When an entry leaves a full heap an item outside it may belong in, so the heap
+ * is refilled from the category's items the next time it is read. The panel reads
+ * it while the client thread updates it, so access is synchronized.
+ */
+public class MissingItems
+{
+	public static final int SIZE = 5;
+
+	/**
+	 * What puts an item higher on the shopping list.
+	 */
+	public enum Ranking
+	{
+		VALUE("Missing value"),
+		COUNT("Missing amount");
+
+		private final String name;
+
+		Ranking(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+
+	// Rank at the time the item was added, the item itself changes after it is removed
+	private static final class Entry
+	{
+		private final TrackedItem item;
+		private final long rank;
+
+		private Entry(TrackedItem item, long rank)
+		{
+			this.item = item;
+			this.rank = rank;
+		}
+	}
+
+	// Weakest entry first, so it's the one evicted
+	private static final Comparator<Entry> WEAKEST_FIRST = Comparator.<Entry>comparingLong(e -> e.rank)
+		.thenComparingInt(e -> -e.item.getItemId());
+
+	private final Ranking ranking;
+	private final PriorityQueue<Entry> heap = new PriorityQueue<>(SIZE + 1, WEAKEST_FIRST);
+
+	// Items with something missing, in the heap or not
+	private int missingCount;
+	private boolean stale;
+
+	public MissingItems(Ranking ranking)
+	{
+		this.ranking = ranking;
+	}
+
+	/**
+	 * @return How many of the item are still needed for its goal, 0 without a goal
+	 */
+	public static long getMissing(TrackedItem item)
+	{
+		Integer goal = item.getGoalAmount();
+		return goal != null ? Math.max(0, (long) goal - item.getCurrentAmount()) : 0;
+	}
+
+	/**
+	 * @return The item's place on the shopping list, higher ranks first
+	 */
+	public static long getRank(TrackedItem item, Ranking ranking)
+	{
+		long missing = getMissing(item);
+		return ranking == Ranking.VALUE ? missing * item.getGePrice() : missing;
+	}
+
+	synchronized void add(TrackedItem item)
+	{
+		if (getMissing(item) == 0)
+		{
+			return;
+		}
+
+		missingCount++;
+		offer(new Entry(item, getRank(item, ranking)));
+	}
+
+	private void offer(Entry entry)
+	{
+		if (heap.size() < SIZE)
+		{
+			heap.add(entry);
+		}
+		else if (WEAKEST_FIRST.compare(entry, heap.peek()) > 0)
+		{
+			heap.poll();
+			heap.add(entry);
+		}
+	}
+
+	synchronized void remove(TrackedItem item)
+	{
+		if (getMissing(item) == 0)
+		{
+			return;
+		}
+
+		missingCount--;
+		if (heap.removeIf(entry -> entry.item == item) && missingCount > heap.size())
+		{
+			stale = true;
+		}
+	}
+
+	/**
+	 * @return Number of items in the category with something missing
+	 */
+	public synchronized int getMissingCount()
+	{
+		return missingCount;
+	}
+
+	/**
+	 * Get the highest ranked missing items.
+	 *
+	 * @param categoryItems The category's items, only read if the heap has to be refilled
+	 * @return Up to {@link #SIZE} items, highest rank first
+	 */
+	public synchronized List<TrackedItem> getTop(Collection<TrackedItem> categoryItems)
+	{
+		if (stale)
+		{
+			stale = false;
+			heap.clear();
+			for (TrackedItem item : categoryItems)
+			{
+				if (getMissing(item) > 0)
+				{
+					offer(new Entry(item, getRank(item, ranking)));
+				}
+			}
+		}
+
+		List<Entry> entries = new ArrayList<>(heap);
+		entries.sort(WEAKEST_FIRST.reversed());
+		List<TrackedItem> top = new ArrayList<>(entries.size());
+		for (Entry entry : entries)
+		{
+			top.add(entry.item);
+		}
+		return top;
+	}
+
+	/**
+	 * Rank every missing item, e.g. for an export of the whole list.
+	 *
+	 * @return The items with something missing, highest rank first
+	 */
+	public static List<TrackedItem> rankAll(Collection<TrackedItem> items, Ranking ranking)
+	{
+		List<TrackedItem> missing = new ArrayList<>();
+		for (TrackedItem item : items)
+		{
+			if (getMissing(item) > 0)
+			{
+				missing.add(item);
+			}
+		}
+		missing.sort(Comparator.comparingLong((TrackedItem item) -> -getRank(item, ranking))
+			.thenComparingInt(TrackedItem::getItemId));
+		return missing;
+	}
+}
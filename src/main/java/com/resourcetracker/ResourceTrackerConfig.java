@@ -4,6 +4,8 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 @ConfigGroup("resourcetracker")
 public interface ResourceTrackerConfig extends Config
@@ -37,6 +39,17 @@ public interface ResourceTrackerConfig extends Config
 		return true;
 	}
 
+	@ConfigItem(
+		keyName = "trackEquipment",
+		name = "Track Equipment",
+		description = "Track the items you are wearing",
+		section = containersSection
+	)
+	default boolean trackEquipment()
+	{
+		return true;
+	}
+
 	@ConfigItem(
 		keyName = "trackSeedVault",
 		name = "Track Seed Vault",
@@ -141,4 +154,128 @@ public interface ResourceTrackerConfig extends Config
 	{
 		return true;
 	}
+
+	@ConfigItem(
+		keyName = "showGoalEstimates",
+		name = "Show Goal Estimates",
+		description = "Estimate when goals will be reached from recent gains, in item tooltips and category headers",
+		section = displaySection
+	)
+	default boolean showGoalEstimates()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "showSessionGains",
+		name = "Show Session Gains",
+		description = "Show how much of each item was gained or spent since login, in item tooltips and category headers",
+		section = displaySection
+	)
+	default boolean showSessionGains()
+	{
+		return true;
+	}
+
+	@ConfigItem(
+		keyName = "showAllAccounts",
+		name = "Show All Accounts",
+		description = "Count items on every account that saved its containers on this computer, not just the one logged in",
+		section = displaySection
+	)
+	default boolean showAllAccounts()
+	{
+		return false;
+	}
+
+	@Range(max = 365)
+	@Units(" days")
+	@ConfigItem(
+		keyName = "staleContainerDays",
+		name = "Stale Container Days",
+		description = "Dim categories with items in a container that hasn't been opened for this many days. 0 never dims",
+		section = displaySection
+	)
+	default int staleContainerDays()
+	{
+		return 7;
+	}
+
+	@ConfigItem(
+		keyName = "missingItemsRanking",
+		name = "Rank Missing Items By",
+		description = "Order of the missing items in category tooltips and copied shopping lists",
+		section = displaySection
+	)
+	default MissingItems.Ranking missingItemsRanking()
+	{
+		return MissingItems.Ranking.VALUE;
+	}
+
+	@ConfigItem(
+		keyName = "itemSortMode",
+		name = "Sort Items By",
+		description = "Order of the items within each category",
+		section = displaySection
+	)
+	default ItemOrder.Mode itemSortMode()
+	{
+		return ItemOrder.Mode.MANUAL;
+	}
+
+	@ConfigSection(
+		name = "Debugging",
+		description = "Performance tuning and tools for diagnosing performance problems",
+		position = 2,
+		closedByDefault = true
+	)
+	String debugSection = "debug";
+
+	@Range(max = 1000)
+	@Units(Units.MILLISECONDS)
+	@ConfigItem(
+		keyName = "panelRefreshInterval",
+		name = "Panel Refresh Interval",
+		description = "Minimum time between panel refreshes. Changes made in between are merged into a single refresh",
+		section = debugSection
+	)
+	default int panelRefreshInterval()
+	{
+		return 100;
+	}
+
+	@Range(max = 10000)
+	@Units("\u00B5s")
+	@ConfigItem(
+		keyName = "frameBudget",
+		name = "Frame Budget",
+		description = "Average client-thread time per frame the plugin may use before it delays container updates, potion rebuilds and hidden panel refreshes. 0 never delays",
+		section = debugSection
+	)
+	default int frameBudget()
+	{
+		return 500;
+	}
+
+	@ConfigItem(
+		keyName = "recordEvents",
+		name = "Record Events",
+		description = "Record container, varbit and bank events to .runelite/resource-tracker/recordings so lag can be reproduced offline",
+		section = debugSection
+	)
+	default boolean recordEvents()
+	{
+		return false;
+	}
+
+	@ConfigItem(
+		keyName = "timeHandlers",
+		name = "Time Event Handlers",
+		description = "Measure how long the plugin's event handlers take on the client thread and show it at the bottom of the panel",
+		section = debugSection
+	)
+	default boolean timeHandlers()
+	{
+		return false;
+	}
 }
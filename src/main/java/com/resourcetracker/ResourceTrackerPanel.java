@@ -1,11 +1,11 @@
 package com.resourcetracker;
 
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemComposition;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.PluginPanel;
 import net.runelite.client.ui.components.IconTextField;
-import net.runelite.client.util.AsyncBufferedImage;
 import net.runelite.client.util.SwingUtil;
 import net.runelite.client.game.chatbox.ChatboxPanelManager;
 import javax.swing.*;
@@ -23,40 +23,22 @@ import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.StringSelection;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class ResourceTrackerPanel extends PluginPanel implements Scrollable
 {
-    private static class ItemDefinition
-    {
-        private final int id;
-        private final String name;
-
-        ItemDefinition(int id, String name)
-        {
-            this.id = id;
-            this.name = name;
-        }
-
-        public int getId()
-        {
-            return id;
-        }
-
-        public String getName()
-        {
-            return name;
-        }
-    }
     // handles amount input like "100k", "2M"
     static class QuantityDocumentFilter extends DocumentFilter {
         private final Pattern pattern = Pattern.compile("\\d*[kKmMbB]?");
@@ -99,13 +81,27 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
     private final JPanel contentWrapper;
     private final JScrollPane searchScrollPane;
     private final JScrollPane itemScrollPane;
+    private final JPanel itemsView;
+    private final IconTextField filterField;
+    private final JComboBox<String> filterState;
     private final IconTextField searchBar;
     private final JTextField categoryNameField;
-    private final List<TrackedItem> trackedItems = new CopyOnWriteArrayList<>();
     private final List<CategoryBox> categoryBoxes = new ArrayList<>();
+
+    // Index for the filter box, dropped whenever the items change
+    private ItemFilter itemFilter;
+    // Whether each category was expanded before filtering, null while not filtering
+    private Map<String, Boolean> expandedBeforeFilter;
     private String selectedCategory = null;
     private static final int MAX_SEARCH_RESULTS = 50;
     private Timer searchDebounceTimer;
+    private ItemSearchIndex searchIndex;
+    private final List<SearchResultRow> searchResultRows = new ArrayList<>();
+    private final List<Component> searchResultSpacers = new ArrayList<>();
+    private final JLabel searchMessageLabel = new JLabel();
+    private int visibleSearchRows = 0;
+    private final HandlerTimingPanel timingPanel;
+    private final JLabel degradedLabel = new JLabel("Updates delayed to reduce lag");
 
 
     public ResourceTrackerPanel(ResourceTrackerPlugin plugin, ItemManager itemManager, ChatboxPanelManager chatboxPanelManager)
@@ -129,6 +125,13 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
         ));
         add(searchAreaPanel, BorderLayout.NORTH);
 
+        // Shown while the plugin is over its frame budget
+        degradedLabel.setForeground(ColorScheme.PROGRESS_INPROGRESS_COLOR);
+        degradedLabel.setToolTipText("The plugin is using more than its frame budget, so container updates are batched and the panel only refreshes while open");
+        degradedLabel.setBorder(new EmptyBorder(0, 0, 5, 0));
+        degradedLabel.setVisible(false);
+        searchAreaPanel.add(degradedLabel);
+
         // Category name input field
         categoryNameField = new JTextField();
         categoryNameField.setPreferredSize(new Dimension(0, 30));
@@ -271,11 +274,59 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
         itemScrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         itemScrollPane.setBorder(null);
 
+        // Filter over the tracked items, stays above the list while it scrolls
+        filterField = new IconTextField();
+        filterField.setIcon(IconTextField.Icon.SEARCH);
+        filterField.setPreferredSize(new Dimension(0, 26));
+        filterField.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        filterField.setHoverBackgroundColor(ColorScheme.DARK_GRAY_HOVER_COLOR);
+        filterField.setToolTipText("Filter tracked items by name");
+        filterField.getDocument().addDocumentListener(new DocumentListener()
+        {
+            @Override
+            public void insertUpdate(DocumentEvent e)
+            {
+                applyFilter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e)
+            {
+                applyFilter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e)
+            {
+                applyFilter();
+            }
+        });
+        filterField.addClearListener(this::applyFilter);
+
+        filterState = new JComboBox<>(ItemFilter.getStates().toArray(new String[0]));
+        filterState.setToolTipText("Only show tracked items in this state");
+        filterState.addActionListener(e -> applyFilter());
+
+        JPanel filterRow = new JPanel(new BorderLayout(0, 3));
+        filterRow.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        filterRow.setBorder(new EmptyBorder(5, 0, 5, 0));
+        filterRow.add(filterField, BorderLayout.NORTH);
+        filterRow.add(filterState, BorderLayout.SOUTH);
+
+        itemsView = new JPanel(new BorderLayout());
+        itemsView.setBackground(ColorScheme.DARK_GRAY_COLOR);
+        itemsView.add(filterRow, BorderLayout.NORTH);
+        itemsView.add(itemScrollPane, BorderLayout.CENTER);
+
+        contentWrapper.add(itemsView, BorderLayout.CENTER);
 
-        contentWrapper.add(itemScrollPane, BorderLayout.CENTER);
+        // Handler timings, only shown when enabled in the debug settings
+        timingPanel = new HandlerTimingPanel(plugin.getHandlerTimings());
+        add(timingPanel, BorderLayout.SOUTH);
 
-        // Add keybinding for focusing the search bar
-        KeyStroke ctrlF = KeyStroke.getKeyStroke(KeyEvent.VK_F, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx());
+        // Add keybinding for focusing the search bar (no toolkit to ask for the shortcut key when headless)
+        int shortcutMask = GraphicsEnvironment.isHeadless() ? InputEvent.CTRL_DOWN_MASK : Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        KeyStroke ctrlF = KeyStroke.getKeyStroke(KeyEvent.VK_F, shortcutMask);
         getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(ctrlF, "focusSearch");
         getActionMap().put("focusSearch", new AbstractAction()
         {
@@ -333,18 +384,10 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
         return new ArrayList<>(plugin.getTrackedItems().values());
     }
 
-    public void loadItems(java.util.Collection<TrackedItem> items)
-    {
-        trackedItems.clear();
-        trackedItems.addAll(items);
-        rebuildTrackedItems();
-    }
-
     public void resetPanel()
     {
         SwingUtilities.invokeLater(() -> {
-            trackedItems.clear();
-            selectedCategory = null;
+            changeSelectedCategory(null);
             searchBar.setEnabled(false); // No category selected, so disable search
             searchBar.setEditable(false); // Prevent typing when disabled
             searchBar.setToolTipText("Select a category to add items");
@@ -352,19 +395,49 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
             categoryNameField.setText("Add category...");
             categoryNameField.setForeground(Color.GRAY);
 
-            rebuildTrackedItems();
+            plugin.requestRefresh();
+        });
+    }
+
+    @Override
+    public void onActivate()
+    {
+        plugin.onPanelActivated();
+    }
+
+    /**
+     * Show or hide the notice that updates are delayed because the plugin is over its frame budget.
+     */
+    public void setDegradedMode(boolean degraded)
+    {
+        SwingUtilities.invokeLater(() ->
+        {
+            degradedLabel.setVisible(degraded);
+            revalidate();
+        });
+    }
+
+    /**
+     * Show or hide the handler timing section.
+     */
+    public void setTimingsShown(boolean shown)
+    {
+        SwingUtilities.invokeLater(() ->
+        {
+            timingPanel.setShown(shown);
+            revalidate();
         });
     }
 
     public void rebuild()
     {
-        loadItems(plugin.getTrackedItems().values());
+        plugin.requestRefresh();
     }
 
     public void setSelectedCategory(String category)
     {
         // Mark the selected category (for adding items), don't collapse others
-        selectedCategory = category;
+        changeSelectedCategory(category);
 
         if (category == null)
         {
@@ -381,7 +454,7 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
 
             // Show tracked items view (not search results)
             contentWrapper.removeAll();
-            contentWrapper.add(itemScrollPane, BorderLayout.CENTER);
+            contentWrapper.add(itemsView, BorderLayout.CENTER);
             contentWrapper.revalidate();
             contentWrapper.repaint();
         }
@@ -407,40 +480,31 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
                 .filter(item -> item.getCategory().equals(categoryName))
                 .collect(Collectors.toList());
 
-        itemsToRemove.forEach(item -> plugin.removeTrackedItem(item.getItemId(), item.getCategory()));
+        // One save and one aggregation pass for the whole category
+        plugin.batch(() ->
+        {
+            itemsToRemove.forEach(item -> plugin.removeTrackedItem(item.getItemId(), item.getCategory()));
 
-        // Remove from category order
-        plugin.removeCategory(categoryName);
+            // Remove from category order
+            plugin.removeCategory(categoryName);
+        });
 
         // Clear selected category if it's the one being deleted
         if (categoryName.equals(selectedCategory))
         {
-            selectedCategory = null;
+            changeSelectedCategory(null);
             searchBar.setEnabled(false); // No category selected after deletion
             searchBar.setEditable(false); // Prevent typing when disabled
             searchBar.setToolTipText("Select a category to add items");
         }
 
-		rebuildTrackedItems();
+		plugin.requestRefresh();
 	}
 
 	public void resetCategoryCounts(String categoryName)
 	{
-		// Get all items in this category and reset their counts
-		plugin.getTrackedItems().values().stream()
-			.filter(item -> item.getCategory().equals(categoryName))
-			.forEach(item -> {
-				// Reset current amount to 0
-				item.setCurrentAmount(0);
-				// Clear all container quantities
-				item.getContainerQuantities().clear();
-			});
-
-		// Save the changes
-		plugin.saveData();
-
-		// Rebuild UI to show the reset counts
-		rebuildTrackedItems();
+		// Reset counts, save and refresh the category
+		plugin.batch(() -> plugin.resetCategoryCounts(categoryName));
 
 		plugin.sendChatMessage("All item counts reset for category '" + categoryName + "'.");
 	}
@@ -466,22 +530,25 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
             return;
         }
 
-        // Update all items in the category to use the new name
-        plugin.getTrackedItems().values().stream()
-                .filter(item -> item.getCategory().equals(oldName))
-                .forEach(item -> item.setCategory(trimmedNewName));
+        plugin.batch(() ->
+        {
+            // Update all items in the category to use the new name
+            plugin.getTrackedItems().values().stream()
+                    .filter(item -> item.getCategory().equals(oldName))
+                    .forEach(item -> item.setCategory(trimmedNewName));
 
-        // Update the category order tracking
-        plugin.renameCategory(oldName, trimmedNewName);
+            // Update the category order tracking
+            plugin.renameCategory(oldName, trimmedNewName);
+        });
 
         // Update selected category if it was the renamed one
         if (oldName.equals(selectedCategory))
         {
-            selectedCategory = trimmedNewName;
+            changeSelectedCategory(trimmedNewName);
             searchBar.setToolTipText("Search items to add to " + trimmedNewName);
         }
 
-        rebuildTrackedItems();
+        plugin.requestRefresh();
         plugin.sendChatMessage("Category renamed to '" + trimmedNewName + "'.");
     }
 
@@ -496,23 +563,44 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
             return;
         }
 
-        // Create a new list of items with amounts reset to 0 for export
-        List<TrackedItem> itemsForExport = new ArrayList<>();
-        for (TrackedItem originalItem : categoryItems)
+        // Only IDs, goals and flags are shared, amounts are based on the importer's containers
+        final StringSelection stringSelection = new StringSelection(ShareCodec.encode(categoryItems));
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(stringSelection, null);
+    }
+
+    /**
+     * Copy the items still missing for the category's goals as a plain text list.
+     */
+    public void copyShoppingList(String categoryName)
+    {
+        List<TrackedItem> categoryItems = plugin.getTrackedItems().values().stream()
+                .filter(item -> item.getCategory().equals(categoryName))
+                .collect(Collectors.toList());
+        List<TrackedItem> missing = MissingItems.rankAll(categoryItems, plugin.getConfig().missingItemsRanking());
+
+        if (missing.isEmpty())
+        {
+            plugin.sendChatMessage("Every goal in '" + categoryName + "' is reached.");
+            return;
+        }
+
+        StringBuilder list = new StringBuilder(categoryName).append(" shopping list\n");
+        long totalCost = 0;
+        for (TrackedItem item : missing)
         {
-            TrackedItem exportItem = new TrackedItem(
-                originalItem.getItemId(),
-                originalItem.getItemName(),
-                originalItem.getGoalAmount(),
-                originalItem.getCategory()
-            );
-            // The constructor already sets currentAmount to 0, but this is explicit
-            exportItem.setCurrentAmount(0);
-            itemsForExport.add(exportItem);
+            long amount = MissingItems.getMissing(item);
+            long cost = amount * item.getGePrice();
+            totalCost += cost;
+            list.append(item.getItemName()).append(" x ").append(amount);
+            if (cost > 0)
+            {
+                list.append(" (").append(QuantityFormatter.formatNumber(cost)).append(" gp)");
+            }
+            list.append('\n');
         }
+        list.append("Total: ").append(QuantityFormatter.formatNumber(totalCost)).append(" gp");
 
-        String json = plugin.getGson().toJson(itemsForExport);
-        final StringSelection stringSelection = new StringSelection(json);
+        final StringSelection stringSelection = new StringSelection(list.toString());
         Toolkit.getDefaultToolkit().getSystemClipboard().setContents(stringSelection, null);
     }
 
@@ -539,6 +627,13 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
             return;
         }
 
+        if (ShareCodec.isShareString(clipboardText))
+        {
+            importShareString(clipboardText, targetCategory);
+            return;
+        }
+
+        // Categories exported by older versions are a JSON list of items
         List<TrackedItem> importItems;
         try
         {
@@ -569,23 +664,99 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
                 .build();
     }
 
+    private void importShareString(String shareString, String targetCategory)
+    {
+        final ShareCodec.Reader reader;
+        try
+        {
+            reader = ShareCodec.read(shareString);
+        }
+        catch (IllegalArgumentException e)
+        {
+            plugin.sendChatMessage("You do not have any valid categories copied in your clipboard.");
+            return;
+        }
+
+        if (reader.getCount() == 0)
+        {
+            plugin.sendChatMessage("You do not have any valid categories copied in your clipboard.");
+            return;
+        }
+
+        plugin.getClientUi().requestFocus();
+
+        chatboxPanelManager.openTextMenuInput("Are you sure you want to import " + reader.getCount() + " items into '" + targetCategory + "'?")
+                .option("Yes", () -> importSharedCategory(reader, targetCategory))
+                .option("No", () -> {})
+                .build();
+    }
+
+    /**
+     * Import the items of a share string. Names and prices aren't part of the
+     * share string, so items are decoded on the client thread where they can be
+     * looked up and collected into a list. The list is added in one batch on the
+     * EDT, like every other change to the tracked items, and a damaged string
+     * imports nothing rather than the items before the damage.
+     */
+    public void importSharedCategory(ShareCodec.Reader reader, String targetCategory)
+    {
+        plugin.getClientThread().invoke(() ->
+        {
+            List<TrackedItem> importItems = new ArrayList<>(reader.getCount());
+            try
+            {
+                reader.forEach((itemId, goal, inventoryOnly) ->
+                {
+                    ItemComposition composition = itemManager.getItemComposition(itemId);
+                    String name = composition.getName();
+                    if (name == null || name.equals("null"))
+                    {
+                        // Not an item in this cache, e.g. removed since the share string was made
+                        return;
+                    }
+
+                    TrackedItem item = new TrackedItem(itemId, name, goal, targetCategory);
+                    item.setInventoryOnly(inventoryOnly);
+                    item.setGePrice(itemManager.getItemPrice(itemId));
+                    item.setHaPrice(composition.getHaPrice());
+                    importItems.add(item);
+                });
+            }
+            catch (IllegalArgumentException e)
+            {
+                log.debug("Share string is corrupt after {} items", importItems.size(), e);
+                plugin.sendChatMessage("The copied category is damaged, nothing was imported.");
+                return;
+            }
+
+            SwingUtilities.invokeLater(() ->
+            {
+                importCategory(importItems, targetCategory);
+                plugin.sendChatMessage(importItems.size() + " items were imported to " + targetCategory + ".");
+            });
+        });
+    }
+
     public void importCategory(List<TrackedItem> importedItems, String targetCategory)
     {
-        // Update category and add to list
-        for (TrackedItem importedItem : importedItems)
+        // Update category and add to list, saving and aggregating once at the end
+        plugin.batch(() ->
         {
-            if (importedItem != null && importedItem.getItemId() > 0 && importedItem.getItemName() != null)
+            for (TrackedItem importedItem : importedItems)
             {
-                importedItem.setCategory(targetCategory);
-                // Reset current amount, as it's based on container state
-                importedItem.setCurrentAmount(0);
-                // Remove existing item if present before adding the new one
-                plugin.removeTrackedItem(importedItem.getItemId(), targetCategory);
-                plugin.addTrackedItem(importedItem);
+                if (importedItem != null && importedItem.getItemId() > 0 && importedItem.getItemName() != null)
+                {
+                    importedItem.setCategory(targetCategory);
+                    // Reset current amount, as it's based on container state
+                    importedItem.setCurrentAmount(0);
+                    // Remove existing item if present before adding the new one
+                    plugin.removeTrackedItem(importedItem.getItemId(), targetCategory);
+                    plugin.addTrackedItem(importedItem);
+                }
             }
-        }
+        });
 
-        rebuildTrackedItems();
+        plugin.requestRefresh(targetCategory);
     }
 
     private void createNewCategory(String categoryName)
@@ -610,13 +781,13 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
         plugin.registerCategory(trimmedCategoryName);
 
         // Set as selected and focus search
-        selectedCategory = trimmedCategoryName;
+        changeSelectedCategory(trimmedCategoryName);
         searchBar.setEnabled(true);
         searchBar.setEditable(true); // Allow typing when enabled
         searchBar.requestFocusInWindow();
 
         // Force rebuild to show the empty category
-        rebuildTrackedItems();
+        plugin.requestRefresh();
     }
 
     private void scheduleSearch()
@@ -643,7 +814,7 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
         {
             // Show tracked items
             contentWrapper.removeAll();
-            contentWrapper.add(itemScrollPane, BorderLayout.CENTER);
+            contentWrapper.add(itemsView, BorderLayout.CENTER);
             contentWrapper.revalidate();
             contentWrapper.repaint();
         }
@@ -660,300 +831,402 @@ public class ResourceTrackerPanel extends PluginPanel implements Scrollable
 
     private void showSearchResults(String query)
     {
-        SwingUtil.fastRemoveAll(searchResultsPanel);
+        ensureSearchResultPool();
 
         if (categoryBoxes.isEmpty())
         {
-            JLabel noCategory = new JLabel("Create a category to tracking items");
-            noCategory.setForeground(Color.LIGHT_GRAY);
-            noCategory.setBorder(new EmptyBorder(10, 10, 10, 10));
-            searchResultsPanel.add(noCategory);
-            searchResultsPanel.revalidate();
-            searchResultsPanel.repaint();
+            showSearchRows(0);
+            searchMessageLabel.setText("Create a category to tracking items");
+            searchMessageLabel.setVisible(true);
             return;
         }
 
-        String lowerQuery = query.toLowerCase();
+        // Rank against the precomputed name index so typos like "dragn bones" still match
+        List<ItemSearchIndex.Match> results = getSearchIndex().search(query, MAX_SEARCH_RESULTS);
 
-        // Use ItemManager to search for items (tradeable items only)
-        List<ItemDefinition> results = itemManager.search(query).stream()
-                .filter(itemPrice -> {
-                    String itemName = itemPrice.getName().toLowerCase();
-                    // Filter out placeholder, noted, and other variants
-                    return !itemName.contains("->") && !itemName.equals("null");
-                })
-                .map(itemPrice -> new ItemDefinition(itemPrice.getId(), itemPrice.getName()))
-                .sorted(Comparator.comparingInt((ItemDefinition item) -> {
-                    String itemName = item.getName().toLowerCase();
-                    if (itemName.equals(lowerQuery)) return 0;
-                    if (itemName.startsWith(lowerQuery)) return 1;
-                    return 2;
-                }).thenComparing(item -> item.getName().length()))
-                .limit(MAX_SEARCH_RESULTS)
-                .collect(Collectors.toList());
-
-
-        for (ItemDefinition item : results)
+        // Rebind pooled rows in place; rows showing the same item as before are left untouched
+        boolean canAdd = selectedCategory != null;
+        for (int i = 0; i < results.size(); i++)
         {
-            JPanel itemPanel = createSearchResultPanel(item);
-            searchResultsPanel.add(itemPanel);
-            searchResultsPanel.add(Box.createRigidArea(new Dimension(0, 2)));
+            ItemSearchIndex.Match match = results.get(i);
+            searchResultRows.get(i).bind(match.getId(), match.getName(), canAdd);
         }
+        showSearchRows(results.size());
 
         if (results.isEmpty())
         {
-            JLabel noResults = new JLabel("No items found");
-            noResults.setForeground(Color.LIGHT_GRAY);
-            noResults.setBorder(new EmptyBorder(10, 10, 10, 10));
-            searchResultsPanel.add(noResults);
+            searchMessageLabel.setText("No items found");
         }
-
-        // Add glue to push items to the top
-        searchResultsPanel.add(Box.createVerticalGlue());
-
-        searchResultsPanel.revalidate();
-        searchResultsPanel.repaint();
+        searchMessageLabel.setVisible(results.isEmpty());
     }
 
-    private JPanel createSearchResultPanel(ItemDefinition itemDef)
+    /**
+     * Lazily builds the fixed pool of result rows. Every row and its spacer is added
+     * to the results panel once; searches only toggle visibility and rebind them.
+     */
+    private void ensureSearchResultPool()
     {
-        JPanel panel = new JPanel(new BorderLayout(5, 0));
-        panel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-        panel.setBorder(new EmptyBorder(8, 10, 8, 10));
-        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
-        panel.setPreferredSize(new Dimension(panel.getPreferredSize().width, 50));
-
-        // Left: Icon and Name
-        JPanel leftPanel = new JPanel(new BorderLayout(5, 0));
-        leftPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-
-        JLabel iconLabel = new JLabel();
-        iconLabel.setPreferredSize(new Dimension(36, 32));
-        iconLabel.setToolTipText(itemDef.getName()); // Show full item name on hover
-        AsyncBufferedImage itemImage = itemManager.getImage(itemDef.getId());
-        if (itemImage != null)
+        if (!searchResultRows.isEmpty())
         {
-            itemImage.addTo(iconLabel);
+            return;
         }
 
-        JLabel nameLabel = new JLabel(itemDef.getName());
-        nameLabel.setForeground(Color.WHITE);
-
-        leftPanel.add(iconLabel, BorderLayout.WEST);
-        leftPanel.add(nameLabel, BorderLayout.CENTER);
+        for (int i = 0; i < MAX_SEARCH_RESULTS; i++)
+        {
+            SearchResultRow row = new SearchResultRow(itemManager, this);
+            row.setVisible(false);
+            searchResultRows.add(row);
+            searchResultsPanel.add(row);
+
+            Component spacer = Box.createRigidArea(new Dimension(0, 2));
+            spacer.setVisible(false);
+            searchResultSpacers.add(spacer);
+            searchResultsPanel.add(spacer);
+        }
 
-        panel.add(leftPanel, BorderLayout.CENTER);
+        searchMessageLabel.setForeground(Color.LIGHT_GRAY);
+        searchMessageLabel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        searchMessageLabel.setVisible(false);
+        searchResultsPanel.add(searchMessageLabel);
 
-        // Right: Goal input and + button
-        JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 3, 0));
-        rightPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        // Add glue to push items to the top
+        searchResultsPanel.add(Box.createVerticalGlue());
+    }
 
-        JTextField goalField = new JTextField(5);
-        goalField.setPreferredSize(new Dimension(60, 25));
-        goalField.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-        goalField.setForeground(Color.WHITE);
-        goalField.setCaretColor(Color.WHITE);
-        goalField.setToolTipText("Enter goal amount");
-        ((AbstractDocument) goalField.getDocument()).setDocumentFilter(new QuantityDocumentFilter());
+    /**
+     * Select the category new items are added to. Visible search rows are only rebound
+     * when the query changes, so their enabled state is brought up to date here.
+     */
+    private void changeSelectedCategory(String category)
+    {
+        selectedCategory = category;
+        for (int i = 0; i < visibleSearchRows; i++)
+        {
+            searchResultRows.get(i).setCanAdd(category != null);
+        }
+    }
 
-        JButton addButton = new JButton("+");
-        goalField.addActionListener(e -> addButton.doClick());
+    private void showSearchRows(int count)
+    {
+        if (count == visibleSearchRows)
+        {
+            return;
+        }
 
-        if (selectedCategory == null)
+        for (int i = 0; i < searchResultRows.size(); i++)
         {
-            goalField.setEnabled(false);
-            addButton.setEnabled(false);
-            goalField.setToolTipText("Select a category to add an item");
-            addButton.setToolTipText("Select a category to add an item");
+            boolean visible = i < count;
+            searchResultRows.get(i).setVisible(visible);
+            searchResultSpacers.get(i).setVisible(visible);
         }
-        else
+        visibleSearchRows = count;
+    }
+
+    private ItemSearchIndex getSearchIndex()
+    {
+        if (searchIndex == null || searchIndex.isEmpty())
         {
-            goalField.setEnabled(true);
-            addButton.setEnabled(true);
-            goalField.setToolTipText("Enter goal amount");
-            addButton.setToolTipText("Add to tracking");
+            // An empty ItemManager.search("") returns every tradeable item.
+            // Prices load asynchronously at startup, so an empty index is rebuilt on the next search.
+            searchIndex = ItemSearchIndex.build(itemManager.search(""));
         }
+        return searchIndex;
+    }
 
-        addButton.setPreferredSize(new Dimension(35, 25));
-        addButton.setMinimumSize(new Dimension(35, 25));
-        addButton.setMaximumSize(new Dimension(35, 25));
-        addButton.setToolTipText("Add to tracking");
-        addButton.addActionListener(e -> {
-            String goalText = goalField.getText().trim();
-            Integer goal = null;
+    void addItemFromSearch(int itemId, String itemName, String goalText)
+    {
+        Integer goal = null;
 
-            try
+        try
+        {
+            if (!goalText.isEmpty())
             {
-                if (!goalText.isEmpty())
+                long parsedGoal = QuantityFormatter.parseQuantity(goalText);
+                if (parsedGoal > QuantityFormatter.getMaxStackSize())
                 {
-                    long parsedGoal = QuantityFormatter.parseQuantity(goalText);
-                    if (parsedGoal > QuantityFormatter.getMaxStackSize())
-                    {
-                        parsedGoal = QuantityFormatter.getMaxStackSize();
-                    }
-
-                    if (parsedGoal > 0)
-                    {
-                        goal = (int) parsedGoal;
-                    }
+                    parsedGoal = QuantityFormatter.getMaxStackSize();
                 }
 
-                // Check if already tracked in the current category, if so, update it
-                TrackedItem existing = plugin.getTrackedItems().get(itemDef.getId() + ":" + selectedCategory);
-                if (existing != null && existing.getCategory().equals(selectedCategory))
+                if (parsedGoal > 0)
                 {
-                    existing.setGoalAmount(goal);
-                    plugin.saveData();
-                    clearSearchAndRebuild();
-                    return;
+                    goal = (int) parsedGoal;
                 }
+            }
 
-                // If not tracked, add as a new item
-			if (selectedCategory == null || selectedCategory.isEmpty())
-			{
-				return; // Should not happen
-			}
-
-			TrackedItem newItem = new TrackedItem(itemDef.getId(), itemDef.getName(), goal, selectedCategory);
-
-			// Fetch and set GE and HA prices on client thread
-			plugin.getClientThread().invoke(() -> {
-				int gePrice = itemManager.getItemPrice(itemDef.getId());
-				int haPrice = itemManager.getItemComposition(itemDef.getId()).getHaPrice();
-				newItem.setGePrice(gePrice);
-				newItem.setHaPrice(haPrice);
+            // Check if already tracked in the current category, if so, update it
+            TrackedItem existing = plugin.getTrackedItems().get(itemId + ":" + selectedCategory);
+            if (existing != null && existing.getCategory().equals(selectedCategory))
+            {
+                plugin.setItemGoal(existing, goal);
+                clearSearchAndRebuild();
+                return;
+            }
 
-				// Add the item after prices are fetched
-				SwingUtilities.invokeLater(() -> {
-					addTrackedItem(newItem);
-					clearSearchAndRebuild();
-				});
-			});
-		}
-		catch (NumberFormatException ex)
-		{
-			plugin.sendChatMessage("Please enter a valid number.");
-		}
-	});
+            // If not tracked, add as a new item
+            if (selectedCategory == null || selectedCategory.isEmpty())
+            {
+                return; // Should not happen
+            }
 
-        rightPanel.add(goalField);
-        rightPanel.add(addButton);
+            TrackedItem newItem = new TrackedItem(itemId, itemName, goal, selectedCategory);
 
-        panel.add(rightPanel, BorderLayout.EAST);
+            // Fetch and set GE and HA prices on client thread
+            plugin.getClientThread().invoke(() -> {
+                int gePrice = itemManager.getItemPrice(itemId);
+                int haPrice = itemManager.getItemComposition(itemId).getHaPrice();
+                newItem.setGePrice(gePrice);
+                newItem.setHaPrice(haPrice);
 
-        return panel;
+                // Add the item after prices are fetched
+                SwingUtilities.invokeLater(() -> {
+                    addTrackedItem(newItem);
+                    clearSearchAndRebuild();
+                });
+            });
+        }
+        catch (NumberFormatException ex)
+        {
+            plugin.sendChatMessage("Please enter a valid number.");
+        }
     }
 
     private void clearSearchAndRebuild()
     {
         searchBar.setText("");
         contentWrapper.removeAll();
-        contentWrapper.add(itemScrollPane, BorderLayout.CENTER);
+        contentWrapper.add(itemsView, BorderLayout.CENTER);
         contentWrapper.revalidate();
         contentWrapper.repaint();
-        rebuildTrackedItems();
+        if (selectedCategory != null)
+        {
+            plugin.requestRefresh(selectedCategory);
+        }
     }
 
 
-    private void rebuildTrackedItems()
+    /**
+     * Rebuilds every category box. Only called by the plugin's UI scheduler on the EDT;
+     * everything else should go through {@link ResourceTrackerPlugin#requestRefresh()}.
+     */
+    void rebuildTrackedItems()
     {
-        SwingUtilities.invokeLater(() ->
+        // Save the current expanded/collapsed state of each category before clearing
+        java.util.Map<String, Boolean> expandedStates = new java.util.HashMap<>();
+        for (CategoryBox box : categoryBoxes)
         {
-            // Save the current expanded/collapsed state of each category before clearing
-            java.util.Map<String, Boolean> expandedStates = new java.util.HashMap<>();
-            for (CategoryBox box : categoryBoxes)
+            expandedStates.put(box.getCategoryName(), !box.isCollapsed());
+        }
+
+        SwingUtil.fastRemoveAll(itemListPanel);
+        categoryBoxes.clear();
+
+        // Get items from plugin
+        List<TrackedItem> items = new ArrayList<>(plugin.getTrackedItems().values());
+
+        // Ensure all items have a category (for backward compatibility)
+        items.forEach(item -> {
+            if (item.getCategory() == null || item.getCategory().isEmpty())
             {
-                expandedStates.put(box.getCategoryName(), !box.isCollapsed());
+                item.setCategory("Default");
             }
+        });
 
-            SwingUtil.fastRemoveAll(itemListPanel);
-            categoryBoxes.clear();
+        // Group items by category
+        java.util.Map<String, List<TrackedItem>> itemsByCategory = items.stream()
+                .collect(Collectors.groupingBy(TrackedItem::getCategory));
 
-            // Get items from plugin
-            List<TrackedItem> items = new ArrayList<>(plugin.getTrackedItems().values());
+        // Use plugin's category order for consistent ordering
+        List<String> categoryNames = new ArrayList<>(plugin.getCategoryOrder());
 
-            // Ensure all items have a category (for backward compatibility)
-            items.forEach(item -> {
-                if (item.getCategory() == null || item.getCategory().isEmpty())
-                {
-                    item.setCategory("Default");
-                }
-            });
+        // Add any categories from items that aren't in the order yet (shouldn't happen but safety check)
+        for (String category : itemsByCategory.keySet())
+        {
+            if (!categoryNames.contains(category))
+            {
+                categoryNames.add(category);
+                plugin.registerCategory(category);
+            }
+        }
+
+        // Add the currently selected (potentially new and empty) category to the end
+        if (selectedCategory != null && !selectedCategory.isEmpty() && !categoryNames.contains(selectedCategory))
+        {
+            categoryNames.add(selectedCategory);
+        }
+
+        // Create all CategoryBoxes first (like LootTracker buildBox pattern)
+        ItemOrder.Mode sortMode = plugin.getConfig().itemSortMode();
+        boolean allAccounts = plugin.getConfig().showAllAccounts();
+        for (String categoryName : categoryNames)
+        {
+            List<TrackedItem> itemsForCategory = itemsByCategory.getOrDefault(categoryName, new ArrayList<>());
+            CategoryBox categoryBox = new CategoryBox(categoryName, plugin, itemManager, this, chatboxPanelManager);
+            categoryBoxes.add(categoryBox);
 
-            // Group items by category
-            java.util.Map<String, List<TrackedItem>> itemsByCategory = items.stream()
-                    .collect(Collectors.groupingBy(TrackedItem::getCategory));
+            // Build the box with its items
+            categoryBox.rebuild(itemsForCategory, sortMode, allAccounts);
 
-            // Use plugin's category order for consistent ordering
-            List<String> categoryNames = new ArrayList<>(plugin.getCategoryOrder());
+            // Add to panel
+            itemListPanel.add(categoryBox);
+        }
+
+        for (CategoryBox box : categoryBoxes)
+        {
+            boolean isThisSelected = box.getCategoryName().equals(selectedCategory);
+
+            // Set selected state for visual indicator
+            box.setSelected(isThisSelected);
 
-            // Add any categories from items that aren't in the order yet (shouldn't happen but safety check)
-            for (String category : itemsByCategory.keySet())
+            // Restore expanded/collapsed state, or expand if it's a new category and selected
+            Boolean wasExpanded = expandedStates.get(box.getCategoryName());
+            if (wasExpanded != null)
+            {
+                // Restore previous state
+                if (wasExpanded)
+                {
+                    box.expand();
+                }
+                else
+                {
+                    box.collapse();
+                }
+            }
+            else
             {
-                if (!categoryNames.contains(category))
+                // New category - expand only if selected
+                if (isThisSelected)
                 {
-                    categoryNames.add(category);
-                    plugin.registerCategory(category);
+                    box.expand();
+                }
+                else
+                {
+                    box.collapse();
                 }
             }
+        }
+
+        refilter();
+        itemListPanel.revalidate();
+    }
 
-            // Add the currently selected (potentially new and empty) category to the end
-            if (selectedCategory != null && !selectedCategory.isEmpty() && !categoryNames.contains(selectedCategory))
+    /**
+     * Refreshes only the given categories, reusing their existing boxes.
+     * Falls back to a full rebuild if a category has no box yet.
+     */
+    void refreshCategories(Set<String> categories)
+    {
+        Map<String, CategoryBox> boxesByName = new HashMap<>();
+        for (CategoryBox box : categoryBoxes)
+        {
+            boxesByName.put(box.getCategoryName(), box);
+        }
+
+        for (String category : categories)
+        {
+            if (!boxesByName.containsKey(category))
             {
-                categoryNames.add(selectedCategory);
+                rebuildTrackedItems();
+                return;
             }
+        }
 
-            // Create all CategoryBoxes first (like LootTracker buildBox pattern)
-            for (String categoryName : categoryNames)
+        Map<String, List<TrackedItem>> itemsByCategory = new HashMap<>();
+        for (TrackedItem item : plugin.getTrackedItems().values())
+        {
+            if (categories.contains(item.getCategory()))
             {
-                List<TrackedItem> itemsForCategory = itemsByCategory.getOrDefault(categoryName, new ArrayList<>());
-                CategoryBox categoryBox = new CategoryBox(categoryName, plugin, itemManager, this, chatboxPanelManager);
-                categoryBoxes.add(categoryBox);
+                itemsByCategory.computeIfAbsent(item.getCategory(), k -> new ArrayList<>()).add(item);
+            }
+        }
 
-                // Build the box with its items
-                categoryBox.rebuild(itemsForCategory);
+        ItemOrder.Mode sortMode = plugin.getConfig().itemSortMode();
+        boolean allAccounts = plugin.getConfig().showAllAccounts();
+        for (String category : categories)
+        {
+            boxesByName.get(category).rebuild(itemsByCategory.getOrDefault(category, new ArrayList<>()), sortMode, allAccounts);
+        }
+        refilter();
 
-                // Add to panel
-                itemListPanel.add(categoryBox);
-            }
+        itemListPanel.revalidate();
+        itemListPanel.repaint();
+    }
+
+    /**
+     * Narrow the category boxes to the tracked items matching the filter box. The index
+     * is only rebuilt after the items change, so a keystroke is a name match over the
+     * previous matches and a bitset intersection, and no item slots are built.
+     */
+    private void applyFilter()
+    {
+        String text = filterField.getText().trim();
+        String state = (String) filterState.getSelectedItem();
+        if (text.isEmpty() && ItemFilter.ALL.equals(state))
+        {
+            clearFilter();
+            return;
+        }
 
+        if (itemFilter == null)
+        {
+            itemFilter = new ItemFilter(plugin.getTrackedItems().values(), plugin::isCategoryInventoryOnly);
+        }
+        if (expandedBeforeFilter == null)
+        {
+            expandedBeforeFilter = new HashMap<>();
             for (CategoryBox box : categoryBoxes)
             {
-                boolean isThisSelected = box.getCategoryName().equals(selectedCategory);
+                expandedBeforeFilter.put(box.getCategoryName(), !box.isCollapsed());
+            }
+        }
+
+        ItemFilter index = itemFilter;
+        BitSet matches = index.match(text, state);
+        for (CategoryBox box : categoryBoxes)
+        {
+            // Categories with matches are opened so the matches can be seen
+            boolean shown = box.setFilter(item -> index.contains(matches, item));
+            box.setVisible(shown);
+            if (shown)
+            {
+                box.expand();
+            }
+        }
 
-                // Set selected state for visual indicator
-                box.setSelected(isThisSelected);
+        itemListPanel.revalidate();
+        itemListPanel.repaint();
+    }
 
-                // Restore expanded/collapsed state, or expand if it's a new category and selected
-                Boolean wasExpanded = expandedStates.get(box.getCategoryName());
-                if (wasExpanded != null)
-                {
-                    // Restore previous state
-                    if (wasExpanded)
-                    {
-                        box.expand();
-                    }
-                    else
-                    {
-                        box.collapse();
-                    }
-                }
-                else
-                {
-                    // New category - expand only if selected
-                    if (isThisSelected)
-                    {
-                        box.expand();
-                    }
-                    else
-                    {
-                        box.collapse();
-                    }
-                }
+    private void clearFilter()
+    {
+        if (expandedBeforeFilter == null)
+        {
+            return;
+        }
+
+        for (CategoryBox box : categoryBoxes)
+        {
+            box.setFilter(null);
+            box.setVisible(true);
+            if (Boolean.FALSE.equals(expandedBeforeFilter.get(box.getCategoryName())))
+            {
+                box.collapse();
             }
+        }
+        expandedBeforeFilter = null;
 
-            itemListPanel.revalidate();
-        });
+        itemListPanel.revalidate();
+        itemListPanel.repaint();
     }
-}
 
+    /**
+     * The items changed, index them again and reapply an active filter.
+     */
+    private void refilter()
+    {
+        itemFilter = null;
+        if (expandedBeforeFilter != null)
+        {
+            applyFilter();
+        }
+    }
+}
@@ -37,14 +37,19 @@ import net.runelite.api.ChatMessageType;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @PluginDescriptor(
@@ -88,6 +93,9 @@ public class ResourceTrackerPlugin extends Plugin
     @Getter
     private net.runelite.client.ui.ClientUI clientUi;
 
+    @Inject
+    private ScheduledExecutorService executor;
+
     public ResourceTrackerConfig getConfig()
     {
         return config;
@@ -95,7 +103,8 @@ public class ResourceTrackerPlugin extends Plugin
 
     private ResourceTrackerPanel panel;
     private NavigationButton navButton;
-    private final Map<String, TrackedItem> trackedItems = new HashMap<>();
+    // In the order items were added, which is their manual order within a category
+    private final Map<String, TrackedItem> trackedItems = new LinkedHashMap<>();
 
     // Track category order for consistent display
     private final List<String> categoryOrder = new ArrayList<>();
@@ -106,8 +115,8 @@ public class ResourceTrackerPlugin extends Plugin
     private String getTrackedItemKey(int itemId, String category) {
         return itemId + ":" + category;
     }
-    // Dynamic container cache - one map per container ID
-    private final Map<Integer, Map<Integer, Integer>> containerCaches = new HashMap<>();
+    // Container caches and per-category rollups
+    private final ItemAggregator aggregator = new ItemAggregator(this::isContainerTrackingEnabled);
 
     // Potion storage tracking
     private boolean rebuildPotions = false;
@@ -117,9 +126,58 @@ public class ResourceTrackerPlugin extends Plugin
     // Account tracking
     private String currentAccountHash = null;
 
-    // Update debouncing
-    private boolean updatePending = false;
-    private final Object updateLock = new Object();
+    // Panel refreshes and the saves triggered by container updates are coalesced per frame
+    private UiUpdateScheduler uiUpdateScheduler;
+    private volatile boolean savePending = false;
+
+    // Opt-in event recording for reproducing performance problems offline
+    private EventRecorder recorder;
+
+    // Opt-in client-thread cost accounting, shown in the panel
+    @Getter
+    private final HandlerTimings handlerTimings = new HandlerTimings();
+
+    // While over the frame budget, container contents are applied and potions rebuilt
+    // at most once per interval, and refreshes of the hidden panel are held back
+    private static final long DEGRADED_UPDATE_INTERVAL_NANOS = 600_000_000L;
+    private final FrameBudget frameBudget = new FrameBudget(() -> config.frameBudget());
+    private final Map<Integer, Item[]> pendingContainers = new LinkedHashMap<>();
+    private long lastDegradedUpdateNanos;
+
+    // Quantity history of the loaded account, written to its own file now and then
+    private static final long HISTORY_SAVE_INTERVAL_MILLIS = 5 * 60_000L;
+    @Getter
+    private final HistoryStore history = new HistoryStore();
+    private File historyDirectory = HistoryStore.HISTORY_DIR;
+    private String historyAccountHash;
+    private long lastHistorySaveMillis;
+
+    // Recent gain rates of tracked items, for goal estimates
+    private final GoalEstimator goalEstimator = new GoalEstimator();
+
+    // Gains since login, the session starts at the first LOGGED_IN after the login screen
+    @Getter
+    private final SessionGains sessionGains = new SessionGains();
+    private boolean sessionStarted = false;
+
+    // Caches saved by the other accounts, loaded while the all accounts view is on
+    private AccountTotals accountTotals;
+
+    // When each container was last seen, and the enabled containers not seen for too long
+    private static final long DAY_MILLIS = 24 * 60 * 60_000L;
+    private static final long STALE_CHECK_INTERVAL_MILLIS = 60_000L;
+    private final CacheTimes cacheTimes = new CacheTimes();
+    private volatile long staleContainerMillis;
+    private volatile Map<String, Long> staleContainers;
+    private volatile long staleCheckedMillis;
+
+    // Open batch of model changes, see beginBatch(). Only the thread that opened it defers work,
+    // the depth and deferred flags are only touched by that thread while it owns the batch.
+    private final AtomicReference<Thread> batchThread = new AtomicReference<>();
+    private int batchDepth = 0;
+    private boolean batchRebuildStats = false;
+    private boolean batchUpdate = false;
+    private boolean batchSave = false;
 
     @Override
     protected void startUp()
@@ -127,6 +185,18 @@ public class ResourceTrackerPlugin extends Plugin
         log.debug("Resource Tracker started");
 
         panel = new ResourceTrackerPanel(this, itemManager, chatboxPanelManager);
+        uiUpdateScheduler = new UiUpdateScheduler(config::panelRefreshInterval, this::refreshPanel);
+        recorder = new EventRecorder(executor, EventRecorder.RECORDING_DIR);
+        aggregator.setAmountListener(this::onAmountChanged);
+        aggregator.setMissingRanking(config.missingItemsRanking());
+        accountTotals = new AccountTotals(configManager, gson);
+        staleContainerMillis = config.staleContainerDays() * DAY_MILLIS;
+        if (config.recordEvents())
+        {
+            startRecording();
+        }
+        handlerTimings.setEnabled(config.timeHandlers());
+        panel.setTimingsShown(config.timeHandlers());
 
         final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/com/resourcetracker/icon.png");
 
@@ -140,13 +210,25 @@ public class ResourceTrackerPlugin extends Plugin
         clientToolbar.addNavigation(navButton);
 
         loadData();
+        loadOtherAccounts();
+        if (client.getGameState() == GameState.LOGGED_IN)
+        {
+            startSession();
+        }
     }
 
     @Override
     protected void shutDown()
     {
         log.debug("Resource Tracker stopped!");
+        uiUpdateScheduler.cancel();
         saveData();
+        saveHistory();
+        history.clear();
+        historyAccountHash = null;
+        sessionStarted = false;
+        recorder.stop();
+        panel.setTimingsShown(false);
         clientToolbar.removeNavigation(navButton);
     }
 
@@ -168,14 +250,18 @@ public class ResourceTrackerPlugin extends Plugin
             String newAccountHash = getAccountHash();
 
             // Check if we switched accounts
-            if (currentAccountHash != null && !currentAccountHash.equals(newAccountHash))
+            boolean accountChanged = currentAccountHash != null && !currentAccountHash.equals(newAccountHash);
+            if (accountChanged)
             {
                 log.info("Account changed - clearing cached data");
                 // Clear in-memory data from previous account
                 trackedItems.clear();
                 categoryOrder.clear();
-                containerCaches.clear();
+                aggregator.clear();
+                cacheTimes.clear();
                 inventoryOnlyCategories.clear();
+                pendingContainers.clear();
+                goalEstimator.clear();
             }
 
             currentAccountHash = newAccountHash;
@@ -183,6 +269,23 @@ public class ResourceTrackerPlugin extends Plugin
 
             // Load tracked items when player logs in
             loadData();
+            loadOtherAccounts();
+
+            // Loaded amounts are where gain rates start from, not gains themselves
+            long now = System.currentTimeMillis();
+            goalEstimator.setLoggedIn(true, now);
+            trackedItems.forEach((key, item) -> goalEstimator.observe(key, item.getCurrentAmount(), now));
+
+            // Loading screens and world hops also log in, they don't start a new session
+            if (!sessionStarted || accountChanged)
+            {
+                startSession();
+            }
+
+            if (recorder.isRecording())
+            {
+                recordSnapshot();
+            }
 
             // Check if bank is already open and potion storage should be initialized
             // Must be called on client thread
@@ -201,6 +304,9 @@ public class ResourceTrackerPlugin extends Plugin
         {
             // Save data when logging out
             saveData();
+            saveHistory();
+            goalEstimator.setLoggedIn(false, System.currentTimeMillis());
+            sessionStarted = false;
             // Clear panel when logging out
             panel.resetPanel();
 
@@ -221,7 +327,9 @@ public class ResourceTrackerPlugin extends Plugin
         // Clear in-memory data
         trackedItems.clear();
         categoryOrder.clear();
-        containerCaches.clear();
+        aggregator.clear();
+        cacheTimes.clear();
+        staleContainers = null;
         inventoryOnlyCategories.clear();
 
         // Clear from config
@@ -229,6 +337,7 @@ public class ResourceTrackerPlugin extends Plugin
         configManager.setRSProfileConfiguration("resourcetracker", "categoryOrder", "");
         configManager.setRSProfileConfiguration("resourcetracker", "invOnlyCategories", "");
         configManager.setRSProfileConfiguration("resourcetracker", "containerCaches", "");
+        configManager.setRSProfileConfiguration("resourcetracker", "cacheTimes", "");
         configManager.setRSProfileConfiguration("resourcetracker", "cacheTimestamp", "");
 
         // Reset the panel UI
@@ -244,15 +353,46 @@ public class ResourceTrackerPlugin extends Plugin
     @Subscribe
     public void onItemContainerChanged(ItemContainerChanged event)
     {
+        long budgetStart = frameBudget.start();
+        long start = handlerTimings.start();
         int containerId = event.getContainerId();
         ContainerTracker.Container container = ContainerTracker.getContainer(containerId);
 
         // Check if this is a registered container and if tracking is enabled for it
         if (container != null && isContainerTrackingEnabled(container))
         {
-            updateContainerCache(containerId, event.getItemContainer());
-            updateTrackedItems();
+            if (recorder.isRecording() && event.getItemContainer() != null)
+            {
+                recorder.recordContainer(containerId, event.getItemContainer().getItems());
+            }
+
+            if (event.getItemContainer() != null)
+            {
+                containerRefreshed(containerId);
+            }
+
+            if (frameBudget.isDegraded() && event.getItemContainer() != null)
+            {
+                // Only the latest contents matter, they are applied on a later tick
+                pendingContainers.remove(containerId);
+                pendingContainers.put(containerId, event.getItemContainer().getItems());
+            }
+            else if (containerId == ContainerTracker.EQUIPMENT.getId() && event.getItemContainer() != null)
+            {
+                // Gear is swapped all the time, only the items in the slots that changed are updated
+                int changedCount = aggregator.updateContainerSlots(containerId, event.getItemContainer().getItems());
+                if (changedCount != 0)
+                {
+                    updateChangedItems(changedCount);
+                }
+            }
+            else if (aggregator.updateContainerCache(containerId, event.getItemContainer()))
+            {
+                updateTrackedItems();
+            }
         }
+        handlerTimings.stop(HandlerTimings.Handler.CONTAINER_CHANGED, start);
+        frameBudget.stop(budgetStart);
     }
 
     /**
@@ -269,6 +409,8 @@ public class ResourceTrackerPlugin extends Plugin
                 return config.trackBank();
             case "trackInventory":
                 return config.trackInventory();
+            case "trackEquipment":
+                return config.trackEquipment();
             case "trackSeedVault":
                 return config.trackSeedVault();
             case "trackRetrievalService":
@@ -296,151 +438,260 @@ public class ResourceTrackerPlugin extends Plugin
             // If display settings change, we need to refresh the UI to show/hide labels
             if (event.getKey().equals("showCategoryTotals") || event.getKey().equals("showCategoryProgress"))
             {
-                SwingUtilities.invokeLater(() -> panel.rebuild());
+                requestRefresh();
             }
+            else if (event.getKey().equals("recordEvents"))
+            {
+                if (config.recordEvents())
+                {
+                    startRecording();
+                }
+                else
+                {
+                    recorder.stop();
+                }
+            }
+            else if (event.getKey().equals("showGoalEstimates") || event.getKey().equals("showSessionGains")
+                    || event.getKey().equals("itemSortMode"))
+            {
+                requestRefresh();
+            }
+            else if (event.getKey().equals("missingItemsRanking"))
+            {
+                clientThread.invoke(() ->
+                {
+                    aggregator.setMissingRanking(config.missingItemsRanking());
+                    rebuildCategoryStats();
+                    requestRefresh();
+                });
+            }
+            else if (event.getKey().equals("showAllAccounts"))
+            {
+                if (config.showAllAccounts())
+                {
+                    loadOtherAccounts();
+                }
+                else
+                {
+                    accountTotals.clear();
+                    requestRefresh();
+                }
+            }
+            else if (event.getKey().equals("staleContainerDays"))
+            {
+                staleContainerMillis = config.staleContainerDays() * DAY_MILLIS;
+                staleContainers = null;
+                requestRefresh();
+            }
+            else if (ContainerTracker.getContainerByConfigKey(event.getKey()) != null)
+            {
+                // Amounts move to or from the container on the next update, that isn't a gain
+                aggregator.catchUp();
+                staleContainers = null;
+                if (config.showAllAccounts())
+                {
+                    requestRefresh();
+                }
+            }
+            else if (event.getKey().equals("timeHandlers"))
+            {
+                handlerTimings.setEnabled(config.timeHandlers());
+                panel.setTimingsShown(config.timeHandlers());
+            }
+        }
+    }
+    public void updateTrackedItems()
+    {
+        if (isBatching())
+        {
+            batchUpdate = true;
+            return;
+        }
+
+        // If no items are tracked, skip the update
+        if (trackedItems.isEmpty())
+        {
+            return;
         }
+
+        updateItems(trackedItems.values());
     }
+
     /**
-     * Update the cache for a specific container.
-     * This method is generic and works for any container type.
+     * Update only the tracked items with an ID changed by the last slot diff, the others can't have changed.
+     *
+     * @param changedCount The count returned by {@link ItemAggregator#updateContainerSlots}
      */
-    private void updateContainerCache(int containerId, ItemContainer container)
+    private void updateChangedItems(int changedCount)
     {
-        if (container == null)
+        // Catching up applies to every item, e.g. after a container was enabled
+        if (changedCount < 0 || isBatching() || aggregator.isCatchingUp())
         {
+            updateTrackedItems();
             return;
         }
 
-        // Normalize container IDs to use the same cache for alternate IDs
-        int cacheId = normalizeContainerId(containerId);
+        List<TrackedItem> affected = aggregator.getChangedItems(changedCount);
+        if (!affected.isEmpty())
+        {
+            updateItems(affected);
+        }
+    }
 
-        // Get or create cache for this container
-        Map<Integer, Integer> cache = containerCaches.computeIfAbsent(cacheId, k -> new HashMap<>());
-        cache.clear();
+    private void updateItems(Collection<TrackedItem> items)
+    {
+        long start = handlerTimings.start();
+        Set<String> changedCategories = aggregator.update(items, inventoryOnlyCategories);
 
-        // Cache all items in the container
-        for (Item item : container.getItems())
+        // Only save and refresh if something actually changed. Both happen on the next
+        // panel frame, so a burst of container events costs one save and one refresh.
+        if (changedCategories != null)
         {
-            if (item.getId() > 0)
+            savePending = true;
+            uiUpdateScheduler.invalidate(changedCategories);
+
+            if (System.currentTimeMillis() - lastHistorySaveMillis >= HISTORY_SAVE_INTERVAL_MILLIS)
             {
-                cache.merge(item.getId(), item.getQuantity(), Integer::sum);
+                saveHistory();
             }
         }
+        handlerTimings.stop(HandlerTimings.Handler.UPDATE_TRACKED_ITEMS, start);
     }
 
     /**
-     * Normalize container IDs to use the same cache for alternate IDs.
-     * Examples: 660 -> 93 (temp inventory), 33731 -> 963 (boat 1 alternate)
+     * Start a batch of model changes. Until the matching {@link #commitBatch()}, changes made
+     * on this thread only record that items need updating, saving or re-aggregating; the
+     * outermost commit then does each once. Panel refreshes are already merged per frame.
+     * Batches may nest.
      */
-    private int normalizeContainerId(int containerId)
+    public void beginBatch()
     {
-
-        // Boats: Normalize alternate IDs (33731-33735) to primary IDs (963-967)
-        if (containerId >= 33731 && containerId <= 33735)
+        Thread current = Thread.currentThread();
+        if (batchThread.get() != current && !batchThread.compareAndSet(null, current))
         {
-            return 963 + (containerId - 33731); // 33731->963, 33732->964, etc.
+            Thread owner = batchThread.get();
+            throw new IllegalStateException("A batch is already open on " + (owner != null ? owner.getName() : "another thread"));
         }
 
-        return containerId; // No normalization needed
+        batchDepth++;
     }
 
-    public void updateTrackedItems()
+    /**
+     * Finish a batch started with {@link #beginBatch()}, applying its deferred work if it is the outermost.
+     */
+    public void commitBatch()
     {
-        // If no items are tracked, skip the update
-        if (trackedItems.isEmpty())
+        if (!isBatching())
         {
-            return;
+            throw new IllegalStateException("No batch open on this thread");
         }
 
-        boolean needsUpdate = false;
-
-        // Only iterate through tracked items, not all container items
-        for (TrackedItem trackedItem : trackedItems.values())
+        if (--batchDepth > 0)
         {
-            int itemId = trackedItem.getItemId();
-            int totalAmount = 0;
-            Map<String, Integer> breakdown = new HashMap<>();
-            Map<String, Integer> savedBreakdown = trackedItem.getContainerQuantities();
-            boolean hasScannedData = false;
-
-            // Check if this item is restricted to inventory only
-            boolean isRestrictedToInventory = inventoryOnlyCategories.contains(trackedItem.getCategory()) || trackedItem.isInventoryOnly();
-
-            // Track which normalized cache IDs we've already processed to avoid double-counting
-            java.util.Set<Integer> processedCaches = new java.util.HashSet<>();
-
-            // Dynamically check all registered containers
-            for (ContainerTracker.Container container : ContainerTracker.getAllContainers().values())
-            {
-                // If restricted, skip any container that isn't inventory (ID 93)
-                if (isRestrictedToInventory && container.getId() != 93)
-                {
-                    continue;
-                }
+            return;
+        }
+        // Taken before the batch is released, another thread may open the next one right away
+        boolean rebuildStats = batchRebuildStats;
+        boolean update = batchUpdate;
+        boolean save = batchSave;
+        batchRebuildStats = false;
+        batchUpdate = false;
+        batchSave = false;
+        batchThread.set(null);
+
+        if (rebuildStats)
+        {
+            aggregator.rebuildCategoryStats(trackedItems.values());
+        }
+        if (update)
+        {
+            updateTrackedItems();
+        }
+        if (save)
+        {
+            // Covers the save the update above queued for the next frame
+            savePending = false;
+            saveData();
+        }
+    }
 
-                // Check if tracking is enabled for this container globally
-                if (!isContainerTrackingEnabled(container))
-                {
-                    continue;
-                }
+    /**
+     * Apply a set of model changes as one batch.
+     *
+     * @param changes Calls to the plugin's mutators, e.g. adding and removing items
+     */
+    public void batch(Runnable changes)
+    {
+        beginBatch();
+        try
+        {
+            changes.run();
+        }
+        finally
+        {
+            commitBatch();
+        }
+    }
 
-                // Get the normalized cache ID to avoid counting alternate IDs twice
-                int normalizedCacheId = normalizeContainerId(container.getId());
+    private boolean isBatching()
+    {
+        return batchThread.get() == Thread.currentThread();
+    }
 
-                if (processedCaches.contains(normalizedCacheId))
-                {
-                    continue;
-                }
+    /**
+     * Recompute every category's statistics, once per batch when batching.
+     */
+    private void rebuildCategoryStats()
+    {
+        if (isBatching())
+        {
+            batchRebuildStats = true;
+            return;
+        }
+        aggregator.rebuildCategoryStats(trackedItems.values());
+    }
 
-                processedCaches.add(normalizedCacheId);
-                Map<Integer, Integer> cache = containerCaches.get(normalizedCacheId);
+    /**
+     * Queue a full panel rebuild, e.g. after categories were added, removed or reordered.
+     */
+    public void requestRefresh()
+    {
+        uiUpdateScheduler.invalidateAll();
+    }
 
-                if (cache != null)
-                {
-                    Integer quantity = cache.get(itemId);
-                    int qty = (quantity != null ? quantity : 0);
-                    breakdown.put(container.getName(), qty);
-                    totalAmount += qty;
-                    hasScannedData = true;
-                }
-                else if (savedBreakdown != null && savedBreakdown.containsKey(container.getName()))
-                {
-                    int savedQty = savedBreakdown.get(container.getName());
-                    breakdown.put(container.getName(), savedQty);
-                    totalAmount += savedQty;
-                }
-            }
+    /**
+     * Queue a refresh of a single category's box.
+     */
+    public void requestRefresh(String category)
+    {
+        uiUpdateScheduler.invalidate(category);
+    }
 
-            if (hasScannedData && (trackedItem.getCurrentAmount() != totalAmount || !breakdown.equals(savedBreakdown)))
-            {
-                trackedItem.setCurrentAmount(totalAmount);
-                trackedItem.setContainerQuantities(breakdown);
-                needsUpdate = true;
-            }
+    /**
+     * Called by the scheduler on the EDT, at most once per frame interval.
+     */
+    private void refreshPanel(boolean full, Set<String> dirtyCategories)
+    {
+        if (savePending)
+        {
+            savePending = false;
+            saveData();
         }
 
-        // Only save and rebuild if something actually changed
-        if (needsUpdate)
+        // Nobody sees a hidden panel, hold its refreshes back until it is opened
+        if (frameBudget.isDegraded() && !panel.isShowing())
         {
-            synchronized (updateLock)
-            {
-                // If an update is already pending, don't schedule another one
-                if (updatePending)
-                {
-                    return;
-                }
-                updatePending = true;
-            }
+            uiUpdateScheduler.defer(full, dirtyCategories);
+            return;
+        }
 
-            // Use invokeLater to batch UI updates and prevent multiple rapid rebuilds
-            SwingUtilities.invokeLater(() -> {
-                synchronized (updateLock)
-                {
-                    updatePending = false;
-                }
-                saveData();
-                panel.rebuild();
-            });
+        if (full)
+        {
+            panel.rebuildTrackedItems();
+        }
+        else
+        {
+            panel.refreshCategories(dirtyCategories);
         }
     }
 
@@ -452,19 +703,61 @@ public class ResourceTrackerPlugin extends Plugin
         }
 
         trackedItems.put(getTrackedItemKey(item.getItemId(), item.getCategory()), item);
+        aggregator.itemAdded(item);
 
         // Force an update immediately to calculate initial values correctly based on current modes
         updateTrackedItems();
 
-        SwingUtilities.invokeLater(() -> panel.rebuild());
+        requestRefresh(item.getCategory());
         saveData();
     }
 
     public void removeTrackedItem(int itemId, String category)
     {
-        trackedItems.remove(getTrackedItemKey(itemId, category));
-        SwingUtilities.invokeLater(() -> panel.rebuild());
+        TrackedItem removed = trackedItems.remove(getTrackedItemKey(itemId, category));
+        goalEstimator.remove(getTrackedItemKey(itemId, category));
+        sessionGains.remove(getTrackedItemKey(itemId, category));
+        if (removed != null)
+        {
+            aggregator.itemRemoved(removed);
+        }
+        requestRefresh(category);
+        saveData();
+    }
+
+    /**
+     * Change an item's goal, keeping its category statistics in sync.
+     */
+    public void setItemGoal(TrackedItem item, Integer goal)
+    {
+        aggregator.changeItem(item, () -> item.setGoalAmount(goal));
+        saveData();
+        requestRefresh(item.getCategory());
+    }
+
+    /**
+     * Zero the counts of every item in a category until the containers are seen again.
+     */
+    public void resetCategoryCounts(String category)
+    {
+        // The counts come back with the next update, that isn't gained this session
+        aggregator.catchUp();
+        for (TrackedItem item : trackedItems.values())
+        {
+            if (item.getCategory().equals(category))
+            {
+                aggregator.changeItem(item, () ->
+                {
+                    // Reset current amount to 0
+                    item.setCurrentAmount(0);
+                    // Clear all container quantities
+                    item.getContainerQuantities().clear();
+                });
+            }
+        }
+
         saveData();
+        requestRefresh(category);
     }
 
     public Map<String, TrackedItem> getTrackedItems()
@@ -472,6 +765,14 @@ public class ResourceTrackerPlugin extends Plugin
         return trackedItems;
     }
 
+    /**
+     * Rollup totals for a category, maintained as item quantities change.
+     */
+    public CategoryStats getCategoryStats(String category)
+    {
+        return aggregator.getCategoryStats(category);
+    }
+
     // ===== NEW METHODS FOR CATEGORY INVENTORY ONLY MODE =====
 
     public boolean isCategoryInventoryOnly(String category)
@@ -496,10 +797,30 @@ public class ResourceTrackerPlugin extends Plugin
         // IMPORTANT: We must trigger a full updateTrackedItems scan so that
         // when we toggle OFF, we re-scan the Bank caches that were being ignored.
         // We run it on the client thread to be safe with cache access, though caches are synchronized.
+        aggregator.catchUp();
         updateTrackedItems();
 
-        // Force UI rebuild to show the new colors/totals
-        SwingUtilities.invokeLater(() -> panel.rebuild());
+        // Refresh the category to show the new colors/totals
+        requestRefresh(category);
+    }
+
+    /**
+     * Switch an item between counting only the inventory and counting every container.
+     */
+    public void toggleItemInventoryOnly(TrackedItem item)
+    {
+        clientThread.invoke(() ->
+        {
+            item.setInventoryOnly(!item.isInventoryOnly());
+            saveData();
+
+            // The amount jumps to the newly counted containers, that isn't gained this session
+            aggregator.catchUp();
+            updateTrackedItems();
+
+            // Border changes even if the count doesn't
+            requestRefresh(item.getCategory());
+        });
     }
 
     /**
@@ -511,6 +832,10 @@ public class ResourceTrackerPlugin extends Plugin
     {
         if (event.getScriptId() == ScriptID.BANKMAIN_FINISHBUILDING && config.trackPotionStorage())
         {
+            if (recorder.isRecording())
+            {
+                recorder.recordScript(event.getScriptId());
+            }
             rebuildPotions = true;
         }
     }
@@ -522,8 +847,21 @@ public class ResourceTrackerPlugin extends Plugin
     @Subscribe
     public void onClientTick(ClientTick event)
     {
+        long budgetStart = frameBudget.start();
+        if (frameBudget.isDegraded())
+        {
+            if (budgetStart - lastDegradedUpdateNanos < DEGRADED_UPDATE_INTERVAL_NANOS)
+            {
+                endFrame(budgetStart);
+                return;
+            }
+            lastDegradedUpdateNanos = budgetStart;
+            applyPendingContainers();
+        }
+
         if (rebuildPotions && !potionRebuildInProgress)
         {
+            long start = handlerTimings.start();
             potionRebuildInProgress = true;
             rebuildPotions = false; // Clear the flag immediately to prevent double processing
 
@@ -539,9 +877,67 @@ public class ResourceTrackerPlugin extends Plugin
                 potionStoreVars = new HashSet<>();
                 Arrays.stream(trigger).forEach(potionStoreVars::add);
             }
+            handlerTimings.stop(HandlerTimings.Handler.POTION_REBUILD, start);
+        }
+        endFrame(budgetStart);
+    }
+
+    private void endFrame(long budgetStart)
+    {
+        frameBudget.stop(budgetStart);
+        if (frameBudget.endFrame())
+        {
+            boolean degraded = frameBudget.isDegraded();
+            log.info("{} degraded mode, averaging {} us per frame", degraded ? "Entering" : "Leaving",
+                    frameBudget.getAverageNanos() / 1000);
+            if (!degraded)
+            {
+                applyPendingContainers();
+                uiUpdateScheduler.resume();
+            }
+            panel.setDegradedMode(degraded);
+        }
+    }
+
+    /**
+     * Apply the container contents held back in degraded mode.
+     */
+    private void applyPendingContainers()
+    {
+        if (pendingContainers.isEmpty())
+        {
+            return;
+        }
+
+        boolean changed = false;
+        for (Map.Entry<Integer, Item[]> entry : pendingContainers.entrySet())
+        {
+            changed |= aggregator.updateContainerCache(entry.getKey(), entry.getValue());
+        }
+        pendingContainers.clear();
+
+        if (changed)
+        {
+            updateTrackedItems();
         }
     }
 
+    /**
+     * @return true while the plugin is over its frame budget and delaying updates
+     */
+    public boolean isDegraded()
+    {
+        return frameBudget.isDegraded();
+    }
+
+    /**
+     * Called on the EDT when the panel is opened, to apply refreshes held back while it was hidden.
+     */
+    public void onPanelActivated()
+    {
+        uiUpdateScheduler.resume();
+    }
+
     /**
      * Watch for varbit changes that affect potion storage.
      */
@@ -549,12 +945,21 @@ public class ResourceTrackerPlugin extends Plugin
     @Subscribe
     public void onVarbitChanged(VarbitChanged varbitChanged)
     {
+        long budgetStart = frameBudget.start();
+        long start = handlerTimings.start();
         if (potionStoreVars != null && potionStoreVars.contains(varbitChanged.getVarpId()))
         {
+            if (recorder.isRecording())
+            {
+                recorder.recordVarbit(varbitChanged.getVarpId(), varbitChanged.getVarbitId(), varbitChanged.getValue());
+            }
+
             // Only set the flag, don't directly call update
             // This prevents multiple rapid-fire updates
             rebuildPotions = true;
         }
+        handlerTimings.stop(HandlerTimings.Handler.VARBIT_CHANGED, start);
+        frameBudget.stop(budgetStart);
     }
 
     /**
@@ -597,17 +1002,11 @@ public class ResourceTrackerPlugin extends Plugin
         }
 
         // Update the cache with potion storage fake container ID
-        int potionStorageId = ContainerTracker.POTION_STORAGE.getId();
-        int cacheId = normalizeContainerId(potionStorageId);
-        Map<Integer, Integer> cache = containerCaches.computeIfAbsent(cacheId, k -> new HashMap<>());
-
-        // Check if the cache actually changed before updating
-        boolean cacheChanged = !cache.equals(potionQtyMap);
+        containerRefreshed(ContainerTracker.POTION_STORAGE.getId());
+        boolean cacheChanged = aggregator.replaceContainerCache(ContainerTracker.POTION_STORAGE.getId(), potionQtyMap);
 
         if (cacheChanged)
         {
-            cache.clear();
-            cache.putAll(potionQtyMap);
             log.debug("Updated potion storage cache with {} potion types", potionQtyMap.size());
 
             // Only update tracked items if the cache actually changed
@@ -616,7 +1015,40 @@ public class ResourceTrackerPlugin extends Plugin
     }
 
 
+    private void startRecording()
+    {
+        recorder.start();
+        recordSnapshot();
+    }
+
+    /**
+     * Record the tracked items, so a replay aggregates the same items as the user.
+     */
+    private void recordSnapshot()
+    {
+        recorder.recordSnapshot(gson.toJson(new ArrayList<>(trackedItems.values())), gson.toJson(inventoryOnlyCategories));
+    }
+
     public void saveData()
+    {
+        if (isBatching())
+        {
+            batchSave = true;
+            return;
+        }
+
+        long start = handlerTimings.start();
+        try
+        {
+            writeData();
+        }
+        finally
+        {
+            handlerTimings.stop(HandlerTimings.Handler.SAVE_DATA, start);
+        }
+    }
+
+    private void writeData()
     {
         // Verify we're logged in before saving
         String accountHash = getAccountHash();
@@ -654,17 +1086,18 @@ public class ResourceTrackerPlugin extends Plugin
             log.debug("Saved {} inventory-only categories for account {}", inventoryOnlyCategories.size(), accountHash);
         }
 
-        // Save container caches with timestamp
+        // Save container caches with when each was last refreshed
+        Map<Integer, Map<Integer, Integer>> containerCaches = aggregator.getContainerCaches();
         if (containerCaches.isEmpty())
         {
             configManager.setRSProfileConfiguration("resourcetracker", "containerCaches", "");
-            configManager.setRSProfileConfiguration("resourcetracker", "cacheTimestamp", "");
+            configManager.setRSProfileConfiguration("resourcetracker", "cacheTimes", "");
         }
         else
         {
             String cacheJson = gson.toJson(containerCaches);
             configManager.setRSProfileConfiguration("resourcetracker", "containerCaches", cacheJson);
-            configManager.setRSProfileConfiguration("resourcetracker", "cacheTimestamp", String.valueOf(System.currentTimeMillis()));
+            configManager.setRSProfileConfiguration("resourcetracker", "cacheTimes", cacheTimes.encode());
             log.debug("Saved caches for {} containers for account {}", containerCaches.size(), accountHash);
         }
 
@@ -674,6 +1107,13 @@ public class ResourceTrackerPlugin extends Plugin
 
     private void saveCategoryOrder()
     {
+        // Saved along with everything else when the batch commits
+        if (isBatching())
+        {
+            batchSave = true;
+            return;
+        }
+
         String orderJson = gson.toJson(categoryOrder);
         configManager.setRSProfileConfiguration("resourcetracker", "categoryOrder", orderJson);
         log.debug("Saved category order: {}", categoryOrder);
@@ -721,6 +1161,20 @@ public class ResourceTrackerPlugin extends Plugin
 
     public void renameCategory(String oldName, String newName)
     {
+        // Items have already moved to the new name, their keys move with them
+        List<TrackedItem> renamed = new ArrayList<>();
+        trackedItems.values().removeIf(item -> item.getCategory().equals(newName) && renamed.add(item));
+        for (TrackedItem item : renamed)
+        {
+            String oldKey = getTrackedItemKey(item.getItemId(), oldName);
+            String newKey = getTrackedItemKey(item.getItemId(), newName);
+            trackedItems.put(newKey, item);
+            history.rename(oldKey, newKey);
+            goalEstimator.rename(oldKey, newKey);
+            sessionGains.rename(oldKey, newKey, newName);
+        }
+        rebuildCategoryStats();
+
         int index = categoryOrder.indexOf(oldName);
         if (index != -1)
         {
@@ -736,15 +1190,257 @@ public class ResourceTrackerPlugin extends Plugin
         categoryOrder.remove(categoryName);
         categoryOrder.add(newIndex, categoryName);
         saveCategoryOrder();
-        SwingUtilities.invokeLater(() -> panel.rebuild());
+        requestRefresh();
         log.debug("Moved category {} to index {}", categoryName, newIndex);
     }
 
+    /**
+     * Change how items are ordered within every category.
+     */
+    public void setItemSortMode(ItemOrder.Mode mode)
+    {
+        configManager.setConfiguration("resourcetracker", "itemSortMode", mode);
+    }
+
     public List<String> getCategoryOrder()
     {
         return new ArrayList<>(categoryOrder);
     }
 
+    /**
+     * Set where history files are kept, for tests.
+     */
+    void setHistoryDirectory(File historyDirectory)
+    {
+        this.historyDirectory = historyDirectory;
+    }
+
+    private File getHistoryFile(String accountHash)
+    {
+        return new File(historyDirectory, accountHash + ".rth");
+    }
+
+    private void startSession()
+    {
+        sessionStarted = true;
+        sessionGains.reset();
+        aggregator.resync();
+        trackedItems.forEach((key, item) -> sessionGains.observe(key, item.getCategory()));
+    }
+
+    private void onAmountChanged(TrackedItem item, int previousAmount, boolean catchingUp)
+    {
+        String key = getTrackedItemKey(item.getItemId(), item.getCategory());
+        long now = System.currentTimeMillis();
+        if (historyAccountHash != null)
+        {
+            history.record(key, now, item.getCurrentAmount());
+        }
+
+        if (catchingUp)
+        {
+            goalEstimator.observe(key, item.getCurrentAmount(), now);
+            sessionGains.observe(key, item.getCategory());
+        }
+        else
+        {
+            goalEstimator.amountChanged(key, item.getCurrentAmount(), now);
+            sessionGains.record(key, item.getCategory(), item.getCurrentAmount() - previousAmount, item.getGePrice());
+        }
+    }
+
+    /**
+     * @return Net amount of the item gained since login, negative if spent
+     */
+    public long getSessionGain(TrackedItem item)
+    {
+        return sessionGains.getItemGain(getTrackedItemKey(item.getItemId(), item.getCategory()));
+    }
+
+    /**
+     * Load when each cache was last refreshed. Caches saved before times were kept per
+     * container all get the single timestamp they were saved with.
+     */
+    private void loadCacheTimes(String timesStr, String legacyTimestamp, Set<Integer> cacheIds)
+    {
+        cacheTimes.decode(timesStr);
+        if ((timesStr == null || timesStr.isEmpty()) && legacyTimestamp != null && !legacyTimestamp.isEmpty())
+        {
+            try
+            {
+                long timestamp = Long.parseLong(legacyTimestamp);
+                cacheIds.forEach(cacheId -> cacheTimes.refreshed(cacheId, timestamp));
+            }
+            catch (NumberFormatException e)
+            {
+                log.warn("Invalid cache timestamp");
+            }
+        }
+        staleContainers = null;
+    }
+
+    /**
+     * Note that a container was seen live, so its cache is fresh again.
+     */
+    private void containerRefreshed(int containerId)
+    {
+        long now = System.currentTimeMillis();
+        long previous = cacheTimes.refreshed(ItemAggregator.normalizeContainerId(containerId), now);
+        if (previous > 0 && staleContainerMillis > 0 && now - previous >= staleContainerMillis)
+        {
+            // Categories dimmed for this container aren't stale anymore
+            staleContainers = null;
+            requestRefresh();
+        }
+    }
+
+    /**
+     * @return When the container was last refreshed from the live container, 0 if never
+     */
+    public long getRefreshTime(String containerName)
+    {
+        for (ContainerTracker.Container container : ContainerTracker.getAllContainers().values())
+        {
+            if (container.getName().equals(containerName))
+            {
+                long time = cacheTimes.getTime(ItemAggregator.normalizeContainerId(container.getId()));
+                if (time > 0)
+                {
+                    return time;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The enabled containers that haven't been seen for longer than the configured number
+     * of days, rechecked at most once a minute or when one is seen again.
+     *
+     * @return When each stale container was last refreshed, by container name
+     */
+    public Map<String, Long> getStaleContainers()
+    {
+        long now = System.currentTimeMillis();
+        Map<String, Long> stale = staleContainers;
+        if (stale == null || now - staleCheckedMillis >= STALE_CHECK_INTERVAL_MILLIS)
+        {
+            stale = new HashMap<>();
+            if (staleContainerMillis > 0)
+            {
+                for (Map.Entry<Integer, Long> entry : cacheTimes.getTimes().entrySet())
+                {
+                    ContainerTracker.Container container = ContainerTracker.getContainer(entry.getKey());
+                    if (container != null && now - entry.getValue() >= staleContainerMillis && isContainerTrackingEnabled(container))
+                    {
+                        stale.put(container.getName(), entry.getValue());
+                    }
+                }
+            }
+            staleContainers = stale;
+            staleCheckedMillis = now;
+        }
+        return stale;
+    }
+
+    /**
+     * Bring the other accounts' caches up to date for the all accounts view, off the
+     * client thread. Only profiles saved since the last time are decoded again.
+     */
+    private void loadOtherAccounts()
+    {
+        if (!config.showAllAccounts())
+        {
+            return;
+        }
+
+        String currentProfileKey = configManager.getRSProfileKey();
+        executor.execute(() ->
+        {
+            int decoded = accountTotals.refresh(currentProfileKey);
+            log.debug("Loaded {} other accounts, {} decoded", accountTotals.getAccounts().size(), decoded);
+            requestRefresh();
+        });
+    }
+
+    /**
+     * @return The item's amount on this account plus what the other accounts saved,
+     * counting the containers this account counts
+     */
+    public long getAllAccountsAmount(TrackedItem item)
+    {
+        boolean restrictedToInventory = item.isInventoryOnly() || inventoryOnlyCategories.contains(item.getCategory());
+        long amount = item.getCurrentAmount();
+        for (AccountTotals.Account account : accountTotals.getAccounts())
+        {
+            amount += aggregator.countItem(account.getCaches(), item.getItemId(), restrictedToInventory);
+        }
+        return amount;
+    }
+
+    /**
+     * @return The item's amount on each other account that has any, by account name
+     */
+    public Map<String, Long> getOtherAccountAmounts(TrackedItem item)
+    {
+        boolean restrictedToInventory = item.isInventoryOnly() || inventoryOnlyCategories.contains(item.getCategory());
+        Map<String, Long> amounts = new LinkedHashMap<>();
+        for (AccountTotals.Account account : accountTotals.getAccounts())
+        {
+            long amount = aggregator.countItem(account.getCaches(), item.getItemId(), restrictedToInventory);
+            if (amount > 0)
+            {
+                amounts.merge(account.getName(), amount, Long::sum);
+            }
+        }
+        return amounts;
+    }
+
+    /**
+     * Estimate when an item's goal will be reached, from its recent gain rate.
+     *
+     * @return Played time until the goal is reached, 0 if it has been, or -1 if the
+     * item has no goal, isn't being gained or hasn't been seen for long enough
+     */
+    public long getGoalEtaMillis(TrackedItem item)
+    {
+        Integer goal = item.getGoalAmount();
+        if (goal == null || goal <= 0)
+        {
+            return -1;
+        }
+        return goalEstimator.getEtaMillis(getTrackedItemKey(item.getItemId(), item.getCategory()),
+                (long) goal - item.getCurrentAmount(), System.currentTimeMillis());
+    }
+
+    private void loadHistory(String accountHash)
+    {
+        if (accountHash.equals(historyAccountHash))
+        {
+            return;
+        }
+
+        // Switching accounts, keep what the previous one recorded
+        saveHistory();
+        historyAccountHash = accountHash;
+        history.load(getHistoryFile(accountHash));
+        lastHistorySaveMillis = System.currentTimeMillis();
+    }
+
+    private void saveHistory()
+    {
+        if (historyAccountHash == null || !history.isDirty())
+        {
+            return;
+        }
+
+        // Encoded here so the store isn't shared with the executor, written there
+        File file = getHistoryFile(historyAccountHash);
+        byte[] data = history.encode();
+        lastHistorySaveMillis = System.currentTimeMillis();
+        executor.execute(() -> HistoryStore.writeFile(file, data));
+    }
+
     private void loadData()
     {
         String accountHash = getAccountHash();
@@ -755,7 +1451,7 @@ public class ResourceTrackerPlugin extends Plugin
         }
 
         log.info("Loading data for account hash: {}", accountHash);
-
+        loadHistory(accountHash);
 
         // Load category order first
         loadCategoryOrder();
@@ -778,7 +1474,9 @@ public class ResourceTrackerPlugin extends Plugin
         }
 
         // Load container caches
+        Map<Integer, Map<Integer, Integer>> containerCaches = aggregator.getContainerCaches();
         String cacheJson = configManager.getRSProfileConfiguration("resourcetracker", "containerCaches");
+        String timesStr = configManager.getRSProfileConfiguration("resourcetracker", "cacheTimes");
         String timestampStr = configManager.getRSProfileConfiguration("resourcetracker", "cacheTimestamp");
 
         if (cacheJson != null && !cacheJson.isEmpty())
@@ -787,30 +1485,10 @@ public class ResourceTrackerPlugin extends Plugin
                 Type type = new TypeToken<Map<Integer, Map<Integer, Integer>>>(){}.getType();
                 Map<Integer, Map<Integer, Integer>> loadedCache = gson.fromJson(cacheJson, type);
                 if (loadedCache != null) {
-                    containerCaches.clear();
-                    containerCaches.putAll(loadedCache);
-
-                    // Check cache age
-                    if (timestampStr != null && !timestampStr.isEmpty())
-                    {
-                        try {
-                            long timestamp = Long.parseLong(timestampStr);
-                            long ageHours = (System.currentTimeMillis() - timestamp) / (1000 * 60 * 60);
-                            log.info("Loaded caches for {} containers (age: {} hours) for account {}",
-                                    containerCaches.size(), ageHours, accountHash);
-
-                            if (ageHours > 24)
-                            {
-                                log.warn("Container cache is {} hours old - data may be stale", ageHours);
-                            }
-                        } catch (NumberFormatException e) {
-                            log.warn("Invalid cache timestamp");
-                        }
-                    }
-                    else
-                    {
-                        log.debug("Loaded caches for {} containers (no timestamp)", containerCaches.size());
-                    }
+                    aggregator.replaceContainerCaches(loadedCache);
+                    loadCacheTimes(timesStr, timestampStr, loadedCache.keySet());
+                    log.info("Loaded caches for {} containers for account {}, {} stale",
+                            containerCaches.size(), accountHash, getStaleContainers().size());
                 }
             } catch (Exception e) {
                 log.error("Error loading container caches", e);
@@ -875,12 +1553,14 @@ public class ResourceTrackerPlugin extends Plugin
                 }
             }
 
-            // Sync items with the loaded caches immediately
+            // Sync items with the loaded caches immediately, the saved state isn't a gain
+            aggregator.rebuildCategoryStats(trackedItems.values());
+            aggregator.resync();
             updateTrackedItems();
 
             log.info("Loaded {} tracked items for account {}", trackedItems.size(), accountHash);
             // Initial load of UI
-            SwingUtilities.invokeLater(() -> panel.loadItems(trackedItems.values()));
+            requestRefresh();
         }
         catch (Exception e)
         {
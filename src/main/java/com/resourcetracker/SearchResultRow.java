@@ -0,0 +1,120 @@
+package com.resourcetracker;
+
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.util.AsyncBufferedImage;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.text.AbstractDocument;
+import java.awt.*;
+
+/**
+ * A reusable search result row. The panel keeps a fixed pool of these and rebinds
+ * them to new items as the query changes, instead of building a new component tree
+ * (icon, goal field, document filter, listeners) for every result on every keystroke.
+ */
+public class SearchResultRow extends JPanel
+{
+    private final ItemManager itemManager;
+    private final JLabel iconLabel = new JLabel();
+    private final JLabel nameLabel = new JLabel();
+    private final JTextField goalField = new JTextField(5);
+    private final JButton addButton = new JButton("+");
+
+    private int itemId = -1;
+    private String itemName;
+
+    public SearchResultRow(ItemManager itemManager, ResourceTrackerPanel parentPanel)
+    {
+        this.itemManager = itemManager;
+
+        setLayout(new BorderLayout(5, 0));
+        setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        setBorder(new EmptyBorder(8, 10, 8, 10));
+        setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
+        setPreferredSize(new Dimension(getPreferredSize().width, 50));
+
+        // Left: Icon and Name
+        JPanel leftPanel = new JPanel(new BorderLayout(5, 0));
+        leftPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+
+        iconLabel.setPreferredSize(new Dimension(36, 32));
+        nameLabel.setForeground(Color.WHITE);
+
+        leftPanel.add(iconLabel, BorderLayout.WEST);
+        leftPanel.add(nameLabel, BorderLayout.CENTER);
+
+        add(leftPanel, BorderLayout.CENTER);
+
+        // Right: Goal input and + button
+        JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 3, 0));
+        rightPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+
+        goalField.setPreferredSize(new Dimension(60, 25));
+        goalField.setBackground(ColorScheme.DARKER_GRAY_COLOR);
+        goalField.setForeground(Color.WHITE);
+        goalField.setCaretColor(Color.WHITE);
+        ((AbstractDocument) goalField.getDocument()).setDocumentFilter(new ResourceTrackerPanel.QuantityDocumentFilter());
+        goalField.addActionListener(e -> addButton.doClick());
+
+        addButton.setPreferredSize(new Dimension(35, 25));
+        addButton.setMinimumSize(new Dimension(35, 25));
+        addButton.setMaximumSize(new Dimension(35, 25));
+        // Listeners read the currently bound item, so they survive rebinding
+        addButton.addActionListener(e -> parentPanel.addItemFromSearch(itemId, itemName, goalField.getText().trim()));
+
+        rightPanel.add(goalField);
+        rightPanel.add(addButton);
+
+        add(rightPanel, BorderLayout.EAST);
+    }
+
+    /**
+     * Points this row at a new item. Rebinding to the item already shown is a no-op
+     * apart from the enabled state, so rows that didn't change keep their typed goal.
+     *
+     * @param itemId   The item ID to show
+     * @param itemName The item name to show
+     * @param canAdd   Whether a category is selected to add into
+     */
+    public void bind(int itemId, String itemName, boolean canAdd)
+    {
+        if (this.itemId != itemId)
+        {
+            this.itemId = itemId;
+            this.itemName = itemName;
+
+            nameLabel.setText(itemName);
+            iconLabel.setToolTipText(itemName); // Show full item name on hover
+            iconLabel.setIcon(null);
+            AsyncBufferedImage itemImage = itemManager.getImage(itemId);
+            if (itemImage != null)
+            {
+                iconLabel.setIcon(new ImageIcon(itemImage));
+                // The row may be rebound before the sprite loads, then the sprite belongs to an older item
+                itemImage.onLoaded(() -> SwingUtilities.invokeLater(() ->
+                {
+                    if (this.itemId == itemId)
+                    {
+                        iconLabel.setIcon(new ImageIcon(itemImage));
+                    }
+                }));
+            }
+            goalField.setText("");
+        }
+
+        setCanAdd(canAdd);
+    }
+
+    /**
+     * Enable or disable adding the shown item, e.g. when the selected category changes.
+     */
+    public void setCanAdd(boolean canAdd)
+    {
+        goalField.setEnabled(canAdd);
+        addButton.setEnabled(canAdd);
+        goalField.setToolTipText(canAdd ? "Enter goal amount" : "Select a category to add an item");
+        addButton.setToolTipText(canAdd ? "Add to tracking" : "Select a category to add an item");
+    }
+}
@@ -0,0 +1,143 @@
+package com.resourcetracker;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How much of each tracked item was gained or spent this session, added up from
+ * the amount changes the aggregator reports. Totals span every tracked container,
+ * so moving items between them, like a bank deposit, nets out and only real
+ * acquisition counts. Category sums are kept alongside so reading them is O(1).
+ */
+public class SessionGains
+{
+	private static class Gain
+	{
+		private String category;
+		private long amount;
+		private long value;
+	}
+
+	// Per item key, only items seen since the session started
+	private final Map<String, Gain> items = new HashMap<>();
+
+	// Sums of the item gains per category
+	private final Map<String, Gain> categories = new HashMap<>();
+
+	/**
+	 * Start counting an item from its current amount, without a gain.
+	 */
+	public synchronized void observe(String key, String category)
+	{
+		items.computeIfAbsent(key, k -> newGain(category));
+	}
+
+	/**
+	 * Count a change in an item's amount. The first change of an item that hasn't
+	 * been observed, e.g. one tracked mid-session, is its starting point instead.
+	 *
+	 * @param delta   Change in the amount
+	 * @param gePrice GE price of one item, for the value of the change
+	 */
+	public synchronized void record(String key, String category, int delta, int gePrice)
+	{
+		Gain gain = items.get(key);
+		if (gain == null)
+		{
+			items.put(key, newGain(category));
+			return;
+		}
+
+		long value = (long) delta * gePrice;
+		gain.amount += delta;
+		gain.value += value;
+
+		Gain sum = categories.computeIfAbsent(gain.category, k -> newGain(k));
+		sum.amount += delta;
+		sum.value += value;
+	}
+
+	private static Gain newGain(String category)
+	{
+		Gain gain = new Gain();
+		gain.category = category;
+		return gain;
+	}
+
+	/**
+	 * @return Net amount of the item gained this session, negative if spent
+	 */
+	public synchronized long getItemGain(String key)
+	{
+		Gain gain = items.get(key);
+		return gain != null ? gain.amount : 0;
+	}
+
+	/**
+	 * @return Net amount of the category's items gained this session
+	 */
+	public synchronized long getCategoryGain(String category)
+	{
+		Gain sum = categories.get(category);
+		return sum != null ? sum.amount : 0;
+	}
+
+	/**
+	 * @return GE value of the category's session gains, at the prices when they were made
+	 */
+	public synchronized long getCategoryValue(String category)
+	{
+		Gain sum = categories.get(category);
+		return sum != null ? sum.value : 0;
+	}
+
+	/**
+	 * Forget an untracked item, taking its gains out of its category.
+	 */
+	public synchronized void remove(String key)
+	{
+		Gain gain = items.remove(key);
+		if (gain != null)
+		{
+			moveOut(gain);
+		}
+	}
+
+	/**
+	 * Move an item's gains to a new key and category.
+	 */
+	public synchronized void rename(String oldKey, String newKey, String newCategory)
+	{
+		Gain gain = items.remove(oldKey);
+		if (gain == null)
+		{
+			return;
+		}
+
+		moveOut(gain);
+		gain.category = newCategory;
+		Gain sum = categories.computeIfAbsent(newCategory, k -> newGain(k));
+		sum.amount += gain.amount;
+		sum.value += gain.value;
+		items.put(newKey, gain);
+	}
+
+	private void moveOut(Gain gain)
+	{
+		Gain sum = categories.get(gain.category);
+		if (sum != null)
+		{
+			sum.amount -= gain.amount;
+			sum.value -= gain.value;
+		}
+	}
+
+	/**
+	 * Start a new session with nothing gained.
+	 */
+	public synchronized void reset()
+	{
+		items.clear();
+		categories.clear();
+	}
+}
@@ -0,0 +1,197 @@
+package com.resourcetracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact text format for sharing a category's items in chat or on Discord.
+ * A share string is {@link #PREFIX} followed by the base64url of a deflated
+ * varint stream: the item count, then per item the ID delta from the previous
+ * item, a flags value and the goal if it has one. Names, prices and amounts
+ * are left out, the importer looks them up.
+ */
+public final class ShareCodec
+{
+	public static final String PREFIX = "rt1:";
+
+	private static final int FLAG_GOAL = 1;
+	private static final int FLAG_INVENTORY_ONLY = 2;
+
+	// Pasted text is untrusted, don't let a tiny string expand into millions of items
+	private static final int MAX_ITEMS = 10_000;
+
+	/**
+	 * Receives decoded items one at a time.
+	 */
+	public interface ItemConsumer
+	{
+		/**
+		 * @param itemId        The item ID
+		 * @param goal          The goal amount, or null if the item has no goal
+		 * @param inventoryOnly Whether the item only counts the inventory
+		 */
+		void accept(int itemId, Integer goal, boolean inventoryOnly);
+	}
+
+	/**
+	 * A parsed share string. Only the compressed bytes are kept, items are decoded
+	 * one at a time as {@link #forEach} hands them to its consumer. What the consumer
+	 * builds from them is up to the caller.
+	 */
+	public static final class Reader
+	{
+		private final byte[] compressed;
+		private final int count;
+
+		private Reader(byte[] compressed, int count)
+		{
+			this.compressed = compressed;
+			this.count = count;
+		}
+
+		/**
+		 * @return Number of items in the share string
+		 */
+		public int getCount()
+		{
+			return count;
+		}
+
+		/**
+		 * Decode every item in order.
+		 *
+		 * @throws IllegalArgumentException if the data is corrupt, items before the corruption have been consumed
+		 */
+		public void forEach(ItemConsumer consumer)
+		{
+			try (DataInputStream in = open(compressed))
+			{
+				in.readUnsignedByte();
+				int itemCount = VarInts.readVarInt(in);
+				int itemId = 0;
+				for (int i = 0; i < itemCount; i++)
+				{
+					itemId += VarInts.readVarInt(in);
+					int flags = VarInts.readVarInt(in);
+					Integer goal = (flags & FLAG_GOAL) != 0 ? VarInts.readVarInt(in) : null;
+					if (itemId <= 0 || (goal != null && goal <= 0))
+					{
+						throw new IllegalArgumentException("Invalid item in share string");
+					}
+					consumer.accept(itemId, goal, (flags & FLAG_INVENTORY_ONLY) != 0);
+				}
+
+				// Reaching the end also checks the stream's checksum, which catches a truncated paste
+				if (in.read() != -1)
+				{
+					throw new IllegalArgumentException("Trailing data in share string");
+				}
+			}
+			catch (IOException e)
+			{
+				throw new IllegalArgumentException("Corrupt share string", e);
+			}
+		}
+	}
+
+	private ShareCodec()
+	{
+	}
+
+	/**
+	 * @param text Clipboard contents
+	 * @return true if the text looks like a share string rather than legacy JSON
+	 */
+	public static boolean isShareString(String text)
+	{
+		return text != null && text.trim().startsWith(PREFIX);
+	}
+
+	/**
+	 * Encode items as a share string. Items are written in ID order, which keeps the deltas small.
+	 */
+	public static String encode(Collection<TrackedItem> items)
+	{
+		List<TrackedItem> sorted = new ArrayList<>(items);
+		sorted.sort(Comparator.comparingInt(TrackedItem::getItemId));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_COMPRESSION)))
+		{
+			// Format version, so the stream can change without changing the prefix
+			out.write(1);
+			VarInts.writeVarInt(out, sorted.size());
+			int previousId = 0;
+			for (TrackedItem item : sorted)
+			{
+				Integer goal = item.getGoalAmount() != null && item.getGoalAmount() > 0 ? item.getGoalAmount() : null;
+				int flags = (goal != null ? FLAG_GOAL : 0) | (item.isInventoryOnly() ? FLAG_INVENTORY_ONLY : 0);
+
+				VarInts.writeVarInt(out, item.getItemId() - previousId);
+				VarInts.writeVarInt(out, flags);
+				if (goal != null)
+				{
+					VarInts.writeVarInt(out, goal);
+				}
+				previousId = item.getItemId();
+			}
+		}
+		catch (IOException e)
+		{
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e);
+		}
+
+		return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * Parse a share string, reading only its header.
+	 *
+	 * @throws IllegalArgumentException if the text isn't a share string this version understands
+	 */
+	public static Reader read(String text)
+	{
+		String trimmed = text.trim();
+		if (!trimmed.startsWith(PREFIX))
+		{
+			throw new IllegalArgumentException("Not a share string");
+		}
+
+		byte[] compressed = Base64.getUrlDecoder().decode(trimmed.substring(PREFIX.length()));
+		try (DataInputStream in = open(compressed))
+		{
+			int version = in.readUnsignedByte();
+			if (version != 1)
+			{
+				throw new IllegalArgumentException("Unsupported share string version " + version);
+			}
+
+			int count = VarInts.readVarInt(in);
+			if (count < 0 || count > MAX_ITEMS)
+			{
+				throw new IllegalArgumentException("Invalid item count " + count);
+			}
+			return new Reader(compressed, count);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Corrupt share string", e);
+		}
+	}
+
+	private static DataInputStream open(byte[] compressed)
+	{
+		return new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+	}
+}
@@ -0,0 +1,212 @@
+package com.resourcetracker;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Coalesces panel refresh requests from every mutation path into at most one
+ * refresh per frame interval. Callers mark either individual categories or the
+ * whole panel as dirty; the refresher runs on the EDT with everything that was
+ * marked since the previous refresh.
+ * Safe to call from the client thread and the EDT.
+ */
+public class UiUpdateScheduler
+{
+	/**
+	 * Receives the merged set of invalidations once per frame.
+	 */
+	public interface Refresher
+	{
+		/**
+		 * @param full            true if the whole panel needs rebuilding
+		 * @param dirtyCategories categories whose contents changed (ignored when full)
+		 */
+		void refresh(boolean full, Set<String> dirtyCategories);
+	}
+
+	private final IntSupplier intervalMillis;
+	private final Refresher refresher;
+	private final Timer timer;
+	private final Object lock = new Object();
+
+	// Guarded by lock
+	private final Set<String> dirtyCategories = new HashSet<>();
+	private boolean fullRefresh = false;
+	private boolean scheduled = false;
+
+	// Refreshes the refresher chose not to apply yet, guarded by lock
+	private final Set<String> deferredCategories = new HashSet<>();
+	private boolean deferredFull = false;
+
+	// Only touched on the EDT
+	private boolean hasRefreshed = false;
+	private long lastRefreshNanos;
+
+	public UiUpdateScheduler(IntSupplier intervalMillis, Refresher refresher)
+	{
+		this.intervalMillis = intervalMillis;
+		this.refresher = refresher;
+		this.timer = new Timer(0, e -> flush());
+		this.timer.setRepeats(false);
+	}
+
+	/**
+	 * Marks the whole panel dirty, e.g. after categories were added, removed or reordered.
+	 */
+	public void invalidateAll()
+	{
+		synchronized (lock)
+		{
+			fullRefresh = true;
+			scheduleLocked();
+		}
+	}
+
+	/**
+	 * Marks a single category dirty.
+	 *
+	 * @param category The category whose items or header changed
+	 */
+	public void invalidate(String category)
+	{
+		synchronized (lock)
+		{
+			dirtyCategories.add(category);
+			scheduleLocked();
+		}
+	}
+
+	/**
+	 * Marks several categories dirty.
+	 *
+	 * @param categories The categories whose items or headers changed
+	 */
+	public void invalidate(Collection<String> categories)
+	{
+		if (categories.isEmpty())
+		{
+			return;
+		}
+
+		synchronized (lock)
+		{
+			dirtyCategories.addAll(categories);
+			scheduleLocked();
+		}
+	}
+
+	/**
+	 * Holds back a refresh the refresher was handed but chose not to apply,
+	 * e.g. because the panel is hidden. It is applied on the next {@link #resume()}.
+	 *
+	 * @param full            true if the whole panel needs rebuilding
+	 * @param dirtyCategories categories whose contents changed
+	 */
+	public void defer(boolean full, Set<String> dirtyCategories)
+	{
+		synchronized (lock)
+		{
+			deferredFull |= full;
+			deferredCategories.addAll(dirtyCategories);
+		}
+	}
+
+	/**
+	 * Schedules everything held back by {@link #defer}, if anything.
+	 */
+	public void resume()
+	{
+		synchronized (lock)
+		{
+			if (!deferredFull && deferredCategories.isEmpty())
+			{
+				return;
+			}
+
+			fullRefresh |= deferredFull;
+			dirtyCategories.addAll(deferredCategories);
+			deferredFull = false;
+			deferredCategories.clear();
+			scheduleLocked();
+		}
+	}
+
+	/**
+	 * Drops anything pending, used when the plugin shuts down.
+	 */
+	public void cancel()
+	{
+		synchronized (lock)
+		{
+			dirtyCategories.clear();
+			fullRefresh = false;
+			scheduled = false;
+			deferredCategories.clear();
+			deferredFull = false;
+		}
+		SwingUtilities.invokeLater(timer::stop);
+	}
+
+	private void scheduleLocked()
+	{
+		// If a refresh is already queued it will pick up this invalidation too
+		if (scheduled)
+		{
+			return;
+		}
+		scheduled = true;
+		SwingUtilities.invokeLater(this::startTimer);
+	}
+
+	private void startTimer()
+	{
+		long delay = 0;
+		if (hasRefreshed)
+		{
+			long sinceLast = (System.nanoTime() - lastRefreshNanos) / 1_000_000;
+			delay = Math.max(0, intervalMillis.getAsInt() - sinceLast);
+		}
+
+		if (delay == 0)
+		{
+			flush();
+			return;
+		}
+
+		timer.setInitialDelay((int) delay);
+		timer.restart();
+	}
+
+	private void flush()
+	{
+		final boolean full;
+		final Set<String> categories;
+
+		synchronized (lock)
+		{
+			if (!scheduled)
+			{
+				// Cancelled in the meantime
+				return;
+			}
+
+			full = fullRefresh;
+			categories = full || dirtyCategories.isEmpty()
+					? Collections.emptySet()
+					: new HashSet<>(dirtyCategories);
+
+			dirtyCategories.clear();
+			fullRefresh = false;
+			scheduled = false;
+		}
+
+		hasRefreshed = true;
+		lastRefreshNanos = System.nanoTime();
+		refresher.refresh(full, categories);
+	}
+}
@@ -0,0 +1,67 @@
+package com.resourcetracker;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zigzag varint encoding shared by the plugin's binary formats. Small values of
+ * either sign take one byte, so IDs, quantities and deltas stay compact.
+ */
+final class VarInts
+{
+	private VarInts()
+	{
+	}
+
+	static void writeVarInt(OutputStream out, int value) throws IOException
+	{
+		writeVarLong(out, value);
+	}
+
+	static void writeVarLong(OutputStream out, long value) throws IOException
+	{
+		long zigzag = (value << 1) ^ (value >> 63);
+		while ((zigzag & ~0x7FL) != 0)
+		{
+			out.write((int) ((zigzag & 0x7F) | 0x80));
+			zigzag >>>= 7;
+		}
+		out.write((int) zigzag);
+	}
+
+	static void writeString(OutputStream out, String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	static int readVarInt(DataInputStream in) throws IOException
+	{
+		return (int) readVarLong(in);
+	}
+
+	static long readVarLong(DataInputStream in) throws IOException
+	{
+		long zigzag = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			zigzag |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	static String readString(DataInputStream in) throws IOException
+	{
+		byte[] bytes = new byte[readVarInt(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,92 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import net.runelite.client.events.ConfigChanged;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AccountTotalsTest
+{
+	private static final String GROUP = "resourcetracker";
+
+	@Test
+	public void decodesOnlyChangedProfiles()
+	{
+		InMemoryConfigManager configManager = new InMemoryConfigManager();
+		saveAccount(configManager, 2, "Alt", "{\"95\":{\"536\":40}}", "95:ru");
+		saveAccount(configManager, 3, "Ironman", "{\"95\":{\"536\":7}}", "95:ru");
+		AccountTotals totals = new AccountTotals(configManager.getConfigManager(), new Gson());
+
+		assertEquals(2, totals.refresh(null));
+		assertEquals(0, totals.refresh(null));
+		assertEquals(2, totals.getAccounts().size());
+
+		// Only the account that saved again is decoded again
+		saveAccount(configManager, 3, "Ironman", "{\"95\":{\"536\":9}}", "95:1jk");
+		assertEquals(1, totals.refresh(null));
+
+		// The logged in account is left out, its caches are live
+		assertEquals(0, totals.refresh(PluginHarness.profileKey(2)));
+		assertEquals(1, totals.getAccounts().size());
+		assertEquals("Ironman", totals.getAccounts().get(0).getName());
+		assertEquals(Integer.valueOf(9), totals.getAccounts().get(0).getCaches().get(95).get(536));
+	}
+
+	@Test
+	public void sumsTrackedItemsOverAccounts()
+	{
+		PluginHarness harness = new PluginHarness();
+		saveAccount(harness.getConfigManager(), 2, "Alt", "{\"95\":{\"536\":40},\"93\":{\"536\":5}}", "95:ru");
+		harness.startUp();
+		harness.login(1);
+		TrackedItem bones = new TrackedItem(536, "Dragon bones", 100, "Prayer");
+		harness.getPlugin().addTrackedItem(bones);
+		harness.setContainer(ContainerTracker.BANK.getId(), FakeItemContainer.item(536, 10));
+		harness.setContainer(ContainerTracker.INVENTORY.getId());
+
+		// Off by default, nothing is loaded
+		assertEquals(10, harness.getPlugin().getAllAccountsAmount(bones));
+
+		harness.setConfig("showAllAccounts", true);
+		configChanged(harness, "showAllAccounts");
+		assertEquals(55, harness.getPlugin().getAllAccountsAmount(bones));
+		assertEquals(Collections.singletonMap("Alt", 45L), harness.getPlugin().getOtherAccountAmounts(bones));
+
+		// Other accounts count the same containers as this one
+		harness.setConfig("trackBank", false);
+		configChanged(harness, "trackBank");
+		harness.getPlugin().updateTrackedItems();
+		assertEquals(5, harness.getPlugin().getAllAccountsAmount(bones));
+
+		harness.setConfig("trackBank", true);
+		configChanged(harness, "trackBank");
+		bones.setInventoryOnly(true);
+		harness.getPlugin().updateTrackedItems();
+		assertEquals(5, harness.getPlugin().getAllAccountsAmount(bones));
+
+		harness.setConfig("showAllAccounts", false);
+		configChanged(harness, "showAllAccounts");
+		assertTrue(harness.getPlugin().getOtherAccountAmounts(bones).isEmpty());
+		harness.shutDown();
+	}
+
+	private static void saveAccount(InMemoryConfigManager configManager, long accountHash, String name, String caches, String times)
+	{
+		String profileKey = PluginHarness.profileKey(accountHash);
+		configManager.setProfileConfiguration(profileKey, "rsprofile", "displayName", name);
+		configManager.setProfileConfiguration(profileKey, GROUP, "containerCaches", caches);
+		configManager.setProfileConfiguration(profileKey, GROUP, "cacheTimes", times);
+	}
+
+	private static void configChanged(PluginHarness harness, String key)
+	{
+		ConfigChanged event = new ConfigChanged();
+		event.setGroup(GROUP);
+		event.setKey(key);
+		harness.getPlugin().onConfigChanged(event);
+	}
+}
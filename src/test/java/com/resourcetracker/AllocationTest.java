@@ -0,0 +1,271 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.events.ItemContainerChanged;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Container;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation ceilings for the paths that run on every container event or panel refresh,
+ * so per-item collections creeping back into them fails the build.
+ */
+public class AllocationTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final int TRACKED_ITEMS = 500;
+	private static final int CATEGORIES = 10;
+	private static final int FIRST_ITEM_ID = 1000;
+	private static final int WARMUP_ROUNDS = 2_000;
+	private static final int MEASURED_ROUNDS = 1_000;
+
+	private final com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+		? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()
+		: null;
+
+	private PluginHarness harness;
+
+	@Before
+	public void setUp()
+	{
+		Assume.assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < TRACKED_ITEMS; i++)
+		{
+			TrackedItem item = new TrackedItem(FIRST_ITEM_ID + i, "Item " + i, 100, "Category " + (i % CATEGORIES));
+			item.setGePrice(1);
+			item.setHaPrice(1);
+			items.add(item);
+		}
+
+		harness = new PluginHarness();
+		harness.getConfigManager().setProfileConfiguration(PluginHarness.profileKey(ACCOUNT), "resourcetracker", "trackedItems", new Gson().toJson(items));
+		harness.startUp();
+		harness.login(ACCOUNT);
+
+		// A full bank holding most of the tracked items
+		Item[] bank = new Item[800];
+		for (int i = 0; i < bank.length; i++)
+		{
+			bank[i] = new Item(FIRST_ITEM_ID + i, 1 + i);
+		}
+		harness.setContainer(ContainerTracker.BANK.getId(), bank);
+	}
+
+	@After
+	public void tearDown()
+	{
+		if (harness != null)
+		{
+			harness.shutDown();
+		}
+	}
+
+	@Test
+	public void inventoryUpdateOnlyAllocatesForChangedItems()
+	{
+		// Two inventories that differ in one tracked item's quantity
+		ItemContainerChanged[] events = new ItemContainerChanged[2];
+		for (int state = 0; state < events.length; state++)
+		{
+			Item[] inventory = new Item[28];
+			for (int slot = 0; slot < inventory.length; slot++)
+			{
+				inventory[slot] = new Item(FIRST_ITEM_ID + slot * 7, slot == 0 ? 1 + state : 5);
+			}
+			events[state] = containerChanged(ContainerTracker.INVENTORY.getId(), inventory);
+		}
+
+		long bytes = allocatedPerRound(round -> harness.getPlugin().onItemContainerChanged(events[round & 1]));
+		// A boxed ID per tracked item is fine, a collection per tracked item is not
+		assertCeiling("inventory update", TRACKED_ITEMS * 64, bytes);
+	}
+
+	@Test
+	public void unchangedBankRefreshAllocatesNearlyNothing()
+	{
+		// Each event carries a new array with the same contents, as the client sends them
+		ItemContainerChanged[] events = new ItemContainerChanged[2];
+		for (int copy = 0; copy < events.length; copy++)
+		{
+			Item[] bank = new Item[800];
+			for (int i = 0; i < bank.length; i++)
+			{
+				bank[i] = new Item(FIRST_ITEM_ID + i, 1 + i);
+			}
+			events[copy] = containerChanged(ContainerTracker.BANK.getId(), bank);
+		}
+
+		long bytes = allocatedPerRound(round -> harness.getPlugin().onItemContainerChanged(events[round & 1]));
+		// The container hands out a copy of its 800 slots, about 3 KB, the rest should be free
+		assertCeiling("unchanged bank refresh", 8 * 1024, bytes);
+	}
+
+	@Test
+	public void refreshOfUnchangedModelKeepsItemSlots()
+	{
+		ResourceTrackerPanel panel = new ResourceTrackerPanel(harness.getPlugin(), harness.getItemManager().getItemManager(), null);
+		panel.rebuildTrackedItems();
+		for (CategoryBox box : findCategoryBoxes(panel))
+		{
+			box.expand();
+		}
+
+		Set<String> categories = new HashSet<>(harness.getPlugin().getCategoryOrder());
+		long bytes = allocatedPerRound(round -> panel.refreshCategories(categories));
+		// Headers are updated, but none of the item slots should be rebuilt
+		assertCeiling("unchanged panel refresh", 64 * 1024, bytes);
+	}
+
+	@Test
+	public void movedItemOnlyRebuildsItsOwnSlot()
+	{
+		harness.setConfig("itemSortMode", ItemOrder.Mode.VALUE.name());
+		ResourceTrackerPanel panel = new ResourceTrackerPanel(harness.getPlugin(), harness.getItemManager().getItemManager(), null);
+		panel.rebuildTrackedItems();
+		List<CategoryBox> boxes = findCategoryBoxes(panel);
+		Set<Component> before = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (CategoryBox box : boxes)
+		{
+			box.expand();
+			before.addAll(Arrays.asList(itemContainer(box).getComponents()));
+		}
+
+		// The least valuable item of its category becomes the most valuable, every other slot shifts by one
+		Item[] bank = new Item[800];
+		for (int i = 0; i < bank.length; i++)
+		{
+			bank[i] = new Item(FIRST_ITEM_ID + i, i == 0 ? 100_000 : 1 + i);
+		}
+		harness.setContainer(ContainerTracker.BANK.getId(), bank);
+		panel.refreshCategories(new HashSet<>(harness.getPlugin().getCategoryOrder()));
+
+		int rebuilt = 0;
+		for (CategoryBox box : boxes)
+		{
+			for (Component slot : itemContainer(box).getComponents())
+			{
+				if (!before.contains(slot))
+				{
+					rebuilt++;
+				}
+			}
+		}
+		assertEquals(1, rebuilt);
+	}
+
+	@Test
+	public void changingTheLastSlotOfAFullGridKeepsEverySlot()
+	{
+		// Ten items fill two rows exactly, so the grid has no filler panels
+		for (int i = 0; i < 10; i++)
+		{
+			harness.getPlugin().addTrackedItem(new TrackedItem(FIRST_ITEM_ID + TRACKED_ITEMS + i, "Full " + i, null, "Full"));
+		}
+		ResourceTrackerPanel panel = new ResourceTrackerPanel(harness.getPlugin(), harness.getItemManager().getItemManager(), null);
+		panel.rebuildTrackedItems();
+		CategoryBox full = null;
+		for (CategoryBox box : findCategoryBoxes(panel))
+		{
+			if (box.getCategoryName().equals("Full"))
+			{
+				full = box;
+			}
+		}
+		full.expand();
+		Component[] before = itemContainer(full).getComponents();
+		assertEquals(10, before.length);
+
+		Item[] bank = new Item[800];
+		for (int i = 0; i < bank.length; i++)
+		{
+			bank[i] = new Item(FIRST_ITEM_ID + i, i == TRACKED_ITEMS + 9 ? 1 : 1 + i);
+		}
+		harness.setContainer(ContainerTracker.BANK.getId(), bank);
+		panel.refreshCategories(Collections.singleton("Full"));
+
+		Component[] after = itemContainer(full).getComponents();
+		assertEquals(10, after.length);
+		for (int i = 0; i < 9; i++)
+		{
+			assertSame(before[i], after[i]);
+		}
+		assertNotSame(before[9], after[9]);
+	}
+
+	private static Container itemContainer(CategoryBox box)
+	{
+		return (Container) ((BorderLayout) box.getLayout()).getLayoutComponent(BorderLayout.CENTER);
+	}
+
+	private interface Round
+	{
+		void run(int round);
+	}
+
+	private long allocatedPerRound(Round round)
+	{
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			round.run(i);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_ROUNDS; i++)
+		{
+			round.run(i);
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_ROUNDS;
+	}
+
+	private static ItemContainerChanged containerChanged(int containerId, Item[] items)
+	{
+		ItemContainer container = FakeItemContainer.of(containerId, items);
+		return new ItemContainerChanged(containerId, container);
+	}
+
+	private static void assertCeiling(String path, long ceiling, long actual)
+	{
+		assertTrue(path + " allocated " + actual + " bytes, more than the " + ceiling + " byte ceiling", actual <= ceiling);
+	}
+
+	private static List<CategoryBox> findCategoryBoxes(Container container)
+	{
+		List<CategoryBox> boxes = new ArrayList<>();
+		for (Component child : container.getComponents())
+		{
+			if (child instanceof CategoryBox)
+			{
+				boxes.add((CategoryBox) child);
+			}
+			else if (child instanceof Container)
+			{
+				boxes.addAll(findCategoryBoxes((Container) child));
+			}
+		}
+		return boxes;
+	}
+}
@@ -0,0 +1,149 @@
+package com.resourcetracker;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final int FIRST_ITEM_ID = 1000;
+	private static final int IMPORTED_ITEMS = 200;
+
+	private PluginHarness harness;
+	private ResourceTrackerPanel panel;
+
+	@Before
+	public void setUp()
+	{
+		harness = new PluginHarness();
+		harness.setConfig("timeHandlers", true);
+		harness.startUp();
+		harness.login(ACCOUNT);
+		harness.setContainer(ContainerTracker.BANK.getId(), item(FIRST_ITEM_ID, 50));
+		panel = new ResourceTrackerPanel(harness.getPlugin(), harness.getItemManager().getItemManager(), null);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.shutDown();
+	}
+
+	/**
+	 * Panel actions run on the EDT, like the panel's own refreshes.
+	 */
+	private static void onEdt(Runnable action) throws Exception
+	{
+		SwingUtilities.invokeAndWait(action);
+	}
+
+	private long count(HandlerTimings.Handler handler)
+	{
+		return harness.getPlugin().getHandlerTimings().getHistogram(handler).getCount();
+	}
+
+	private List<TrackedItem> importItems()
+	{
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < IMPORTED_ITEMS; i++)
+		{
+			items.add(new TrackedItem(FIRST_ITEM_ID + i, "Item " + i, 10, "Exported"));
+		}
+		return items;
+	}
+
+	@Test
+	public void importSavesAndAggregatesOnce() throws Exception
+	{
+		long saves = count(HandlerTimings.Handler.SAVE_DATA);
+		long updates = count(HandlerTimings.Handler.UPDATE_TRACKED_ITEMS);
+
+		onEdt(() -> panel.importCategory(importItems(), "Imported"));
+
+		assertEquals(saves + 1, count(HandlerTimings.Handler.SAVE_DATA));
+		assertEquals(updates + 1, count(HandlerTimings.Handler.UPDATE_TRACKED_ITEMS));
+		assertEquals(IMPORTED_ITEMS, harness.getPlugin().getTrackedItems().size());
+		assertEquals(50, harness.getTrackedItem(FIRST_ITEM_ID, "Imported").getCurrentAmount());
+		assertEquals(IMPORTED_ITEMS, harness.getPlugin().getCategoryStats("Imported").getItemCount());
+	}
+
+	@Test
+	public void deleteAndRenameSaveOnce() throws Exception
+	{
+		onEdt(() -> panel.importCategory(importItems(), "Imported"));
+
+		long saves = count(HandlerTimings.Handler.SAVE_DATA);
+		onEdt(() -> panel.renameCategory("Imported", "Renamed"));
+		assertEquals(saves + 1, count(HandlerTimings.Handler.SAVE_DATA));
+		assertEquals(IMPORTED_ITEMS, harness.getPlugin().getCategoryStats("Renamed").getItemCount());
+		assertNotNull(harness.getTrackedItem(FIRST_ITEM_ID, "Renamed"));
+		assertNull(harness.getTrackedItem(FIRST_ITEM_ID, "Imported"));
+
+		saves = count(HandlerTimings.Handler.SAVE_DATA);
+		onEdt(() -> panel.deleteCategory("Renamed"));
+		assertEquals(saves + 1, count(HandlerTimings.Handler.SAVE_DATA));
+		assertFalse(harness.getPlugin().getCategoryOrder().contains("Renamed"));
+		assertTrue(harness.getPlugin().getTrackedItems().isEmpty());
+	}
+
+	@Test
+	public void nestedBatchesCommitOnce()
+	{
+		ResourceTrackerPlugin plugin = harness.getPlugin();
+		long saves = count(HandlerTimings.Handler.SAVE_DATA);
+
+		plugin.beginBatch();
+		plugin.addTrackedItem(new TrackedItem(FIRST_ITEM_ID, "Item", null, "Outer"));
+		plugin.batch(() -> plugin.addTrackedItem(new TrackedItem(FIRST_ITEM_ID + 1, "Item", null, "Inner")));
+		assertEquals(saves, count(HandlerTimings.Handler.SAVE_DATA));
+
+		// Amounts are only aggregated when the outermost batch commits
+		assertEquals(0, harness.getTrackedItem(FIRST_ITEM_ID, "Outer").getCurrentAmount());
+		plugin.commitBatch();
+
+		assertEquals(saves + 1, count(HandlerTimings.Handler.SAVE_DATA));
+		assertEquals(50, harness.getTrackedItem(FIRST_ITEM_ID, "Outer").getCurrentAmount());
+		assertNotNull(harness.getTrackedItem(FIRST_ITEM_ID + 1, "Inner"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void commitWithoutBeginFails()
+	{
+		harness.getPlugin().commitBatch();
+	}
+
+	@Test
+	public void failedBatchStillCommits()
+	{
+		ResourceTrackerPlugin plugin = harness.getPlugin();
+		long saves = count(HandlerTimings.Handler.SAVE_DATA);
+		try
+		{
+			plugin.batch(() ->
+			{
+				plugin.addTrackedItem(new TrackedItem(FIRST_ITEM_ID, "Item", null, "Partial"));
+				throw new IllegalArgumentException();
+			});
+		}
+		catch (IllegalArgumentException expected)
+		{
+			// The item added before the failure is kept and aggregated
+		}
+
+		assertEquals(50, harness.getTrackedItem(FIRST_ITEM_ID, "Partial").getCurrentAmount());
+		assertTrue(plugin.getCategoryOrder().contains("Partial"));
+		assertEquals(saves + 1, count(HandlerTimings.Handler.SAVE_DATA));
+	}
+}
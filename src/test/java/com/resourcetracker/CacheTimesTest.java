@@ -0,0 +1,83 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CacheTimesTest
+{
+	private static final long DAY = 24 * 60 * 60_000L;
+	private static final int DRAGON_BONES = 536;
+
+	@Test
+	public void encodesSecondsPerContainer()
+	{
+		CacheTimes times = new CacheTimes();
+		assertEquals("", times.encode());
+		assertEquals(0, times.refreshed(95, 1_700_000_000_123L));
+		times.refreshed(626, 1_690_000_000_000L);
+		assertEquals(1_700_000_000_123L, times.refreshed(95, 1_700_000_001_000L));
+
+		String encoded = times.encode();
+		assertEquals("95:" + Long.toString(1_700_000_001L, 36) + ",626:" + Long.toString(1_690_000_000L, 36), encoded);
+
+		CacheTimes loaded = new CacheTimes();
+		loaded.decode(encoded + ",bad,93:");
+		assertEquals(1_700_000_001_000L, loaded.getTime(95));
+		assertEquals(1_690_000_000_000L, loaded.getTime(626));
+		assertEquals(0, loaded.getTime(93));
+	}
+
+	@Test
+	public void containersNotSeenForDaysAreStale()
+	{
+		long now = System.currentTimeMillis();
+		PluginHarness first = new PluginHarness();
+		first.startUp();
+		first.login(1);
+		first.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", 500, "Prayer"));
+		first.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 120));
+		first.setContainer(ContainerTracker.SEED_VAULT.getId(), item(DRAGON_BONES, 3));
+		assertTrue(first.getPlugin().getStaleContainers().isEmpty());
+		first.logout();
+		first.shutDown();
+
+		// The seed vault was last opened 30 days ago
+		InMemoryConfigManager configManager = first.getConfigManager();
+		String profileKey = PluginHarness.profileKey(1);
+		configManager.setProfileConfiguration(profileKey, "resourcetracker", "cacheTimes",
+			"95:" + Long.toString(now / 1000, 36) + ",626:" + Long.toString((now - 30 * DAY) / 1000, 36));
+
+		PluginHarness second = new PluginHarness(configManager);
+		second.startUp();
+		second.login(1);
+		assertEquals(Collections.singleton("Seed Vault"), second.getPlugin().getStaleContainers().keySet());
+		assertTrue(now - second.getPlugin().getRefreshTime("Bank") < DAY);
+
+		// Opening it makes it fresh again
+		second.setContainer(ContainerTracker.SEED_VAULT.getId(), item(DRAGON_BONES, 3));
+		assertTrue(second.getPlugin().getStaleContainers().isEmpty());
+		second.shutDown();
+	}
+
+	@Test
+	public void singleTimestampAppliesToEveryCache()
+	{
+		long savedAt = System.currentTimeMillis() - 10 * DAY;
+		InMemoryConfigManager configManager = new InMemoryConfigManager();
+		String profileKey = PluginHarness.profileKey(1);
+		configManager.setProfileConfiguration(profileKey, "resourcetracker", "containerCaches", "{\"95\":{\"536\":40},\"626\":{\"536\":2}}");
+		configManager.setProfileConfiguration(profileKey, "resourcetracker", "cacheTimestamp", String.valueOf(savedAt));
+
+		PluginHarness harness = new PluginHarness(configManager);
+		harness.startUp();
+		harness.login(1);
+		assertEquals(savedAt, harness.getPlugin().getRefreshTime("Bank"));
+		assertEquals(2, harness.getPlugin().getStaleContainers().size());
+		harness.shutDown();
+	}
+}
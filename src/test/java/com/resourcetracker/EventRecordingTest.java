@@ -0,0 +1,127 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventRecordingTest
+{
+	private static class Collector implements EventRecording.Visitor
+	{
+		private final List<String> events = new ArrayList<>();
+		private long lastTime = -1;
+
+		@Override
+		public void snapshot(String trackedItemsJson, String inventoryOnlyJson)
+		{
+			events.add("snapshot " + trackedItemsJson + " " + inventoryOnlyJson);
+		}
+
+		@Override
+		public void containerChanged(long timeMicros, int containerId, Item[] items)
+		{
+			checkTime(timeMicros);
+			StringBuilder event = new StringBuilder("container " + containerId);
+			for (Item item : items)
+			{
+				event.append(' ').append(item.getId()).append('x').append(item.getQuantity());
+			}
+			events.add(event.toString());
+		}
+
+		@Override
+		public void varbitChanged(long timeMicros, int varpId, int varbitId, int value)
+		{
+			checkTime(timeMicros);
+			events.add("varbit " + varpId + " " + varbitId + " " + value);
+		}
+
+		@Override
+		public void scriptPostFired(long timeMicros, int scriptId)
+		{
+			checkTime(timeMicros);
+			events.add("script " + scriptId);
+		}
+
+		private void checkTime(long timeMicros)
+		{
+			assertTrue(timeMicros >= lastTime);
+			lastTime = timeMicros;
+		}
+	}
+
+	@Test
+	public void recordingRoundTrips() throws IOException
+	{
+		File directory = Files.createTempDirectory("recordings").toFile();
+		EventRecorder recorder = new EventRecorder(Runnable::run, directory);
+		recorder.start();
+		recorder.recordSnapshot("[]", "[\"Herbs\"]");
+		recorder.recordContainer(93, new Item[]{item(536, 12), item(-1, 0), item(30000, Integer.MAX_VALUE)});
+		recorder.recordVarbit(-1, 4321, -5);
+		recorder.recordScript(505);
+		recorder.stop();
+
+		// Recording after stopping is ignored
+		recorder.recordScript(506);
+
+		File[] files = directory.listFiles();
+		assertNotNull(files);
+		assertEquals(1, files.length);
+
+		Collector collector = new Collector();
+		try (InputStream in = new GZIPInputStream(new FileInputStream(files[0])))
+		{
+			EventRecording.read(in, collector);
+		}
+		assertEquals(Arrays.asList(
+			"snapshot [] [\"Herbs\"]",
+			"container 93 536x12 -1x0 30000x" + Integer.MAX_VALUE,
+			"varbit -1 4321 -5",
+			"script 505"), collector.events);
+
+		files[0].delete();
+		directory.delete();
+	}
+
+	@Test
+	public void truncatedRecordIsDropped() throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(EventRecording.MAGIC);
+		out.write(EventRecording.SCRIPT);
+		VarInts.writeVarLong(out, 10);
+		VarInts.writeVarInt(out, 505);
+		out.write(EventRecording.CONTAINER);
+		VarInts.writeVarLong(out, 10);
+		VarInts.writeVarInt(out, 93);
+		VarInts.writeVarInt(out, 28);
+
+		Collector collector = new Collector();
+		EventRecording.read(new ByteArrayInputStream(out.toByteArray()), collector);
+		assertEquals(Collections.singletonList("script 505"), collector.events);
+	}
+
+	@Test(expected = IOException.class)
+	public void otherFilesAreRejected() throws IOException
+	{
+		EventRecording.read(new ByteArrayInputStream("not a recording".getBytes()), new Collector());
+	}
+}
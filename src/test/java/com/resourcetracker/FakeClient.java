@@ -0,0 +1,104 @@
+package com.resourcetracker;
+
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link Client} holding just the state the plugin reads: the account,
+ * game state, item containers and the potion store.
+ */
+public class FakeClient
+{
+	private final Client client = Fakes.proxy(Client.class, (method, args) ->
+	{
+		switch (method.getName())
+		{
+			case "getAccountHash":
+				return getAccountHash();
+			case "getGameState":
+				return getGameState();
+			case "getItemContainer":
+				return args[0] instanceof Integer ? getItemContainer((Integer) args[0]) : Fakes.UNHANDLED;
+			case "getEnum":
+				return getPotionStore().getEnum((Integer) args[0]);
+			case "runScript":
+				getPotionStore().runScript((Object[]) args[0], getIntStack());
+				return null;
+			case "getIntStack":
+				return getIntStack();
+			default:
+				return Fakes.UNHANDLED;
+		}
+	});
+
+	private final Map<Integer, ItemContainer> containers = new HashMap<>();
+	private final FakePotionStore potionStore = new FakePotionStore();
+	private final int[] intStack = new int[1000];
+	private long accountHash = -1;
+	private GameState gameState = GameState.LOGIN_SCREEN;
+
+	public Client getClient()
+	{
+		return client;
+	}
+
+	public long getAccountHash()
+	{
+		return accountHash;
+	}
+
+	public void setAccountHash(long accountHash)
+	{
+		this.accountHash = accountHash;
+	}
+
+	public GameState getGameState()
+	{
+		return gameState;
+	}
+
+	public void setGameState(GameState gameState)
+	{
+		this.gameState = gameState;
+	}
+
+	public ItemContainer getItemContainer(int id)
+	{
+		return containers.get(id);
+	}
+
+	/**
+	 * Replace a container's contents, as the game does when it's opened or changed.
+	 *
+	 * @return The new container
+	 */
+	public ItemContainer setItemContainer(int id, Item... items)
+	{
+		ItemContainer container = FakeItemContainer.of(id, items);
+		containers.put(id, container);
+		return container;
+	}
+
+	/**
+	 * Forget a container, as the game does when e.g. the bank is closed on logout.
+	 */
+	public void removeItemContainer(int id)
+	{
+		containers.remove(id);
+	}
+
+	public FakePotionStore getPotionStore()
+	{
+		return potionStore;
+	}
+
+	public int[] getIntStack()
+	{
+		return intStack;
+	}
+}
@@ -0,0 +1,90 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+/**
+ * An {@link ItemContainer} over a fixed set of slots.
+ */
+public final class FakeItemContainer
+{
+	private FakeItemContainer()
+	{
+	}
+
+	/**
+	 * @param id    The container ID, e.g. {@code InventoryID.BANK}
+	 * @param items The slots, use {@link #empty()} for gaps
+	 * @return The container
+	 */
+	public static ItemContainer of(int id, Item... items)
+	{
+		Item[] slots = items.clone();
+		return Fakes.proxy(ItemContainer.class, (method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getId":
+					return id;
+				case "getItems":
+					return slots.clone();
+				case "size":
+					return slots.length;
+				case "getItem":
+				{
+					int slot = (Integer) args[0];
+					return slot >= 0 && slot < slots.length && slots[slot].getId() > 0 ? slots[slot] : null;
+				}
+				case "count":
+				{
+					int total = 0;
+					for (Item item : slots)
+					{
+						if (item.getId() == (Integer) args[0])
+						{
+							total += item.getQuantity();
+						}
+					}
+					return total;
+				}
+				case "contains":
+				{
+					for (Item item : slots)
+					{
+						if (item.getId() == (Integer) args[0])
+						{
+							return true;
+						}
+					}
+					return false;
+				}
+				case "find":
+				{
+					for (int slot = 0; slot < slots.length; slot++)
+					{
+						if (slots[slot].getId() == (Integer) args[0])
+						{
+							return slot;
+						}
+					}
+					return -1;
+				}
+				default:
+					return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	public static Item item(int id, int quantity)
+	{
+		return new Item(id, quantity);
+	}
+
+	/**
+	 * @return An empty slot
+	 */
+	public static Item empty()
+	{
+		return new Item(-1, 0);
+	}
+}
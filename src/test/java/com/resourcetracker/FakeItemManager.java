@@ -0,0 +1,123 @@
+package com.resourcetracker;
+
+import net.runelite.api.ItemComposition;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.AsyncBufferedImage;
+import net.runelite.http.api.item.ItemPrice;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * An {@link ItemManager} serving names and prices from an in-memory catalog.
+ * Like {@link InMemoryConfigManager}, this answers a mock's calls since the real
+ * class can only be built by the client's injector.
+ */
+public class FakeItemManager
+{
+	private static class CatalogItem
+	{
+		private final String name;
+		private final int gePrice;
+		private final int haPrice;
+
+		CatalogItem(String name, int gePrice, int haPrice)
+		{
+			this.name = name;
+			this.gePrice = gePrice;
+			this.haPrice = haPrice;
+		}
+	}
+
+	private final Map<Integer, CatalogItem> catalog = new LinkedHashMap<>();
+	private final AsyncBufferedImage image = mock(AsyncBufferedImage.class);
+	private final ItemManager itemManager = mock(ItemManager.class, this::answer);
+
+	public ItemManager getItemManager()
+	{
+		return itemManager;
+	}
+
+	/**
+	 * Add an item to the catalog.
+	 *
+	 * @return This, for chaining
+	 */
+	public FakeItemManager addItem(int id, String name, int gePrice, int haPrice)
+	{
+		catalog.put(id, new CatalogItem(name, gePrice, haPrice));
+		return this;
+	}
+
+	private ItemComposition composition(int id)
+	{
+		CatalogItem item = catalog.get(id);
+		return Fakes.proxy(ItemComposition.class, (method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getId":
+					return id;
+				case "getName":
+					return item != null ? item.name : "null";
+				case "getHaPrice":
+					return item != null ? item.haPrice : 0;
+				case "getPrice":
+					return item != null ? item.gePrice : 0;
+				case "isTradeable":
+					return item != null;
+				case "getNote":
+				case "getPlaceholderTemplateId":
+					return -1;
+				default:
+					return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	private List<ItemPrice> search(String query)
+	{
+		List<ItemPrice> results = new ArrayList<>();
+		for (Map.Entry<Integer, CatalogItem> entry : catalog.entrySet())
+		{
+			if (entry.getValue().name.toLowerCase().contains(query.toLowerCase()))
+			{
+				ItemPrice price = new ItemPrice();
+				price.setId(entry.getKey());
+				price.setName(entry.getValue().name);
+				price.setPrice(entry.getValue().gePrice);
+				results.add(price);
+			}
+		}
+		return results;
+	}
+
+	private Object answer(InvocationOnMock invocation) throws Throwable
+	{
+		Object[] args = invocation.getArguments();
+		switch (invocation.getMethod().getName())
+		{
+			case "getItemPrice":
+			{
+				CatalogItem item = catalog.get((Integer) args[0]);
+				return item != null ? item.gePrice : 0;
+			}
+			case "getItemComposition":
+				return composition((Integer) args[0]);
+			case "canonicalize":
+				return args[0];
+			case "search":
+				return search((String) args[0]);
+			case "getImage":
+				return image;
+			default:
+				return RETURNS_DEFAULTS.answer(invocation);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.resourcetracker;
+
+import net.runelite.api.EnumComposition;
+import net.runelite.api.EnumID;
+import net.runelite.api.ScriptID;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scripted backend for the bank's potion store. The plugin reads it through
+ * {@code Client.getEnum} for the potion lists and each potion's dose variants,
+ * and through the {@code POTIONSTORE_DOSES} script for the stored dose count.
+ */
+public class FakePotionStore
+{
+	// Potion enums are allocated well clear of real enum IDs
+	private int nextEnumId = 1_000_000;
+
+	private final List<Integer> potions = new ArrayList<>();
+	private final List<Integer> unfinishedPotions = new ArrayList<>();
+	private final Map<Integer, int[]> itemIdsByEnum = new HashMap<>();
+	private final Map<Integer, Integer> dosesByEnum = new HashMap<>();
+
+	/**
+	 * Add a potion to the store.
+	 *
+	 * @param doses         Total doses stored
+	 * @param itemIdsByDose Item IDs of the 1, 2, 3 and 4 dose variants
+	 * @return The potion's enum ID, used to change its doses later
+	 */
+	public int addPotion(int doses, int... itemIdsByDose)
+	{
+		return register(potions, doses, itemIdsByDose);
+	}
+
+	/**
+	 * Add an unfinished potion to the store, which only has a single "dose" variant.
+	 *
+	 * @param count  Number stored
+	 * @param itemId The unfinished potion's item ID
+	 * @return The potion's enum ID
+	 */
+	public int addUnfinishedPotion(int count, int itemId)
+	{
+		return register(unfinishedPotions, count, itemId);
+	}
+
+	public void setDoses(int potionEnumId, int doses)
+	{
+		dosesByEnum.put(potionEnumId, doses);
+	}
+
+	private int register(List<Integer> list, int doses, int... itemIds)
+	{
+		int enumId = nextEnumId++;
+		list.add(enumId);
+		itemIdsByEnum.put(enumId, itemIds.clone());
+		dosesByEnum.put(enumId, doses);
+		return enumId;
+	}
+
+	/**
+	 * @return The enum, or null if it isn't part of the potion store
+	 */
+	EnumComposition getEnum(int enumId)
+	{
+		if (enumId == EnumID.POTIONSTORE_POTIONS)
+		{
+			return listEnum(potions);
+		}
+		if (enumId == EnumID.POTIONSTORE_UNFINISHED_POTIONS)
+		{
+			return listEnum(unfinishedPotions);
+		}
+
+		int[] itemIds = itemIdsByEnum.get(enumId);
+		if (itemIds == null)
+		{
+			return null;
+		}
+
+		return Fakes.proxy(EnumComposition.class, (method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getIntValue":
+				{
+					int dose = (Integer) args[0];
+					return dose >= 1 && dose <= itemIds.length ? itemIds[dose - 1] : -1;
+				}
+				case "size":
+					return itemIds.length;
+				case "getKeys":
+				{
+					int[] keys = new int[itemIds.length];
+					for (int i = 0; i < keys.length; i++)
+					{
+						keys[i] = i + 1;
+					}
+					return keys;
+				}
+				case "getIntVals":
+					return itemIds.clone();
+				default:
+					return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	private static EnumComposition listEnum(List<Integer> enumIds)
+	{
+		int[] values = enumIds.stream().mapToInt(Integer::intValue).toArray();
+		return Fakes.proxy(EnumComposition.class, (method, args) ->
+		{
+			switch (method.getName())
+			{
+				case "getIntVals":
+					return values.clone();
+				case "size":
+					return values.length;
+				case "getIntValue":
+				{
+					int key = (Integer) args[0];
+					return key >= 0 && key < values.length ? values[key] : -1;
+				}
+				default:
+					return Fakes.UNHANDLED;
+			}
+		});
+	}
+
+	/**
+	 * Run a client script, if it is one the store implements.
+	 *
+	 * @param args     The script ID followed by its arguments
+	 * @param intStack The client's int stack, receives the results
+	 * @return true if the script was handled
+	 */
+	boolean runScript(Object[] args, int[] intStack)
+	{
+		if (args.length == 2 && args[0].equals(ScriptID.POTIONSTORE_DOSES))
+		{
+			intStack[0] = dosesByEnum.getOrDefault((Integer) args[1], 0);
+			return true;
+		}
+		return false;
+	}
+}
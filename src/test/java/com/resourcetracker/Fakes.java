@@ -0,0 +1,127 @@
+package com.resourcetracker;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers for building fakes of the large client interfaces, where a fake only
+ * cares about the handful of methods the plugin actually calls.
+ */
+final class Fakes
+{
+	/**
+	 * Returned by a {@link Handler} for methods it doesn't implement.
+	 */
+	static final Object UNHANDLED = new Object();
+
+	interface Handler
+	{
+		/**
+		 * @return The result of the call, or {@link #UNHANDLED} to return a default value
+		 */
+		Object handle(Method method, Object[] args) throws Throwable;
+	}
+
+	private Fakes()
+	{
+	}
+
+	/**
+	 * Create a proxy for an interface. Unhandled methods return zero, false,
+	 * null or an empty collection.
+	 *
+	 * @param type    The interface to implement
+	 * @param handler Handles the calls the fake supports
+	 * @return The proxy
+	 */
+	static <T> T proxy(Class<T> type, Handler handler)
+	{
+		Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) ->
+		{
+			Object[] arguments = args != null ? args : new Object[0];
+			if (method.getDeclaringClass() == Object.class)
+			{
+				switch (method.getName())
+				{
+					case "equals":
+						return self == arguments[0];
+					case "hashCode":
+						return System.identityHashCode(self);
+					default:
+						return "Fake" + type.getSimpleName();
+				}
+			}
+
+			Object result = handler.handle(method, arguments);
+			return result == UNHANDLED ? defaultValue(method.getReturnType()) : result;
+		});
+		return type.cast(proxy);
+	}
+
+	/**
+	 * @return The value an unstubbed method of the given return type should produce
+	 */
+	static Object defaultValue(Class<?> type)
+	{
+		if (type == boolean.class)
+		{
+			return false;
+		}
+		if (type == char.class)
+		{
+			return '\0';
+		}
+		if (type.isPrimitive())
+		{
+			if (type == void.class)
+			{
+				return null;
+			}
+			if (type == long.class)
+			{
+				return 0L;
+			}
+			if (type == float.class)
+			{
+				return 0f;
+			}
+			if (type == double.class)
+			{
+				return 0d;
+			}
+			if (type == byte.class)
+			{
+				return (byte) 0;
+			}
+			if (type == short.class)
+			{
+				return (short) 0;
+			}
+			return 0;
+		}
+		if (type == List.class)
+		{
+			return new ArrayList<>();
+		}
+		if (type == Set.class)
+		{
+			return new HashSet<>();
+		}
+		if (type == Map.class)
+		{
+			return new HashMap<>();
+		}
+		if (type.isArray())
+		{
+			return Array.newInstance(type.getComponentType(), 0);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,91 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameBudgetTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final int DRAGON_BONES = 536;
+
+	private static void spend(FrameBudget budget, long micros)
+	{
+		budget.stop(System.nanoTime() - micros * 1000);
+	}
+
+	@Test
+	public void singleSlowFrameDoesNotDegrade()
+	{
+		FrameBudget budget = new FrameBudget(() -> 500);
+		spend(budget, 10_000);
+		for (int i = 0; i < 1000; i++)
+		{
+			budget.endFrame();
+		}
+		assertFalse(budget.isDegraded());
+	}
+
+	@Test
+	public void sustainedLoadDegradesAndRecovers()
+	{
+		FrameBudget budget = new FrameBudget(() -> 500);
+		int frames = 0;
+		while (!budget.isDegraded() && frames++ < 1000)
+		{
+			spend(budget, 1000);
+			budget.endFrame();
+		}
+		assertTrue(budget.isDegraded());
+
+		// Load at 80% of the budget isn't low enough to recover
+		for (int i = 0; i < 1000; i++)
+		{
+			spend(budget, 400);
+			budget.endFrame();
+		}
+		assertTrue(budget.isDegraded());
+
+		frames = 0;
+		while (budget.isDegraded() && frames++ < 1000)
+		{
+			budget.endFrame();
+		}
+		assertFalse(budget.isDegraded());
+	}
+
+	@Test
+	public void containerUpdatesAreDeferredWhileDegraded()
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.setConfig("frameBudget", 1);
+		harness.startUp();
+		harness.login(ACCOUNT);
+		harness.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", null, "Prayer"));
+
+		// Every frame with a container update costs more than a microsecond
+		for (int i = 0; i < 1000 && !harness.getPlugin().isDegraded(); i++)
+		{
+			harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, i));
+			harness.tick();
+		}
+		assertTrue(harness.getPlugin().isDegraded());
+
+		// The first degraded tick applies what was held back, later ones wait for the interval
+		harness.tick();
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5000));
+		harness.tick();
+		TrackedItem bones = harness.getTrackedItem(DRAGON_BONES, "Prayer");
+		assertTrue(bones.getCurrentAmount() != 5000);
+
+		// Turning the budget off recovers and applies the held back contents
+		harness.setConfig("frameBudget", 0);
+		harness.tick();
+		assertFalse(harness.getPlugin().isDegraded());
+		assertEquals(5000, bones.getCurrentAmount());
+		harness.shutDown();
+	}
+}
@@ -0,0 +1,139 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GoalEstimatorTest
+{
+	private static final String KEY = "536:Prayer";
+	private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+	private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * Gain an amount every minute for a number of minutes.
+	 *
+	 * @return The time after the last gain
+	 */
+	private static long gain(GoalEstimator estimator, long start, int startAmount, int perMinute, int minutes)
+	{
+		long time = start;
+		for (int i = 1; i <= minutes; i++)
+		{
+			time = start + i * MINUTE;
+			estimator.amountChanged(KEY, startAmount + i * perMinute, time);
+		}
+		return time;
+	}
+
+	@Test
+	public void steadyGainsGiveTheirRate()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		estimator.observe(KEY, 0, 0);
+
+		// Accurate early on as well as once the average has warmed up
+		long time = gain(estimator, 0, 0, 10, 5);
+		assertEquals(600, estimator.getRatePerHour(KEY, time), 60);
+		time = gain(estimator, time, 50, 10, 120);
+		assertEquals(600, estimator.getRatePerHour(KEY, time), 15);
+
+		// 1,000 more at 600 an hour
+		long eta = estimator.getEtaMillis(KEY, 1_000, time);
+		assertEquals(100 * MINUTE, eta, 2 * MINUTE);
+		assertEquals(0, estimator.getEtaMillis(KEY, 0, time));
+	}
+
+	@Test
+	public void rateFollowsRecentGains()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		estimator.observe(KEY, 0, 0);
+
+		long time = gain(estimator, 0, 0, 10, 120);
+		time = gain(estimator, time, 1_200, 1, 120);
+		assertTrue(estimator.getRatePerHour(KEY, time) < 120);
+
+		// Without gains the rate decays
+		double rate = estimator.getRatePerHour(KEY, time);
+		assertTrue(estimator.getRatePerHour(KEY, time + HOUR) < rate / 2);
+	}
+
+	@Test
+	public void loggedOutTimeDoesNotCount()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		estimator.observe(KEY, 0, 0);
+		long time = gain(estimator, 0, 0, 10, 60);
+		double rate = estimator.getRatePerHour(KEY, time);
+
+		estimator.setLoggedIn(false, time);
+		long later = time + 24 * HOUR;
+		assertEquals(rate, estimator.getRatePerHour(KEY, later), 0.001);
+
+		// Repeated logins don't restart the session
+		estimator.setLoggedIn(true, later);
+		estimator.setLoggedIn(true, later + HOUR);
+		assertTrue(estimator.getRatePerHour(KEY, later + HOUR) < rate / 2);
+	}
+
+	@Test
+	public void observedAmountsAreNotGains()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		estimator.observe(KEY, 0, 0);
+		estimator.observe(KEY, 5_000, 10 * MINUTE);
+		assertEquals(0, estimator.getRatePerHour(KEY, 10 * MINUTE), 0);
+
+		// The first amount of an unseen item is a starting point as well
+		estimator.amountChanged("385:Food", 5_000, 0);
+		assertEquals(0, estimator.getRatePerHour("385:Food", 10 * MINUTE), 0);
+	}
+
+	@Test
+	public void unknownRatesHaveNoEstimate()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		assertEquals(-1, estimator.getEtaMillis(KEY, 100, 0));
+
+		// Too little time observed
+		estimator.observe(KEY, 0, 0);
+		estimator.amountChanged(KEY, 50, 10_000);
+		assertEquals(-1, estimator.getEtaMillis(KEY, 100, 10_000));
+
+		// Losing items never reaches the goal
+		estimator.amountChanged(KEY, 0, 10 * MINUTE);
+		estimator.amountChanged(KEY, -100 + 50, 11 * MINUTE);
+		assertEquals(-1, estimator.getEtaMillis(KEY, 100, 12 * MINUTE));
+	}
+
+	@Test
+	public void renameKeepsRate()
+	{
+		GoalEstimator estimator = new GoalEstimator();
+		estimator.setLoggedIn(true, 0);
+		estimator.observe(KEY, 0, 0);
+		long time = gain(estimator, 0, 0, 10, 30);
+
+		estimator.rename(KEY, "536:Bones");
+		assertEquals(-1, estimator.getEtaMillis(KEY, 100, time));
+		assertTrue(estimator.getEtaMillis("536:Bones", 100, time) > 0);
+	}
+
+	@Test
+	public void durationsShowTwoUnits()
+	{
+		assertEquals("1m", CategoryBox.formatDuration(1));
+		assertEquals("59m", CategoryBox.formatDuration(59 * MINUTE));
+		assertEquals("3h 20m", CategoryBox.formatDuration(200 * MINUTE));
+		assertEquals("2d 4h", CategoryBox.formatDuration(52 * HOUR + 30 * MINUTE));
+	}
+}
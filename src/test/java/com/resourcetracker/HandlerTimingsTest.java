@@ -0,0 +1,79 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HandlerTimingsTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final int DRAGON_BONES = 536;
+
+	@Test
+	public void percentilesAreWithinBucketPrecision()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++)
+		{
+			histogram.record(i * 1000L);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1_000_000, histogram.getMax());
+		assertNear(500_000, histogram.getPercentile(50));
+		assertNear(990_000, histogram.getPercentile(99));
+		assertEquals(1_000_000, histogram.getPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50));
+	}
+
+	@Test
+	public void bucketsCoverEveryValue()
+	{
+		for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE})
+		{
+			int index = LatencyHistogram.bucketIndex(value);
+			assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+			assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+		}
+	}
+
+	@Test
+	public void disabledTimingsRecordNothing()
+	{
+		HandlerTimings timings = new HandlerTimings();
+		timings.stop(HandlerTimings.Handler.SAVE_DATA, timings.start());
+		assertEquals(0, timings.getHistogram(HandlerTimings.Handler.SAVE_DATA).getCount());
+
+		timings.setEnabled(true);
+		timings.stop(HandlerTimings.Handler.SAVE_DATA, timings.start());
+		assertEquals(1, timings.getHistogram(HandlerTimings.Handler.SAVE_DATA).getCount());
+	}
+
+	@Test
+	public void pluginTimesHandlersWhenEnabled()
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.setConfig("timeHandlers", true);
+		harness.startUp();
+		harness.login(ACCOUNT);
+		harness.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", null, "Prayer"));
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 10));
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 20));
+
+		HandlerTimings timings = harness.getPlugin().getHandlerTimings();
+		assertEquals(2, timings.getHistogram(HandlerTimings.Handler.CONTAINER_CHANGED).getCount());
+		assertTrue(timings.getHistogram(HandlerTimings.Handler.UPDATE_TRACKED_ITEMS).getCount() >= 2);
+		assertTrue(timings.getHistogram(HandlerTimings.Handler.SAVE_DATA).getCount() >= 1);
+		harness.shutDown();
+	}
+
+	private static void assertNear(long expected, long actual)
+	{
+		assertTrue("expected about " + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 8);
+	}
+}
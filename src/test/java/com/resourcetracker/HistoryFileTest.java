@@ -0,0 +1,170 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HistoryFileTest
+{
+	private static final String KEY = "536:Prayer";
+	private static final HistoryStore.Resolution RESOLUTION = HistoryStore.Resolution.DAY;
+
+	/**
+	 * Counts the bytes read, to check that range reads skip blocks.
+	 */
+	private static class CountingSource implements HistoryFile.Source
+	{
+		private final byte[] data;
+		private long bytesRead;
+
+		CountingSource(byte[] data)
+		{
+			this.data = data;
+		}
+
+		@Override
+		public void readFully(long position, byte[] into)
+		{
+			System.arraycopy(data, (int) position, into, 0, into.length);
+			bytesRead += into.length;
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+
+	/**
+	 * A daily history with a change on most days.
+	 *
+	 * @return The amount on each day, from day 0
+	 */
+	private static int[] fill(HistoryBuffer[] buffers, int days, long seed)
+	{
+		Random random = new Random(seed);
+		int[] amounts = new int[days];
+		int amount = 1_000;
+		for (int day = 0; day < days; day++)
+		{
+			if (random.nextInt(4) != 0)
+			{
+				amount = Math.max(0, amount + random.nextInt(200) - 80);
+			}
+			amounts[day] = amount;
+			buffers[RESOLUTION.ordinal()].record(day, amount);
+		}
+		return amounts;
+	}
+
+	private static HistoryBuffer[] emptyBuffers()
+	{
+		HistoryBuffer[] buffers = new HistoryBuffer[HistoryStore.Resolution.values().length];
+		for (HistoryStore.Resolution resolution : HistoryStore.Resolution.values())
+		{
+			buffers[resolution.ordinal()] = new HistoryBuffer(resolution.getCapacity());
+		}
+		return buffers;
+	}
+
+	private static List<String> read(HistoryFile.Reader reader, long from, long to) throws IOException
+	{
+		List<String> samples = new ArrayList<>();
+		reader.read(KEY, RESOLUTION, from, to, (bucket, amount) -> samples.add(bucket + "=" + amount));
+		return samples;
+	}
+
+	/**
+	 * The samples a range read should return, worked out from the amount on each day.
+	 */
+	private static List<String> expected(int[] amounts, long from, long to)
+	{
+		List<String> samples = new ArrayList<>();
+		int startDay = -1;
+		for (int day = 0; day < amounts.length && day <= from; day++)
+		{
+			if (day == 0 || amounts[day] != amounts[day - 1])
+			{
+				startDay = day;
+			}
+		}
+		if (startDay >= 0)
+		{
+			samples.add(startDay + "=" + amounts[startDay]);
+		}
+		for (long day = Math.max(from + 1, 0); day <= to && day < amounts.length; day++)
+		{
+			if (day == 0 || amounts[(int) day] != amounts[(int) day - 1])
+			{
+				samples.add(day + "=" + amounts[(int) day]);
+			}
+		}
+		return samples;
+	}
+
+	@Test
+	public void rangeReadsMatchTheHistory() throws IOException
+	{
+		HistoryBuffer[] buffers = emptyBuffers();
+		int[] amounts = fill(buffers, 2_000, 7);
+		byte[] data = HistoryFile.write(Collections.singletonMap(KEY, buffers), buffers.length);
+
+		try (HistoryFile.Reader reader = HistoryFile.open(data))
+		{
+			long[][] ranges = {{-10, -1}, {-10, 5}, {0, 0}, {0, 1_999}, {127, 128}, {500, 900}, {1_990, 3_000}, {5_000, 6_000}};
+			for (long[] range : ranges)
+			{
+				assertEquals(range[0] + ".." + range[1], expected(amounts, range[0], range[1]), read(reader, range[0], range[1]));
+			}
+		}
+	}
+
+	@Test
+	public void rangeReadsSkipOtherBlocks() throws IOException
+	{
+		HistoryBuffer[] buffers = emptyBuffers();
+		fill(buffers, 20_000, 11);
+		byte[] data = HistoryFile.write(Collections.singletonMap(KEY, buffers), buffers.length);
+
+		CountingSource source = new CountingSource(data);
+		try (HistoryFile.Reader reader = HistoryFile.open(source))
+		{
+			long indexBytes = source.bytesRead;
+			read(reader, 10_000, 10_010);
+			long rangeBytes = source.bytesRead - indexBytes;
+
+			// At most two blocks of at most a few bytes per sample
+			assertTrue(rangeBytes + " bytes read", rangeBytes <= 2 * HistoryFile.BLOCK_SAMPLES * 5);
+		}
+	}
+
+	@Test
+	public void steadyHistoriesAreCompact()
+	{
+		// A minute history that changed by a little every minute of the day
+		HistoryBuffer[] buffers = emptyBuffers();
+		HistoryBuffer minutes = buffers[HistoryStore.Resolution.MINUTE.ordinal()];
+		for (int minute = 0; minute < 24 * 60; minute++)
+		{
+			minutes.record(29_000_000 + minute, 10_000 + minute * 3);
+		}
+		Map<String, HistoryBuffer[]> histories = Collections.singletonMap(KEY, buffers);
+
+		int bytes = HistoryFile.write(histories, buffers.length).length;
+		assertTrue(bytes + " bytes for 1440 samples", bytes < 1440 * 5 / 4);
+	}
+
+	@Test(expected = IOException.class)
+	public void otherDataIsRejected() throws IOException
+	{
+		HistoryFile.open(new byte[]{'R', 'T', 'H', 1, 0, 0, 0, 0});
+	}
+}
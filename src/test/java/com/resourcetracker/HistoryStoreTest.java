@@ -0,0 +1,152 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HistoryStoreTest
+{
+	private static final String KEY = "536:Prayer";
+	private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+	private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+	private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+	// An arbitrary day, so tests don't depend on the clock
+	private static final long START = 20_000 * DAY;
+
+	@Test
+	public void amountsCarryForwardBetweenChanges()
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START, 5);
+		store.record(KEY, START + 10 * MINUTE, 8);
+
+		assertEquals(-1, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START - MINUTE));
+		assertEquals(5, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START));
+		assertEquals(5, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START + 9 * MINUTE + 59_999));
+		assertEquals(8, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START + 10 * MINUTE));
+		assertEquals(8, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START + 100 * MINUTE));
+		assertEquals(-1, store.getAmount("other", HistoryStore.Resolution.MINUTE, START));
+	}
+
+	@Test
+	public void bucketsKeepTheirLastAmount()
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START, 5);
+		store.record(KEY, START + 30 * MINUTE, 6);
+		store.record(KEY, START + 59 * MINUTE, 7);
+
+		assertEquals(5, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START));
+		assertEquals(7, store.getAmount(KEY, HistoryStore.Resolution.HOUR, START));
+		assertEquals(7, store.getAmount(KEY, HistoryStore.Resolution.DAY, START));
+	}
+
+	@Test
+	public void olderAmountsAreIgnored()
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START + HOUR, 5);
+		store.record(KEY, START, 9);
+
+		assertEquals(-1, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START));
+		assertEquals(5, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, START + HOUR));
+	}
+
+	@Test
+	public void resolutionsCoverTheirSpans()
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START, 1);
+		for (int day = 1; day <= 1000; day++)
+		{
+			store.record(KEY, START + day * DAY, day + 1);
+		}
+		long now = START + 1000 * DAY;
+
+		// Minutes for the last day
+		assertEquals(now - DAY + MINUTE, store.getOldestTime(KEY, HistoryStore.Resolution.MINUTE));
+		assertEquals(1000, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, now - MINUTE));
+		assertEquals(-1, store.getAmount(KEY, HistoryStore.Resolution.MINUTE, now - DAY));
+
+		// Hours for the last 30 days
+		assertEquals(now - 30 * DAY + HOUR, store.getOldestTime(KEY, HistoryStore.Resolution.HOUR));
+		assertEquals(972, store.getAmount(KEY, HistoryStore.Resolution.HOUR, now - 29 * DAY));
+
+		// Days since the first amount
+		assertEquals(START, store.getOldestTime(KEY, HistoryStore.Resolution.DAY));
+		assertEquals(1, store.getAmount(KEY, HistoryStore.Resolution.DAY, START));
+		assertEquals(501, store.getAmount(KEY, HistoryStore.Resolution.DAY, START + 500 * DAY));
+	}
+
+	@Test
+	public void encodeRoundTrips() throws IOException
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START, 5);
+		store.record(KEY, START + 3 * HOUR, 2_000_000_000);
+		store.record("385:Food", START + 40 * DAY, 0);
+		assertTrue(store.isDirty());
+
+		byte[] data = store.encode();
+		assertFalse(store.isDirty());
+
+		HistoryStore loaded = new HistoryStore();
+		loaded.decode(data);
+		for (HistoryStore.Resolution resolution : HistoryStore.Resolution.values())
+		{
+			for (long time = START - HOUR; time < START + 41 * DAY; time += HOUR)
+			{
+				assertEquals(store.getAmount(KEY, resolution, time), loaded.getAmount(KEY, resolution, time));
+				assertEquals(store.getAmount("385:Food", resolution, time), loaded.getAmount("385:Food", resolution, time));
+			}
+		}
+		assertFalse(loaded.isDirty());
+	}
+
+	@Test
+	public void renameMovesHistory()
+	{
+		HistoryStore store = new HistoryStore();
+		store.record(KEY, START, 5);
+		store.rename(KEY, "536:Bones");
+
+		assertEquals(-1, store.getAmount(KEY, HistoryStore.Resolution.DAY, START));
+		assertEquals(5, store.getAmount("536:Bones", HistoryStore.Resolution.DAY, START));
+	}
+
+	@Test
+	public void pluginRecordsHistoryPerAccount()
+	{
+		PluginHarness first = new PluginHarness();
+		first.startUp();
+		first.login(1234);
+		first.getPlugin().addTrackedItem(new TrackedItem(536, "Dragon bones", null, "Prayer"));
+		first.setContainer(ContainerTracker.BANK.getId(), item(536, 120));
+		long now = System.currentTimeMillis();
+		assertEquals(120, first.getPlugin().getHistory().getAmount(KEY, HistoryStore.Resolution.MINUTE, now));
+		first.logout();
+		first.shutDown();
+
+		File file = new File(first.getHistoryDirectory(), "1234.rth");
+		assertTrue(file.exists());
+
+		PluginHarness second = new PluginHarness(first.getConfigManager());
+		second.setHistoryDirectory(first.getHistoryDirectory());
+		second.startUp();
+		second.login(5678);
+		assertEquals(-1, second.getPlugin().getHistory().getAmount(KEY, HistoryStore.Resolution.MINUTE, now));
+		second.logout();
+
+		second.login(1234);
+		assertEquals(120, second.getPlugin().getHistory().getAmount(KEY, HistoryStore.Resolution.MINUTE, now));
+		second.shutDown();
+	}
+}
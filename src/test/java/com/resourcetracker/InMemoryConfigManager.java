@@ -0,0 +1,209 @@
+package com.resourcetracker;
+
+import net.runelite.client.config.Config;
+import net.runelite.client.config.ConfigGroup;
+import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.RuneScapeProfile;
+import net.runelite.client.config.RuneScapeProfileType;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * An in-memory {@link ConfigManager} with global configuration and one set of
+ * values per RuneScape profile. The real class can only be built by the client's
+ * injector, so this answers a mock's calls from plain maps.
+ */
+public class InMemoryConfigManager
+{
+	private final Map<String, String> configuration = new HashMap<>();
+	private final Map<String, Map<String, String>> profiles = new HashMap<>();
+	private final ConfigManager configManager = mock(ConfigManager.class, this::answer);
+	private String rsProfileKey;
+
+	public ConfigManager getConfigManager()
+	{
+		return configManager;
+	}
+
+	/**
+	 * Switch the active RuneScape profile, as the client does on login.
+	 *
+	 * @param rsProfileKey The profile key, or null when logged out
+	 */
+	public void setRSProfileKey(String rsProfileKey)
+	{
+		this.rsProfileKey = rsProfileKey;
+	}
+
+	public String getRSProfileKey()
+	{
+		return rsProfileKey;
+	}
+
+	public String getConfiguration(String group, String key)
+	{
+		return configuration.get(group + "." + key);
+	}
+
+	public void setConfiguration(String group, String key, Object value)
+	{
+		configuration.put(group + "." + key, String.valueOf(value));
+	}
+
+	/**
+	 * @return A profile's value, or null if unset or the profile doesn't exist
+	 */
+	public String getProfileConfiguration(String profileKey, String group, String key)
+	{
+		Map<String, String> profile = profiles.get(profileKey);
+		return profile != null ? profile.get(group + "." + key) : null;
+	}
+
+	/**
+	 * Set a value in any profile, e.g. to seed saved data before logging in.
+	 */
+	public void setProfileConfiguration(String profileKey, String group, String key, String value)
+	{
+		profiles.computeIfAbsent(profileKey, k -> new HashMap<>()).put(group + "." + key, value);
+	}
+
+	/**
+	 * @return A profile for every profile key with values, named by its {@code rsprofile.displayName}
+	 */
+	public List<RuneScapeProfile> getRSProfiles()
+	{
+		List<RuneScapeProfile> result = new ArrayList<>();
+		for (String profileKey : profiles.keySet())
+		{
+			String hash = profileKey.substring(profileKey.lastIndexOf('.') + 1);
+			String displayName = getProfileConfiguration(profileKey, "rsprofile", "displayName");
+			result.add(new RuneScapeProfile(displayName, RuneScapeProfileType.STANDARD, Long.parseLong(hash), profileKey));
+		}
+		return result;
+	}
+
+	/**
+	 * Create a config proxy like {@code ConfigManager.getConfig}: items read
+	 * the global configuration and fall back to the interface's defaults.
+	 */
+	public <T extends Config> T getConfig(Class<T> type)
+	{
+		ConfigGroup group = type.getAnnotation(ConfigGroup.class);
+
+		// Default methods of config interfaces only return constants, so they can run against a bare proxy
+		T defaults = Fakes.proxy(type, (method, args) -> Fakes.UNHANDLED);
+		MethodHandles.Lookup lookup;
+		try
+		{
+			lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new IllegalStateException(e);
+		}
+
+		return Fakes.proxy(type, (method, args) ->
+		{
+			ConfigItem item = method.getAnnotation(ConfigItem.class);
+			if (item != null && args.length == 0)
+			{
+				String value = getConfiguration(group.value(), item.keyName());
+				if (value != null)
+				{
+					return convert(value, method.getReturnType());
+				}
+			}
+
+			if (!method.isDefault())
+			{
+				return Fakes.UNHANDLED;
+			}
+			return lookup.unreflectSpecial(method, type)
+				.bindTo(defaults)
+				.invokeWithArguments(args);
+		});
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object convert(String value, Class<?> type)
+	{
+		if (type == boolean.class || type == Boolean.class)
+		{
+			return Boolean.parseBoolean(value);
+		}
+		if (type == int.class || type == Integer.class)
+		{
+			return Integer.parseInt(value);
+		}
+		if (type == long.class || type == Long.class)
+		{
+			return Long.parseLong(value);
+		}
+		if (type == double.class || type == Double.class)
+		{
+			return Double.parseDouble(value);
+		}
+		if (type.isEnum())
+		{
+			return Enum.valueOf((Class<Enum>) type, value);
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object answer(InvocationOnMock invocation) throws Throwable
+	{
+		Object[] args = invocation.getArguments();
+		switch (invocation.getMethod().getName())
+		{
+			case "getRSProfileKey":
+				return rsProfileKey;
+			case "getRSProfiles":
+				return getRSProfiles();
+			case "getRSProfileConfiguration":
+				return getProfileConfiguration(rsProfileKey, (String) args[0], (String) args[1]);
+			case "setRSProfileConfiguration":
+				if (rsProfileKey != null)
+				{
+					profiles.computeIfAbsent(rsProfileKey, k -> new HashMap<>())
+						.put(args[0] + "." + args[1], String.valueOf(args[2]));
+				}
+				return null;
+			case "unsetRSProfileConfiguration":
+				if (rsProfileKey != null && profiles.containsKey(rsProfileKey))
+				{
+					profiles.get(rsProfileKey).remove(args[0] + "." + args[1]);
+				}
+				return null;
+			case "getConfiguration":
+				return args.length == 3
+					? getProfileConfiguration((String) args[1], (String) args[0], (String) args[2])
+					: getConfiguration((String) args[0], (String) args[1]);
+			case "setConfiguration":
+				if (args.length == 3)
+				{
+					setConfiguration((String) args[0], (String) args[1], args[2]);
+				}
+				return null;
+			case "unsetConfiguration":
+				if (args.length == 2)
+				{
+					configuration.remove(args[0] + "." + args[1]);
+				}
+				return null;
+			case "getConfig":
+				return getConfig((Class<? extends Config>) args[0]);
+			default:
+				return RETURNS_DEFAULTS.answer(invocation);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemFilterTest
+{
+	private static final String[] WORDS = {"dragon", "bones", "rune", "ore", "logs", "yew", "potion", "Super"};
+
+	@Test
+	public void filtersByState()
+	{
+		TrackedItem bones = item(536, "Dragon bones", 100, 100);
+		bones.setContainerQuantities(Collections.singletonMap("Bank", 100));
+		TrackedItem ore = item(451, "Runite ore", 10, 3);
+		ore.setInventoryOnly(true);
+		ore.setContainerQuantities(Collections.singletonMap("Inventory", 3));
+		TrackedItem logs = item(1515, "Yew logs", null, 0);
+		logs.setCategory("Woodcutting");
+		List<TrackedItem> items = Arrays.asList(bones, ore, logs);
+
+		ItemFilter filter = new ItemFilter(items, "Woodcutting"::equals);
+		assertEquals(items, matching(filter, items, "", ItemFilter.ALL));
+		assertEquals(Collections.singletonList(bones), matching(filter, items, "", ItemFilter.COMPLETE));
+		assertEquals(Collections.singletonList(ore), matching(filter, items, "", ItemFilter.INCOMPLETE));
+		assertEquals(Arrays.asList(ore, logs), matching(filter, items, "", ItemFilter.INVENTORY_ONLY));
+		assertEquals(Collections.singletonList(bones), matching(filter, items, "", "In Bank"));
+		assertEquals(Collections.singletonList(ore), matching(filter, items, "O", "In Inventory"));
+		assertTrue(ItemFilter.getStates().contains("In Seed Vault"));
+
+		// Items tracked after the index was built never match
+		assertFalse(filter.contains(filter.match("", ItemFilter.ALL), item(1, "Dragon bones", null, 0)));
+	}
+
+	@Test
+	public void typingMatchesAFreshScan()
+	{
+		Random random = new Random(3);
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < 300; i++)
+		{
+			String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+			items.add(item(i, name, null, 0));
+		}
+		ItemFilter filter = new ItemFilter(items, category -> false);
+
+		// Type and delete like a user would, each text is checked against a plain scan
+		StringBuilder text = new StringBuilder();
+		for (int step = 0; step < 500; step++)
+		{
+			if (text.length() > 0 && random.nextInt(3) == 0)
+			{
+				text.setLength(text.length() - 1);
+			}
+			else
+			{
+				String word = WORDS[random.nextInt(WORDS.length)] + " ";
+				text.append(word.charAt(random.nextInt(word.length())));
+			}
+
+			String query = text.toString();
+			List<TrackedItem> expected = new ArrayList<>();
+			for (TrackedItem item : items)
+			{
+				if (item.getItemName().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+				{
+					expected.add(item);
+				}
+			}
+			assertEquals(query, expected, matching(filter, items, query, ItemFilter.ALL));
+		}
+	}
+
+	private static List<TrackedItem> matching(ItemFilter filter, List<TrackedItem> items, String text, String state)
+	{
+		BitSet matches = filter.match(text, state);
+		List<TrackedItem> result = new ArrayList<>();
+		for (TrackedItem item : items)
+		{
+			if (filter.contains(matches, item))
+			{
+				result.add(item);
+			}
+		}
+		return result;
+	}
+
+	private static TrackedItem item(int itemId, String name, Integer goal, int amount)
+	{
+		TrackedItem item = new TrackedItem(itemId, name, goal, "Category");
+		item.setCurrentAmount(amount);
+		return item;
+	}
+}
@@ -0,0 +1,120 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemOrderTest
+{
+	@Test
+	public void sortsByEachMode()
+	{
+		TrackedItem bones = item(536, "Dragon bones", 100, 50, 2_000);
+		TrackedItem ashes = item(592, "Ashes", 100, 90, 10);
+		TrackedItem logs = item(1511, "Logs", null, 500, 50);
+		List<TrackedItem> added = Arrays.asList(bones, ashes, logs);
+
+		assertEquals(added, sorted(ItemOrder.Mode.MANUAL, added));
+		assertEquals(Arrays.asList(bones, ashes, logs), sorted(ItemOrder.Mode.PROGRESS, added));
+		assertEquals(Arrays.asList(bones, logs, ashes), sorted(ItemOrder.Mode.VALUE, added));
+		assertEquals(Arrays.asList(bones, ashes, logs), sorted(ItemOrder.Mode.MISSING, added));
+		assertEquals(Arrays.asList(ashes, bones, logs), sorted(ItemOrder.Mode.NAME, added));
+	}
+
+	@Test
+	public void unchangedItemsKeepTheOrder()
+	{
+		List<TrackedItem> items = new ArrayList<>(Arrays.asList(
+			item(536, "Dragon bones", 100, 50, 2_000),
+			item(592, "Ashes", 100, 90, 10)));
+		ItemOrder order = new ItemOrder(ItemOrder.Mode.VALUE);
+		assertTrue(order.update(items));
+		List<TrackedItem> first = order.getItems();
+
+		assertFalse(order.update(items));
+		assertTrue(first == order.getItems());
+
+		// A change that keeps every key still doesn't move anything
+		items.get(0).setHaPrice(5);
+		assertFalse(order.update(items));
+
+		items.get(1).setCurrentAmount(100_000);
+		assertTrue(order.update(items));
+		assertEquals(Arrays.asList(items.get(1), items.get(0)), order.getItems());
+	}
+
+	@Test
+	public void matchesFullSortAsItemsChange()
+	{
+		for (ItemOrder.Mode mode : ItemOrder.Mode.values())
+		{
+			Random random = new Random(mode.ordinal());
+			List<TrackedItem> items = new ArrayList<>();
+			ItemOrder order = new ItemOrder(mode);
+			for (int step = 0; step < 1_000; step++)
+			{
+				int action = random.nextInt(10);
+				if (action == 0 || items.isEmpty())
+				{
+					Integer goal = random.nextBoolean() ? 1 + random.nextInt(200) : null;
+					items.add(item(3000 + step, "Item " + random.nextInt(50), goal, random.nextInt(200), random.nextInt(100)));
+				}
+				else if (action == 1)
+				{
+					items.remove(random.nextInt(items.size()));
+				}
+				else
+				{
+					items.get(random.nextInt(items.size())).setCurrentAmount(random.nextInt(200));
+				}
+
+				order.update(items);
+				assertEquals(mode + " at step " + step, sorted(mode, items), order.getItems());
+			}
+		}
+	}
+
+	/**
+	 * The order with a fresh sort, the reference for the incremental one.
+	 */
+	private static List<TrackedItem> sorted(ItemOrder.Mode mode, List<TrackedItem> items)
+	{
+		List<TrackedItem> sorted = new ArrayList<>(items);
+		Comparator<TrackedItem> byId = Comparator.comparingInt(TrackedItem::getItemId);
+		switch (mode)
+		{
+			case PROGRESS:
+				sorted.sort(Comparator.comparingDouble((TrackedItem item) -> item.getGoalAmount() != null
+					? (double) item.getCurrentAmount() / item.getGoalAmount() : Double.MAX_VALUE).thenComparing(byId));
+				break;
+			case VALUE:
+				sorted.sort(Comparator.comparingLong((TrackedItem item) -> -item.getTotalGePrice()).thenComparing(byId));
+				break;
+			case MISSING:
+				sorted.sort(Comparator.comparingLong((TrackedItem item) -> -MissingItems.getMissing(item)).thenComparing(byId));
+				break;
+			case NAME:
+				sorted.sort(Comparator.comparing(TrackedItem::getItemName, String.CASE_INSENSITIVE_ORDER).thenComparing(byId));
+				break;
+			default:
+				break;
+		}
+		return sorted;
+	}
+
+	private static TrackedItem item(int itemId, String name, Integer goal, int amount, int gePrice)
+	{
+		TrackedItem item = new TrackedItem(itemId, name, goal, "Category");
+		item.setCurrentAmount(amount);
+		item.setGePrice(gePrice);
+		return item;
+	}
+}
@@ -0,0 +1,88 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ItemSearchIndexTest
+{
+	@Test
+	public void findsNamesWithTyposAndPartialWords()
+	{
+		ItemSearchIndex index = index("Babydragon bones", "Dragon bones", "Bones", "Super combat potion(4)", "Super attack(4)");
+
+		assertEquals(Arrays.asList("Dragon bones", "Babydragon bones"), names(index.search("dragn bones", 10)));
+		assertEquals(Arrays.asList("Super combat potion(4)"), names(index.search("sup combat", 10)));
+	}
+
+	@Test
+	public void ranksByTier()
+	{
+		ItemSearchIndex index = index("Rune plote", "Platebody (rune)", "Gilded rune platebody", "Rune platebody", "Rune plate", "Bronze axe");
+
+		// Exact, prefix, contains, every word a prefix, then within the typo budget
+		assertEquals(Arrays.asList("Rune plate", "Rune platebody", "Gilded rune platebody", "Platebody (rune)", "Rune plote"),
+			names(index.search("rune plate", 10)));
+		assertEquals(2, index.search("rune plate", 2).size());
+	}
+
+	@Test
+	public void typosOverTheBudgetDontMatch()
+	{
+		ItemSearchIndex index = index("Dragon bones");
+
+		// Four letters allow one typo, "drgn" is two away from any part of "dragon"
+		assertTrue(index.search("drgn bones", 10).isEmpty());
+		assertEquals(1, index.search("drgon bones", 10).size());
+
+		// Two letters have to match exactly
+		assertTrue(index.search("dx", 10).isEmpty());
+	}
+
+	@Test
+	public void patternsLongerThanAWordAreCut()
+	{
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; word.length() < 70; i++)
+		{
+			word.append((char) ('a' + i % 26));
+		}
+		String name = word.toString();
+		ItemSearchIndex index = index(name, "Dragon bones");
+
+		// One typo within the first 64 letters, the rest of the query is beyond the bit-parallel word
+		String typo = name.substring(0, 10) + "x" + name.substring(11);
+		assertEquals(Arrays.asList(name), names(index.search(typo, 10)));
+
+		// Two typos within the word is still in budget, three is not
+		String twoTypos = typo.substring(0, 20) + "x" + typo.substring(21);
+		assertEquals(1, index.search(twoTypos, 10).size());
+		String threeTypos = twoTypos.substring(0, 30) + "x" + twoTypos.substring(31);
+		assertTrue(index.search(threeTypos, 10).isEmpty());
+	}
+
+	private static ItemSearchIndex index(String... names)
+	{
+		ItemSearchIndex index = new ItemSearchIndex();
+		for (int i = 0; i < names.length; i++)
+		{
+			index.add(i + 1, names[i]);
+		}
+		return index;
+	}
+
+	private static List<String> names(List<ItemSearchIndex.Match> matches)
+	{
+		List<String> names = new ArrayList<>();
+		for (ItemSearchIndex.Match match : matches)
+		{
+			names.add(match.getName());
+		}
+		return names;
+	}
+}
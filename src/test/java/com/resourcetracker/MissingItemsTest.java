@@ -0,0 +1,133 @@
+package com.resourcetracker;
+
+import net.runelite.client.events.ConfigChanged;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class MissingItemsTest
+{
+	@Test
+	public void ranksByValueOrAmount()
+	{
+		TrackedItem bones = item(536, 100, 20, 2_000);
+		TrackedItem herbs = item(207, 1_000, 0, 10);
+		TrackedItem done = item(1511, 10, 50, 100);
+
+		CategoryStats byValue = stats(MissingItems.Ranking.VALUE, bones, herbs, done);
+		assertEquals(Arrays.asList(bones, herbs), byValue.getMissingItems().getTop(Arrays.asList(bones, herbs, done)));
+		assertEquals(2, byValue.getMissingItems().getMissingCount());
+
+		CategoryStats byCount = stats(MissingItems.Ranking.COUNT, bones, herbs, done);
+		assertEquals(Arrays.asList(herbs, bones), byCount.getMissingItems().getTop(Arrays.asList(bones, herbs, done)));
+		assertEquals(Arrays.asList(herbs, bones), MissingItems.rankAll(Arrays.asList(bones, herbs, done), MissingItems.Ranking.COUNT));
+	}
+
+	@Test
+	public void refillsWhenATopItemIsReached()
+	{
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < MissingItems.SIZE + 3; i++)
+		{
+			items.add(item(1000 + i, 100 + i, 0, 1));
+		}
+		CategoryStats stats = stats(MissingItems.Ranking.COUNT, items.toArray(new TrackedItem[0]));
+
+		// The top item reaches its goal, the best item outside the heap moves up
+		TrackedItem top = items.get(items.size() - 1);
+		stats.remove(top);
+		top.setCurrentAmount(top.getGoalAmount());
+		stats.add(top);
+
+		List<TrackedItem> expected = MissingItems.rankAll(items, MissingItems.Ranking.COUNT).subList(0, MissingItems.SIZE);
+		assertEquals(expected, stats.getMissingItems().getTop(items));
+		assertEquals(items.size() - 1, stats.getMissingItems().getMissingCount());
+	}
+
+	@Test
+	public void topMatchesFullRankingAsAmountsChange()
+	{
+		Random random = new Random(7);
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < 60; i++)
+		{
+			Integer goal = random.nextInt(4) == 0 ? null : random.nextInt(500);
+			TrackedItem item = new TrackedItem(2000 + i, "Item " + i, goal, "Category");
+			item.setCurrentAmount(random.nextInt(500));
+			item.setGePrice(random.nextInt(1000));
+			items.add(item);
+		}
+		CategoryStats stats = stats(MissingItems.Ranking.VALUE, items.toArray(new TrackedItem[0]));
+
+		for (int step = 0; step < 2_000; step++)
+		{
+			TrackedItem item = items.get(random.nextInt(items.size()));
+			stats.remove(item);
+			item.setCurrentAmount(random.nextInt(500));
+			stats.add(item);
+
+			if (step % 10 == 0)
+			{
+				List<TrackedItem> ranked = MissingItems.rankAll(items, MissingItems.Ranking.VALUE);
+				assertEquals(ranked.size(), stats.getMissingItems().getMissingCount());
+				assertEquals(ranked.subList(0, Math.min(MissingItems.SIZE, ranked.size())), stats.getMissingItems().getTop(items));
+			}
+		}
+	}
+
+	@Test
+	public void pluginKeepsCategoryListsRanked()
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.setConfig("missingItemsRanking", MissingItems.Ranking.COUNT.name());
+		harness.startUp();
+		harness.login(1);
+		TrackedItem bones = item(536, 100, 0, 2_000);
+		TrackedItem ashes = item(592, 100, 0, 10);
+		harness.getPlugin().addTrackedItem(bones);
+		harness.getPlugin().addTrackedItem(ashes);
+		harness.setContainer(ContainerTracker.BANK.getId(), FakeItemContainer.item(536, 95), FakeItemContainer.item(592, 10));
+		assertEquals(Arrays.asList(ashes, bones), topMissing(harness));
+
+		harness.setConfig("missingItemsRanking", MissingItems.Ranking.VALUE.name());
+		ConfigChanged event = new ConfigChanged();
+		event.setGroup("resourcetracker");
+		event.setKey("missingItemsRanking");
+		harness.getPlugin().onConfigChanged(event);
+		assertEquals(Arrays.asList(bones, ashes), topMissing(harness));
+
+		harness.setContainer(ContainerTracker.BANK.getId(), FakeItemContainer.item(536, 100), FakeItemContainer.item(592, 10));
+		assertEquals(Collections.singletonList(ashes), topMissing(harness));
+		harness.shutDown();
+	}
+
+	private static List<TrackedItem> topMissing(PluginHarness harness)
+	{
+		MissingItems missing = harness.getPlugin().getCategoryStats("Prayer").getMissingItems();
+		return missing.getTop(harness.getPlugin().getTrackedItems().values());
+	}
+
+	private static TrackedItem item(int itemId, int goal, int amount, int gePrice)
+	{
+		TrackedItem item = new TrackedItem(itemId, "Item " + itemId, goal, "Prayer");
+		item.setCurrentAmount(amount);
+		item.setGePrice(gePrice);
+		return item;
+	}
+
+	private static CategoryStats stats(MissingItems.Ranking ranking, TrackedItem... items)
+	{
+		CategoryStats stats = new CategoryStats(ranking);
+		for (TrackedItem item : items)
+		{
+			stats.add(item);
+		}
+		return stats;
+	}
+}
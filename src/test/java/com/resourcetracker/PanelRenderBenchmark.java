@@ -0,0 +1,260 @@
+package com.resourcetracker;
+
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.ui.PluginPanel;
+import net.runelite.client.util.AsyncBufferedImage;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Headless rendering benchmark for the side panel. Builds a {@link ResourceTrackerPanel}
+ * over a synthetic model and times full rebuilds, single category refreshes, layout
+ * and offscreen painting into a {@link BufferedImage}, with all categories collapsed
+ * and expanded. Run with {@code ./gradlew renderBenchmark}.
+ */
+public class PanelRenderBenchmark
+{
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 20;
+	private static final int PANEL_HEIGHT = 800;
+
+	// Categories and items per category
+	private static final int[][] SCENARIOS = {{5, 20}, {20, 50}, {50, 40}};
+
+	public static void main(String[] args) throws Exception
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		ItemManager itemManager = stubItemManager();
+		System.out.printf("%-10s %6s %9s %11s %11s %9s %9s %10s%n",
+			"state", "boxes", "items", "components", "rebuild ms", "layout ms", "paint ms", "refresh ms");
+
+		for (int[] scenario : SCENARIOS)
+		{
+			SwingUtilities.invokeAndWait(() -> run(itemManager, scenario[0], scenario[1]));
+		}
+	}
+
+	private static void run(ItemManager itemManager, int categories, int itemsPerCategory)
+	{
+		ModelPlugin plugin = new ModelPlugin(categories, itemsPerCategory, new Random(42));
+		ResourceTrackerPanel panel = new ResourceTrackerPanel(plugin, itemManager, null);
+		panel.setSize(PluginPanel.PANEL_WIDTH, PANEL_HEIGHT);
+		panel.rebuildTrackedItems();
+		layoutTree(panel);
+
+		measure("collapsed", panel, plugin);
+
+		for (CategoryBox box : findCategoryBoxes(panel))
+		{
+			box.expand();
+		}
+		measure("expanded", panel, plugin);
+	}
+
+	private static void measure(String state, ResourceTrackerPanel panel, ModelPlugin plugin)
+	{
+		BufferedImage canvas = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		String refreshed = plugin.getCategoryOrder().get(0);
+
+		long[] rebuild = new long[MEASURED_ROUNDS];
+		long[] layout = new long[MEASURED_ROUNDS];
+		long[] paint = new long[MEASURED_ROUNDS];
+		long[] refresh = new long[MEASURED_ROUNDS];
+
+		for (int round = -WARMUP_ROUNDS; round < MEASURED_ROUNDS; round++)
+		{
+			long start = System.nanoTime();
+			panel.rebuildTrackedItems();
+			long rebuilt = System.nanoTime();
+			layoutTree(panel);
+			long laidOut = System.nanoTime();
+			Graphics2D g = canvas.createGraphics();
+			panel.paint(g);
+			g.dispose();
+			long painted = System.nanoTime();
+			panel.refreshCategories(Collections.singleton(refreshed));
+			layoutTree(panel);
+			long refreshDone = System.nanoTime();
+
+			if (round >= 0)
+			{
+				rebuild[round] = rebuilt - start;
+				layout[round] = laidOut - rebuilt;
+				paint[round] = painted - laidOut;
+				refresh[round] = refreshDone - painted;
+			}
+		}
+
+		System.out.printf("%-10s %6d %9d %11d %11.2f %9.2f %9.2f %10.2f%n",
+			state, findCategoryBoxes(panel).size(), plugin.getTrackedItems().size(), countComponents(panel),
+			medianMillis(rebuild), medianMillis(layout), medianMillis(paint), medianMillis(refresh));
+	}
+
+	private static double medianMillis(long[] nanos)
+	{
+		long[] sorted = nanos.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2] / 1_000_000.0;
+	}
+
+	/**
+	 * Lays out the whole tree. Headless components never get a peer,
+	 * so {@code validate()} would return without doing anything.
+	 */
+	private static void layoutTree(Container container)
+	{
+		container.doLayout();
+		for (Component child : container.getComponents())
+		{
+			if (child instanceof Container)
+			{
+				layoutTree((Container) child);
+			}
+		}
+	}
+
+	private static int countComponents(Container container)
+	{
+		int count = 1;
+		for (Component child : container.getComponents())
+		{
+			count += child instanceof Container ? countComponents((Container) child) : 1;
+		}
+		return count;
+	}
+
+	private static List<CategoryBox> findCategoryBoxes(Container container)
+	{
+		List<CategoryBox> boxes = new ArrayList<>();
+		for (Component child : container.getComponents())
+		{
+			if (child instanceof CategoryBox)
+			{
+				boxes.add((CategoryBox) child);
+			}
+			else if (child instanceof Container)
+			{
+				boxes.addAll(findCategoryBoxes((Container) child));
+			}
+		}
+		return boxes;
+	}
+
+	private static ItemManager stubItemManager()
+	{
+		BufferedImage icon = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = icon.createGraphics();
+		g.setColor(Color.ORANGE);
+		g.fillOval(4, 2, 28, 28);
+		g.dispose();
+
+		AsyncBufferedImage image = mock(AsyncBufferedImage.class);
+		doAnswer(invocation ->
+		{
+			invocation.<JLabel>getArgument(0).setIcon(new ImageIcon(icon));
+			return null;
+		}).when(image).addTo(any(JLabel.class));
+
+		ItemManager itemManager = mock(ItemManager.class);
+		when(itemManager.getImage(anyInt())).thenReturn(image);
+		return itemManager;
+	}
+
+	/**
+	 * Serves the panel from an in-memory model instead of the game.
+	 */
+	private static class ModelPlugin extends ResourceTrackerPlugin
+	{
+		private final Map<String, TrackedItem> items = new LinkedHashMap<>();
+		private final List<String> order = new ArrayList<>();
+		private final ItemAggregator stats = new ItemAggregator(container -> true);
+		private final ResourceTrackerConfig config = new ResourceTrackerConfig()
+		{
+		};
+
+		ModelPlugin(int categories, int itemsPerCategory, Random random)
+		{
+			for (int c = 0; c < categories; c++)
+			{
+				String category = "Category " + c;
+				order.add(category);
+				for (int i = 0; i < itemsPerCategory; i++)
+				{
+					int itemId = 1 + c * itemsPerCategory + i;
+					TrackedItem item = new TrackedItem(itemId, "Item " + itemId, i % 3 == 0 ? null : 1 + random.nextInt(10_000), category);
+					item.setCurrentAmount(random.nextInt(12_000));
+					item.setGePrice(random.nextInt(100_000));
+					item.setHaPrice(random.nextInt(50_000));
+					items.put(itemId + ":" + category, item);
+				}
+			}
+			stats.rebuildCategoryStats(items.values());
+		}
+
+		@Override
+		public Map<String, TrackedItem> getTrackedItems()
+		{
+			return items;
+		}
+
+		@Override
+		public List<String> getCategoryOrder()
+		{
+			return new ArrayList<>(order);
+		}
+
+		@Override
+		public CategoryStats getCategoryStats(String category)
+		{
+			return stats.getCategoryStats(category);
+		}
+
+		@Override
+		public boolean isCategoryInventoryOnly(String category)
+		{
+			return false;
+		}
+
+		@Override
+		public ResourceTrackerConfig getConfig()
+		{
+			return config;
+		}
+
+		@Override
+		public void registerCategory(String categoryName)
+		{
+		}
+
+		@Override
+		public void requestRefresh()
+		{
+		}
+
+		@Override
+		public void requestRefresh(String category)
+		{
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistenceTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final long OTHER_ACCOUNT = 5678;
+	private static final int DRAGON_BONES = 536;
+
+	@Test
+	public void itemsAndCachesSurviveRestart()
+	{
+		PluginHarness first = new PluginHarness();
+		first.startUp();
+		first.login(ACCOUNT);
+		first.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", 500, "Prayer"));
+		first.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 120));
+		first.logout();
+		first.shutDown();
+
+		PluginHarness second = new PluginHarness(first.getConfigManager());
+		second.startUp();
+		second.login(ACCOUNT);
+
+		TrackedItem bones = second.getTrackedItem(DRAGON_BONES, "Prayer");
+		assertNotNull(bones);
+		assertEquals(500, (int) bones.getGoalAmount());
+		assertEquals(120, bones.getCurrentAmount());
+		assertTrue(second.getPlugin().getCategoryOrder().contains("Prayer"));
+		second.shutDown();
+	}
+
+	@Test
+	public void accountsAreKeptApart()
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.startUp();
+		harness.login(ACCOUNT);
+		harness.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", null, "Prayer"));
+		harness.logout();
+
+		harness.login(OTHER_ACCOUNT);
+		assertNull(harness.getTrackedItem(DRAGON_BONES, "Prayer"));
+		harness.logout();
+
+		harness.login(ACCOUNT);
+		assertNotNull(harness.getTrackedItem(DRAGON_BONES, "Prayer"));
+		harness.shutDown();
+	}
+}
@@ -0,0 +1,283 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+import net.runelite.api.ScriptID;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ScriptPostFired;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.chat.ChatMessageManager;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.chatbox.ChatboxPanelManager;
+import net.runelite.client.ui.ClientToolbar;
+import net.runelite.client.ui.ClientUI;
+
+import javax.inject.Inject;
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs a {@link ResourceTrackerPlugin} against the fakes and drives it with game
+ * events, so the plugin can be tested and profiled in plain JUnit. Events are
+ * delivered synchronously on the calling thread, panel refreshes on the EDT
+ * are waited for with {@link #flushUi()}.
+ */
+public class PluginHarness
+{
+	private static final String GROUP = "resourcetracker";
+
+	private final ResourceTrackerPlugin plugin = new ResourceTrackerPlugin();
+	private final FakeClient client = new FakeClient();
+	private final InMemoryConfigManager configManager;
+	private final FakeItemManager itemManager = new FakeItemManager();
+	private final SynchronousClientThread clientThread = new SynchronousClientThread();
+	private File historyDirectory;
+
+	public PluginHarness()
+	{
+		this(new InMemoryConfigManager());
+	}
+
+	/**
+	 * @param configManager Config to start from, shared to simulate restarting the client
+	 */
+	public PluginHarness(InMemoryConfigManager configManager)
+	{
+		this.configManager = configManager;
+
+		// Refresh the panel as soon as anything changes, rather than once per frame
+		if (configManager.getConfiguration(GROUP, "panelRefreshInterval") == null)
+		{
+			configManager.setConfiguration(GROUP, "panelRefreshInterval", 0);
+		}
+
+		// Slow first runs in a fresh JVM shouldn't put the plugin in degraded mode
+		if (configManager.getConfiguration(GROUP, "frameBudget") == null)
+		{
+			configManager.setConfiguration(GROUP, "frameBudget", 0);
+		}
+
+		Map<Class<?>, Object> bindings = new HashMap<>();
+		bindings.put(Client.class, client.getClient());
+		bindings.put(ClientThread.class, clientThread);
+		bindings.put(ConfigManager.class, configManager.getConfigManager());
+		bindings.put(ResourceTrackerConfig.class, configManager.getConfig(ResourceTrackerConfig.class));
+		bindings.put(ItemManager.class, itemManager.getItemManager());
+		bindings.put(Gson.class, new Gson());
+		bindings.put(ClientToolbar.class, mock(ClientToolbar.class));
+		bindings.put(ClientUI.class, mock(ClientUI.class));
+		bindings.put(ChatMessageManager.class, mock(ChatMessageManager.class));
+		bindings.put(ChatboxPanelManager.class, mock(ChatboxPanelManager.class));
+		bindings.put(ScheduledExecutorService.class, directExecutor());
+		inject(plugin, bindings);
+
+		// Keep history files out of the real RuneLite directory
+		try
+		{
+			setHistoryDirectory(Files.createTempDirectory("resourcetracker-history").toFile());
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * An executor service that runs submitted work inline, so background work is done when the call returns.
+	 */
+	private static ScheduledExecutorService directExecutor()
+	{
+		return Fakes.proxy(ScheduledExecutorService.class, (method, args) ->
+		{
+			if (method.getName().equals("execute") || (method.getName().equals("submit") && args[0] instanceof Runnable))
+			{
+				((Runnable) args[0]).run();
+				return method.getName().equals("submit") ? CompletableFuture.completedFuture(null) : null;
+			}
+			return Fakes.UNHANDLED;
+		});
+	}
+
+	private static void inject(Object target, Map<Class<?>, Object> bindings)
+	{
+		for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass())
+		{
+			for (Field field : type.getDeclaredFields())
+			{
+				if (!field.isAnnotationPresent(Inject.class))
+				{
+					continue;
+				}
+
+				Object value = bindings.get(field.getType());
+				if (value == null)
+				{
+					throw new IllegalStateException("No binding for " + field.getType().getName() + " " + field.getName());
+				}
+
+				try
+				{
+					field.setAccessible(true);
+					field.set(target, value);
+				}
+				catch (IllegalAccessException e)
+				{
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+	}
+
+	public ResourceTrackerPlugin getPlugin()
+	{
+		return plugin;
+	}
+
+	public FakeClient getClient()
+	{
+		return client;
+	}
+
+	public InMemoryConfigManager getConfigManager()
+	{
+		return configManager;
+	}
+
+	public FakeItemManager getItemManager()
+	{
+		return itemManager;
+	}
+
+	public SynchronousClientThread getClientThread()
+	{
+		return clientThread;
+	}
+
+	public File getHistoryDirectory()
+	{
+		return historyDirectory;
+	}
+
+	/**
+	 * Use another directory for history files, e.g. another harness's to simulate restarting the client.
+	 */
+	public void setHistoryDirectory(File historyDirectory)
+	{
+		this.historyDirectory = historyDirectory;
+		plugin.setHistoryDirectory(historyDirectory);
+	}
+
+	/**
+	 * Set a config item, e.g. {@code setConfig("trackBank", false)}.
+	 */
+	public void setConfig(String key, Object value)
+	{
+		configManager.setConfiguration(GROUP, key, value);
+	}
+
+	public void startUp()
+	{
+		plugin.startUp();
+	}
+
+	public void shutDown()
+	{
+		plugin.shutDown();
+	}
+
+	/**
+	 * Log in to an account, switching the RuneScape profile and firing the game state change.
+	 */
+	public void login(long accountHash)
+	{
+		client.setAccountHash(accountHash);
+		configManager.setRSProfileKey(profileKey(accountHash));
+		setGameState(GameState.LOGGED_IN);
+	}
+
+	/**
+	 * Return to the login screen. The account stays set while the event is handled,
+	 * so the plugin can still save to the right profile.
+	 */
+	public void logout()
+	{
+		setGameState(GameState.LOGIN_SCREEN);
+		client.setAccountHash(-1);
+		configManager.setRSProfileKey(null);
+	}
+
+	/**
+	 * @return The RuneScape profile key the harness uses for an account
+	 */
+	public static String profileKey(long accountHash)
+	{
+		return "rsprofile." + accountHash;
+	}
+
+	private void setGameState(GameState gameState)
+	{
+		client.setGameState(gameState);
+		GameStateChanged event = new GameStateChanged();
+		event.setGameState(gameState);
+		plugin.onGameStateChanged(event);
+	}
+
+	/**
+	 * Replace a container's contents and fire the change event.
+	 */
+	public void setContainer(int containerId, Item... items)
+	{
+		plugin.onItemContainerChanged(new ItemContainerChanged(containerId, client.setItemContainer(containerId, items)));
+	}
+
+	/**
+	 * Signal that the bank finished building, then run a client tick so the
+	 * potion store is read.
+	 */
+	public void bankBuilt()
+	{
+		plugin.onScriptPostFired(new ScriptPostFired(ScriptID.BANKMAIN_FINISHBUILDING));
+		tick();
+	}
+
+	/**
+	 * Run one client tick.
+	 */
+	public void tick()
+	{
+		clientThread.tick();
+		// The plugin doesn't read the event itself
+		plugin.onClientTick(null);
+	}
+
+	/**
+	 * Wait for pending panel refreshes to run on the EDT.
+	 */
+	public void flushUi() throws Exception
+	{
+		// The first pass starts the refresh, the second waits for anything it queued
+		SwingUtilities.invokeAndWait(() -> { });
+		SwingUtilities.invokeAndWait(() -> { });
+	}
+
+	/**
+	 * @return The tracked item, or null if it isn't tracked in that category
+	 */
+	public TrackedItem getTrackedItem(int itemId, String category)
+	{
+		return plugin.getTrackedItems().get(itemId + ":" + category);
+	}
+}
@@ -0,0 +1,153 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+import net.runelite.api.events.ScriptPostFired;
+import net.runelite.api.events.VarbitChanged;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays an {@link EventRecorder} recording through the plugin's event handlers
+ * using the {@link PluginHarness}, at the original pace or as fast as possible,
+ * and reports handler latency percentiles per event type.
+ * Run with {@code ./gradlew replayRecording -Precording=<file> [-PmaxSpeed]}.
+ */
+public class RecordingReplay
+{
+	private static final long ACCOUNT = 1;
+
+	private interface Event
+	{
+		void fire(PluginHarness harness);
+	}
+
+	private static class TimedEvent
+	{
+		private final long timeMicros;
+		private final String type;
+		private final Event event;
+
+		TimedEvent(long timeMicros, String type, Event event)
+		{
+			this.timeMicros = timeMicros;
+			this.type = type;
+			this.event = event;
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length < 1)
+		{
+			System.err.println("Usage: RecordingReplay <recording> [--max-speed]");
+			System.exit(1);
+		}
+		boolean maxSpeed = args.length > 1 && args[1].equals("--max-speed");
+
+		List<TimedEvent> events = new ArrayList<>();
+		try (InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(args[0]))))
+		{
+			EventRecording.read(in, new EventRecording.Visitor()
+			{
+				private long lastTime;
+
+				@Override
+				public void snapshot(String trackedItemsJson, String inventoryOnlyJson)
+				{
+					// Snapshots are taken on login, so replay them as one
+					events.add(new TimedEvent(lastTime, "login", harness -> relogin(harness, trackedItemsJson, inventoryOnlyJson)));
+				}
+
+				@Override
+				public void containerChanged(long timeMicros, int containerId, Item[] items)
+				{
+					lastTime = timeMicros;
+					events.add(new TimedEvent(timeMicros, "container " + ContainerTracker.getContainerFriendlyName(containerId),
+						harness -> harness.setContainer(containerId, items)));
+				}
+
+				@Override
+				public void varbitChanged(long timeMicros, int varpId, int varbitId, int value)
+				{
+					lastTime = timeMicros;
+					events.add(new TimedEvent(timeMicros, "varbit", harness ->
+					{
+						VarbitChanged event = new VarbitChanged();
+						event.setVarpId(varpId);
+						event.setVarbitId(varbitId);
+						event.setValue(value);
+						harness.getPlugin().onVarbitChanged(event);
+						harness.tick();
+					}));
+				}
+
+				@Override
+				public void scriptPostFired(long timeMicros, int scriptId)
+				{
+					lastTime = timeMicros;
+					events.add(new TimedEvent(timeMicros, "script " + scriptId, harness ->
+					{
+						harness.getPlugin().onScriptPostFired(new ScriptPostFired(scriptId));
+						harness.tick();
+					}));
+				}
+			});
+		}
+
+		PluginHarness harness = new PluginHarness();
+		harness.startUp();
+
+		Map<String, List<Long>> latencies = new LinkedHashMap<>();
+		long start = System.nanoTime();
+		for (TimedEvent event : events)
+		{
+			if (!maxSpeed)
+			{
+				long waitMicros = event.timeMicros - (System.nanoTime() - start) / 1000;
+				if (waitMicros > 0)
+				{
+					Thread.sleep(waitMicros / 1000, (int) (waitMicros % 1000) * 1000);
+				}
+			}
+
+			long before = System.nanoTime();
+			event.event.fire(harness);
+			latencies.computeIfAbsent(event.type, k -> new ArrayList<>()).add(System.nanoTime() - before);
+		}
+		harness.flushUi();
+		harness.shutDown();
+
+		System.out.printf("Replayed %d events in %.1f s%n", events.size(), (System.nanoTime() - start) / 1e9);
+		System.out.printf("%-28s %7s %9s %9s %9s %9s%n", "event", "count", "p50 us", "p90 us", "p99 us", "max us");
+		for (Map.Entry<String, List<Long>> entry : latencies.entrySet())
+		{
+			long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+			Arrays.sort(sorted);
+			System.out.printf("%-28s %7d %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(), sorted.length,
+				percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1] / 1000.0);
+		}
+	}
+
+	private static void relogin(PluginHarness harness, String trackedItemsJson, String inventoryOnlyJson)
+	{
+		String profile = PluginHarness.profileKey(ACCOUNT);
+		InMemoryConfigManager config = harness.getConfigManager();
+		config.setProfileConfiguration(profile, "resourcetracker", "trackedItems", trackedItemsJson);
+		config.setProfileConfiguration(profile, "resourcetracker", "invOnlyCategories", inventoryOnlyJson);
+		harness.login(ACCOUNT);
+	}
+
+	private static double percentile(long[] sorted, int percentile)
+	{
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1000.0;
+	}
+}
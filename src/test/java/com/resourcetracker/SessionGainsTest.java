@@ -0,0 +1,151 @@
+package com.resourcetracker;
+
+import org.junit.Test;
+
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+
+public class SessionGainsTest
+{
+	private static final int DRAGON_BONES = 536;
+	private static final int COINS = 995;
+
+	@Test
+	public void categorySumsFollowItems()
+	{
+		SessionGains gains = new SessionGains();
+		gains.observe("536:Prayer", "Prayer");
+		gains.observe("537:Prayer", "Prayer");
+		gains.record("536:Prayer", "Prayer", 10, 100);
+		gains.record("537:Prayer", "Prayer", -2, 50);
+		assertEquals(8, gains.getCategoryGain("Prayer"));
+		assertEquals(900, gains.getCategoryValue("Prayer"));
+
+		gains.rename("536:Prayer", "536:Bones", "Bones");
+		assertEquals(10, gains.getItemGain("536:Bones"));
+		assertEquals(-2, gains.getCategoryGain("Prayer"));
+		assertEquals(10, gains.getCategoryGain("Bones"));
+
+		gains.remove("537:Prayer");
+		assertEquals(0, gains.getCategoryGain("Prayer"));
+		assertEquals(0, gains.getCategoryValue("Prayer"));
+	}
+
+	@Test
+	public void firstChangeOfAnUnseenItemIsItsStart()
+	{
+		SessionGains gains = new SessionGains();
+		gains.record("536:Prayer", "Prayer", 120, 100);
+		assertEquals(0, gains.getItemGain("536:Prayer"));
+		gains.record("536:Prayer", "Prayer", 5, 100);
+		assertEquals(5, gains.getItemGain("536:Prayer"));
+		assertEquals(500, gains.getCategoryValue("Prayer"));
+	}
+
+	@Test
+	public void bankingNetsOutAndAcquisitionCounts()
+	{
+		PluginHarness harness = startTracking(1);
+		TrackedItem bones = harness.getTrackedItem(DRAGON_BONES, "Prayer");
+
+		// Withdrawing ten is two container events that cancel out
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 90));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 15));
+		assertEquals(0, harness.getPlugin().getSessionGain(bones));
+
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 27));
+		assertEquals(12, harness.getPlugin().getSessionGain(bones));
+		assertEquals(12, harness.getPlugin().getSessionGains().getCategoryGain("Prayer"));
+		assertEquals(12_000, harness.getPlugin().getSessionGains().getCategoryValue("Prayer"));
+
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 20));
+		assertEquals(5, harness.getPlugin().getSessionGain(bones));
+		harness.shutDown();
+	}
+
+	@Test
+	public void containersSeenFirstThisSessionOnlyCatchUp()
+	{
+		PluginHarness harness = startTracking(1);
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 10));
+		harness.logout();
+
+		// Bones bought on another client since, they weren't gained this session
+		harness.login(1);
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 500));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 12));
+		TrackedItem bones = harness.getTrackedItem(DRAGON_BONES, "Prayer");
+		assertEquals(512, bones.getCurrentAmount());
+		assertEquals(0, harness.getPlugin().getSessionGain(bones));
+
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 14));
+		assertEquals(2, harness.getPlugin().getSessionGain(bones));
+		harness.shutDown();
+	}
+
+	@Test
+	public void countsReturningAfterAResetAreNotGains()
+	{
+		PluginHarness harness = startTracking(1);
+		TrackedItem bones = harness.getTrackedItem(DRAGON_BONES, "Prayer");
+		harness.getPlugin().resetCategoryCounts("Prayer");
+		assertEquals(0, bones.getCurrentAmount());
+
+		// Any container event brings back the cached bank and inventory counts
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5), item(COINS, 1000));
+		assertEquals(105, bones.getCurrentAmount());
+		assertEquals(0, harness.getPlugin().getSessionGain(bones));
+		assertEquals(0, harness.getPlugin().getSessionGains().getCategoryGain("Prayer"));
+
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 7), item(COINS, 1000));
+		assertEquals(2, harness.getPlugin().getSessionGain(bones));
+		harness.shutDown();
+	}
+
+	@Test
+	public void togglingInventoryOnlyIsNotAGain()
+	{
+		PluginHarness harness = startTracking(1);
+		TrackedItem bones = harness.getTrackedItem(DRAGON_BONES, "Prayer");
+
+		harness.getPlugin().toggleItemInventoryOnly(bones);
+		assertEquals(5, bones.getCurrentAmount());
+		harness.getPlugin().toggleItemInventoryOnly(bones);
+		assertEquals(105, bones.getCurrentAmount());
+		assertEquals(0, harness.getPlugin().getSessionGain(bones));
+		harness.shutDown();
+	}
+
+	@Test
+	public void worldHopsKeepGainsAndNewAccountsReset()
+	{
+		PluginHarness harness = startTracking(1);
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 8));
+		assertEquals(3, harness.getPlugin().getSessionGains().getCategoryGain("Prayer"));
+
+		// Loading screens end in LOGGED_IN as well
+		harness.login(1);
+		assertEquals(3, harness.getPlugin().getSessionGains().getCategoryGain("Prayer"));
+
+		harness.login(2);
+		assertEquals(0, harness.getPlugin().getSessionGains().getCategoryGain("Prayer"));
+		harness.shutDown();
+	}
+
+	/**
+	 * Log in and track dragon bones with both containers seen, 100 banked and 5 carried.
+	 */
+	private static PluginHarness startTracking(long accountHash)
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.startUp();
+		harness.login(accountHash);
+		TrackedItem bones = new TrackedItem(DRAGON_BONES, "Dragon bones", null, "Prayer");
+		bones.setGePrice(1000);
+		harness.getPlugin().addTrackedItem(bones);
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 100));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5));
+		assertEquals(0, harness.getPlugin().getSessionGain(bones));
+		return harness;
+	}
+}
@@ -0,0 +1,146 @@
+package com.resourcetracker;
+
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShareCodecTest
+{
+	private static List<String> decode(String shareString)
+	{
+		List<String> items = new ArrayList<>();
+		ShareCodec.read(shareString).forEach((itemId, goal, inventoryOnly) -> items.add(itemId + " " + goal + " " + inventoryOnly));
+		return items;
+	}
+
+	private static void assertRejected(String text)
+	{
+		try
+		{
+			decode(text);
+			fail("Accepted " + text);
+		}
+		catch (IllegalArgumentException expected)
+		{
+		}
+	}
+
+	@Test
+	public void roundTripsIdsGoalsAndFlags()
+	{
+		TrackedItem noGoal = new TrackedItem(28_000, "Shark", null, "Food");
+		TrackedItem goal = new TrackedItem(385, "Shark", 1_000_000, "Food");
+		TrackedItem inventoryOnly = new TrackedItem(2434, "Prayer potion(4)", 20, "Food");
+		inventoryOnly.setInventoryOnly(true);
+
+		String shareString = ShareCodec.encode(Arrays.asList(noGoal, goal, inventoryOnly));
+
+		assertTrue(ShareCodec.isShareString(shareString));
+		assertFalse(shareString.contains("+") || shareString.contains("/") || shareString.contains("="));
+		assertEquals(3, ShareCodec.read(shareString).getCount());
+		// Written in ID order
+		assertEquals(Arrays.asList("385 1000000 false", "2434 20 true", "28000 null false"), decode(shareString));
+	}
+
+	@Test
+	public void emptyCategory()
+	{
+		String shareString = ShareCodec.encode(Collections.emptyList());
+		assertEquals(0, ShareCodec.read(shareString).getCount());
+		assertEquals(Collections.emptyList(), decode(shareString));
+	}
+
+	@Test
+	public void muchSmallerThanJson()
+	{
+		Random random = new Random(1);
+		List<TrackedItem> items = new ArrayList<>();
+		for (int i = 0; i < 300; i++)
+		{
+			int itemId = 1 + random.nextInt(30_000);
+			items.add(new TrackedItem(itemId, "Item " + itemId, random.nextBoolean() ? 1 + random.nextInt(5_000) : null, "Category"));
+		}
+		String shareString = ShareCodec.encode(items);
+		String json = new Gson().toJson(items);
+
+		assertEquals(items.size(), decode(shareString).size());
+		assertTrue(shareString.length() + " vs " + json.length(), shareString.length() * 10 < json.length());
+	}
+
+	@Test
+	public void legacyJsonIsNotAShareString()
+	{
+		String json = new Gson().toJson(Collections.singletonList(new TrackedItem(385, "Shark", 10, "Food")));
+		assertFalse(ShareCodec.isShareString(json));
+		assertFalse(ShareCodec.isShareString(""));
+		assertTrue(ShareCodec.isShareString("  " + ShareCodec.PREFIX + "x\n"));
+	}
+
+	@Test
+	public void rejectsMalformedInput()
+	{
+		String shareString = ShareCodec.encode(Collections.singletonList(new TrackedItem(385, "Shark", 10, "Food")));
+
+		assertRejected(ShareCodec.PREFIX);
+		assertRejected(ShareCodec.PREFIX + "not base64!");
+		assertRejected(ShareCodec.PREFIX + "AAAA");
+		assertRejected(shareString.substring(0, shareString.length() - 4));
+	}
+
+	@Test
+	public void importResolvesNamesAndPrices() throws Exception
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.getItemManager()
+			.addItem(385, "Shark", 900, 150)
+			.addItem(2434, "Prayer potion(4)", 8_000, 120);
+		harness.startUp();
+		try
+		{
+			harness.login(1234);
+			harness.setContainer(ContainerTracker.BANK.getId(), FakeItemContainer.item(385, 70));
+
+			TrackedItem shark = new TrackedItem(385, "Renamed shark", 100, "Exported");
+			TrackedItem potion = new TrackedItem(2434, "Prayer potion(4)", null, "Exported");
+			potion.setInventoryOnly(true);
+			// No longer in the cache, skipped on import
+			TrackedItem removed = new TrackedItem(99_999, "Removed", null, "Exported");
+
+			ShareCodec.Reader reader = ShareCodec.read(ShareCodec.encode(Arrays.asList(shark, potion, removed)));
+			ResourceTrackerPanel panel = new ResourceTrackerPanel(harness.getPlugin(), harness.getItemManager().getItemManager(), null);
+			panel.importSharedCategory(reader, "Imported");
+			harness.flushUi();
+
+			TrackedItem importedShark = harness.getTrackedItem(385, "Imported");
+			assertNotNull(importedShark);
+			assertEquals("Shark", importedShark.getItemName());
+			assertEquals(Integer.valueOf(100), importedShark.getGoalAmount());
+			assertEquals(900, importedShark.getGePrice());
+			assertEquals(150, importedShark.getHaPrice());
+			assertEquals(70, importedShark.getCurrentAmount());
+
+			TrackedItem importedPotion = harness.getTrackedItem(2434, "Imported");
+			assertNotNull(importedPotion);
+			assertNull(importedPotion.getGoalAmount());
+			assertTrue(importedPotion.isInventoryOnly());
+
+			assertNull(harness.getTrackedItem(99_999, "Imported"));
+		}
+		finally
+		{
+			harness.shutDown();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.resourcetracker;
+
+import net.runelite.client.callback.ClientThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A {@link ClientThread} that runs work immediately on the calling thread.
+ * Suppliers returning false are retried on {@link #tick()}, as the real
+ * client thread retries them on the next client tick.
+ */
+public class SynchronousClientThread extends ClientThread
+{
+	private final List<BooleanSupplier> pending = new ArrayList<>();
+
+	@Override
+	public void invoke(Runnable runnable)
+	{
+		runnable.run();
+	}
+
+	@Override
+	public void invoke(BooleanSupplier supplier)
+	{
+		if (!supplier.getAsBoolean())
+		{
+			pending.add(supplier);
+		}
+	}
+
+	@Override
+	public void invokeLater(Runnable runnable)
+	{
+		runnable.run();
+	}
+
+	@Override
+	public void invokeLater(BooleanSupplier supplier)
+	{
+		invoke(supplier);
+	}
+
+	@Override
+	public void invokeAtTickEnd(Runnable runnable)
+	{
+		runnable.run();
+	}
+
+	/**
+	 * Retry the suppliers that weren't done yet.
+	 */
+	public void tick()
+	{
+		List<BooleanSupplier> retry = new ArrayList<>(pending);
+		pending.clear();
+		for (BooleanSupplier supplier : retry)
+		{
+			invoke(supplier);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package com.resourcetracker;
+
+import net.runelite.api.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.resourcetracker.FakeItemContainer.empty;
+import static com.resourcetracker.FakeItemContainer.item;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TrackingTest
+{
+	private static final long ACCOUNT = 1234;
+	private static final int DRAGON_BONES = 536;
+	private static final int RANARR_SEED = 5295;
+	private static final int PRAYER_POTION_1 = 143;
+	private static final int PRAYER_POTION_2 = 141;
+	private static final int PRAYER_POTION_3 = 139;
+	private static final int PRAYER_POTION_4 = 2434;
+	private static final int DRAGON_SCIMITAR = 4587;
+	private static final int RUNE_ARROW = 892;
+	private static final int EQUIPMENT_SLOTS = 14;
+
+	private PluginHarness harness;
+
+	@Before
+	public void setUp()
+	{
+		harness = new PluginHarness();
+		harness.startUp();
+		harness.login(ACCOUNT);
+	}
+
+	@After
+	public void tearDown()
+	{
+		harness.shutDown();
+	}
+
+	private TrackedItem track(int itemId, String category)
+	{
+		harness.getPlugin().addTrackedItem(new TrackedItem(itemId, "Item " + itemId, null, category));
+		return harness.getTrackedItem(itemId, category);
+	}
+
+	@Test
+	public void sumsAcrossContainers()
+	{
+		TrackedItem bones = track(DRAGON_BONES, "Prayer");
+
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 100), empty(), item(RANARR_SEED, 3));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5));
+
+		assertEquals(105, bones.getCurrentAmount());
+		assertEquals(100, (int) bones.getContainerQuantities().get("Bank"));
+		assertEquals(5, (int) bones.getContainerQuantities().get("Inventory"));
+	}
+
+	@Test
+	public void inventoryOnlyCategoryIgnoresBank()
+	{
+		TrackedItem bones = track(DRAGON_BONES, "Trip");
+		harness.getPlugin().toggleCategoryInventoryOnly("Trip");
+
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 100));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5));
+
+		assertEquals(5, bones.getCurrentAmount());
+		assertNull(bones.getContainerQuantities().get("Bank"));
+	}
+
+	@Test
+	public void disabledContainerIsIgnored()
+	{
+		harness.setConfig("trackBank", false);
+		TrackedItem bones = track(DRAGON_BONES, "Prayer");
+
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 100));
+		harness.setContainer(ContainerTracker.INVENTORY.getId(), item(DRAGON_BONES, 5));
+
+		assertEquals(5, bones.getCurrentAmount());
+	}
+
+	@Test
+	public void boatAlternateIdsShareOneCache()
+	{
+		TrackedItem bones = track(DRAGON_BONES, "Prayer");
+
+		harness.setContainer(ContainerTracker.BOAT_1.getId(), item(DRAGON_BONES, 10));
+		harness.setContainer(ContainerTracker.BOAT_1_ALT.getId(), item(DRAGON_BONES, 12));
+
+		assertEquals(12, bones.getCurrentAmount());
+	}
+
+	@Test
+	public void potionStoreDosesAreConverted()
+	{
+		TrackedItem fourDose = track(PRAYER_POTION_4, "Potions");
+		TrackedItem oneDose = track(PRAYER_POTION_1, "Potions");
+		int prayer = harness.getClient().getPotionStore()
+			.addPotion(10, PRAYER_POTION_1, PRAYER_POTION_2, PRAYER_POTION_3, PRAYER_POTION_4);
+
+		harness.bankBuilt();
+		assertEquals(2, fourDose.getCurrentAmount());
+		assertEquals(10, oneDose.getCurrentAmount());
+
+		harness.getClient().getPotionStore().setDoses(prayer, 17);
+		harness.bankBuilt();
+		assertEquals(4, fourDose.getCurrentAmount());
+	}
+
+	@Test
+	public void categoryStatsFollowContainerChanges() throws Exception
+	{
+		harness.getPlugin().addTrackedItem(new TrackedItem(DRAGON_BONES, "Dragon bones", 50, "Prayer"));
+
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 20));
+		harness.flushUi();
+		assertEquals(20, harness.getPlugin().getCategoryStats("Prayer").getCappedProgress());
+
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 80));
+		harness.flushUi();
+		assertEquals(50, harness.getPlugin().getCategoryStats("Prayer").getCappedProgress());
+		assertEquals(1.0, harness.getPlugin().getCategoryStats("Prayer").getProgressRatio(), 0);
+	}
+
+	@Test
+	public void equipmentSwapsOnlyTouchChangedItems()
+	{
+		TrackedItem scimitar = track(DRAGON_SCIMITAR, "Gear");
+		TrackedItem arrows = track(RUNE_ARROW, "Gear");
+		TrackedItem bones = track(DRAGON_BONES, "Prayer");
+		harness.setContainer(ContainerTracker.BANK.getId(), item(DRAGON_BONES, 100), item(DRAGON_SCIMITAR, 1));
+
+		Item[] worn = equipment();
+		worn[3] = item(DRAGON_SCIMITAR, 1);
+		worn[13] = item(RUNE_ARROW, 300);
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+		assertEquals(2, scimitar.getCurrentAmount());
+		assertEquals(1, (int) scimitar.getContainerQuantities().get("Equipment"));
+		assertEquals(300, arrows.getCurrentAmount());
+
+		// Items in unchanged slots aren't looked at, a full update would put this back to 100
+		bones.setCurrentAmount(-1);
+		worn = worn.clone();
+		worn[13] = item(RUNE_ARROW, 299);
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+		assertEquals(299, arrows.getCurrentAmount());
+		assertEquals(-1, bones.getCurrentAmount());
+
+		worn = worn.clone();
+		worn[3] = empty();
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+		assertEquals(1, scimitar.getCurrentAmount());
+
+		harness.setConfig("trackEquipment", false);
+		harness.getPlugin().updateTrackedItems();
+		assertEquals(0, arrows.getCurrentAmount());
+	}
+
+	@Test
+	public void equipmentChangesReachEveryCategoryOfAnItem()
+	{
+		TrackedItem gearArrows = track(RUNE_ARROW, "Gear");
+		TrackedItem rangedArrows = track(RUNE_ARROW, "Ranged");
+		Item[] worn = equipment();
+		worn[13] = item(RUNE_ARROW, 300);
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+
+		worn = worn.clone();
+		worn[13] = item(RUNE_ARROW, 299);
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+		assertEquals(299, gearArrows.getCurrentAmount());
+		assertEquals(299, rangedArrows.getCurrentAmount());
+
+		// Untracked items drop out of the ID index
+		harness.getPlugin().removeTrackedItem(RUNE_ARROW, "Ranged");
+		worn = worn.clone();
+		worn[13] = item(RUNE_ARROW, 298);
+		harness.setContainer(ContainerTracker.EQUIPMENT.getId(), worn);
+		assertEquals(298, gearArrows.getCurrentAmount());
+		assertEquals(299, rangedArrows.getCurrentAmount());
+	}
+
+	@Test
+	public void equipmentSlotDiffMatchesFullRebuild()
+	{
+		Random random = new Random(11);
+		int[] itemIds = {DRAGON_SCIMITAR, RUNE_ARROW, DRAGON_BONES, RANARR_SEED};
+		ItemAggregator diffed = new ItemAggregator(container -> true);
+		Item[] worn = equipment();
+		Map<Integer, Integer> before = new HashMap<>();
+
+		for (int step = 0; step < 2_000; step++)
+		{
+			worn = worn.clone();
+			for (int swaps = random.nextInt(3); swaps >= 0; swaps--)
+			{
+				worn[random.nextInt(EQUIPMENT_SLOTS)] = random.nextInt(3) == 0
+					? empty() : item(itemIds[random.nextInt(itemIds.length)], 1 + random.nextInt(5));
+			}
+			int changedCount = diffed.updateContainerSlots(ContainerTracker.EQUIPMENT.getId(), worn);
+			Set<Integer> changedIds = new HashSet<>();
+			for (int i = 0; i < changedCount; i++)
+			{
+				changedIds.add(diffed.getChangedId(i));
+			}
+
+			ItemAggregator rebuilt = new ItemAggregator(container -> true);
+			rebuilt.updateContainerCache(ContainerTracker.EQUIPMENT.getId(), worn);
+			Map<Integer, Integer> after = rebuilt.getContainerCaches().get(ContainerTracker.EQUIPMENT.getId());
+			assertEquals("step " + step, after, diffed.getContainerCaches().get(ContainerTracker.EQUIPMENT.getId()));
+
+			for (int itemId : itemIds)
+			{
+				// The first contents have nothing to diff against, every item may have changed
+				if (changedCount >= 0 && !before.getOrDefault(itemId, 0).equals(after.getOrDefault(itemId, 0)))
+				{
+					assertTrue("step " + step, changedIds.contains(itemId));
+				}
+			}
+			before = after;
+		}
+	}
+
+	private static Item[] equipment()
+	{
+		Item[] slots = new Item[EQUIPMENT_SLOTS];
+		for (int i = 0; i < slots.length; i++)
+		{
+			slots[i] = empty();
+		}
+		return slots;
+	}
+}